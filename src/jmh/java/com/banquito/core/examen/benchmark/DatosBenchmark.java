@@ -0,0 +1,78 @@
+package com.banquito.core.examen.benchmark;
+
+import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Datos de prueba con la forma de un turno real: seis denominaciones y transacciones
+ * que alternan depósitos y retiros.
+ */
+final class DatosBenchmark {
+
+    private static final String[] DENOMINACIONES = {
+            DetalleDenominacion.DENOMINACION_UNO,
+            DetalleDenominacion.DENOMINACION_CINCO,
+            DetalleDenominacion.DENOMINACION_DIEZ,
+            DetalleDenominacion.DENOMINACION_VEINTE,
+            DetalleDenominacion.DENOMINACION_CINCUENTA,
+            DetalleDenominacion.DENOMINACION_CIEN
+    };
+
+    private DatosBenchmark() {
+    }
+
+    static List<DetalleDenominacion> denominaciones(Random random) {
+        List<DetalleDenominacion> denominaciones = new ArrayList<>(DENOMINACIONES.length);
+        for (String denominacion : DENOMINACIONES) {
+            denominaciones.add(new DetalleDenominacion(denominacion, 1 + random.nextInt(20)));
+        }
+        return denominaciones;
+    }
+
+    static Turno turno(Random random) {
+        Turno turno = new Turno("507f1f77bcf86cd799439011");
+        turno.setCodigoTurno("CAJA01-CAJ001-16TGW8V7K0");
+        turno.setCajeroId("507f1f77bcf86cd799439012");
+        turno.setCodigoCajero("CAJ001");
+        turno.setCodigoCaja("CAJA01");
+        turno.setAgencia("AG001");
+        turno.setEstado(Turno.ESTADO_ABIERTO);
+        turno.setFechaApertura(LocalDateTime.now());
+        turno.setDineroInicial(denominaciones(random));
+        turno.setMontoCalculado(turno.calcularMontoInicial());
+        turno.setTotalDepositos(BigDecimal.ZERO);
+        turno.setTotalRetiros(BigDecimal.ZERO);
+        return turno;
+    }
+
+    static Transaccion transaccion(Random random, int indice) {
+        Transaccion transaccion = new Transaccion("tx-" + indice);
+        transaccion.setCodigoTransaccion("TXN-CAJ001-" + Integer.toString(indice, 36));
+        transaccion.setTurnoId("507f1f77bcf86cd799439011");
+        transaccion.setCajeroId("507f1f77bcf86cd799439012");
+        transaccion.setCodigoCajero("CAJ001");
+        transaccion.setCodigoCaja("CAJA01");
+        transaccion.setTipo(indice % 2 == 0 ? Transaccion.TIPO_DEPOSITO : Transaccion.TIPO_RETIRO);
+        transaccion.setDenominaciones(denominaciones(random));
+        transaccion.setMonto(transaccion.calcularMontoTotal());
+        transaccion.setClienteId("CLI001");
+        transaccion.setNumeroCuenta("2200001234");
+        transaccion.setFechaTransaccion(LocalDateTime.now());
+        return transaccion;
+    }
+
+    static List<Transaccion> transacciones(Random random, int cantidad) {
+        List<Transaccion> transacciones = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            transacciones.add(transaccion(random, i));
+        }
+        return transacciones;
+    }
+}
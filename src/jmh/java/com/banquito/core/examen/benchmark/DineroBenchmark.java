@@ -0,0 +1,104 @@
+package com.banquito.core.examen.benchmark;
+
+import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.model.VectorDenominaciones;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cálculos de dinero del camino caliente: valor de una denominación, monto de una transacción,
+ * monto inicial de un turno y la reducción del monto esperado sobre un turno de 10k transacciones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DineroBenchmark {
+
+    private static final int TRANSACCIONES_POR_TURNO = 10_000;
+
+    private DetalleDenominacion detalle;
+    private Transaccion transaccion;
+    private Turno turno;
+    private List<Transaccion> transacciones;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        detalle = new DetalleDenominacion(DetalleDenominacion.DENOMINACION_VEINTE, 37);
+        transaccion = DatosBenchmark.transaccion(random, 1);
+        turno = DatosBenchmark.turno(random);
+        transacciones = DatosBenchmark.transacciones(random, TRANSACCIONES_POR_TURNO);
+    }
+
+    @Benchmark
+    public BigDecimal valorTotalDenominacion() {
+        return detalle.getValorTotal();
+    }
+
+    @Benchmark
+    public BigDecimal montoTotalTransaccion() {
+        return transaccion.calcularMontoTotal();
+    }
+
+    @Benchmark
+    public BigDecimal montoInicialTurno() {
+        return turno.calcularMontoInicial();
+    }
+
+    /**
+     * Reducción con BigDecimal por transacción, como se calculaba el monto esperado al cierre
+     * antes del saldo acumulado.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BigDecimal montoEsperadoBigDecimal() {
+        BigDecimal monto = turno.calcularMontoInicial();
+        for (Transaccion t : transacciones) {
+            if (Transaccion.TIPO_DEPOSITO.equals(t.getTipo())) {
+                monto = monto.add(t.calcularMontoTotal());
+            } else {
+                monto = monto.subtract(t.calcularMontoTotal());
+            }
+        }
+        return monto;
+    }
+
+    /**
+     * Reducción sobre vectores de denominaciones, la que usa {@code TurnoService.recalcularSaldo}.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public BigDecimal montoEsperadoVector() {
+        VectorDenominaciones depositos = new VectorDenominaciones();
+        VectorDenominaciones retiros = new VectorDenominaciones();
+        for (Transaccion t : transacciones) {
+            if (Transaccion.TIPO_DEPOSITO.equals(t.getTipo())) {
+                depositos.agregar(t.getDenominaciones());
+            } else {
+                retiros.agregar(t.getDenominaciones());
+            }
+        }
+        return VectorDenominaciones.desde(turno.getDineroInicial())
+                .sumar(depositos)
+                .restar(retiros)
+                .totalMonto();
+    }
+}
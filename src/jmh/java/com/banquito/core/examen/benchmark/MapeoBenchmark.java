@@ -0,0 +1,82 @@
+package com.banquito.core.examen.benchmark;
+
+import com.banquito.core.examen.controller.dto.TransaccionDTO;
+import com.banquito.core.examen.controller.dto.TurnoDTO;
+import com.banquito.core.examen.controller.mapper.TransaccionMapper;
+import com.banquito.core.examen.controller.mapper.TurnoMapper;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversiones MapStruct entre entidades y DTOs de los endpoints de turnos y transacciones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoBenchmark {
+
+    private static final int TAMANIO_PAGINA = 20;
+
+    private final TurnoMapper turnoMapper = Mappers.getMapper(TurnoMapper.class);
+    private final TransaccionMapper transaccionMapper = Mappers.getMapper(TransaccionMapper.class);
+
+    private Turno turno;
+    private TurnoDTO turnoDTO;
+    private Transaccion transaccion;
+    private TransaccionDTO transaccionDTO;
+    private List<Transaccion> pagina;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        turno = DatosBenchmark.turno(random);
+        turno.setDineroFinal(DatosBenchmark.denominaciones(random));
+        turnoDTO = turnoMapper.toDTO(turno);
+        transaccion = DatosBenchmark.transaccion(random, 1);
+        transaccionDTO = transaccionMapper.toDTO(transaccion);
+        pagina = DatosBenchmark.transacciones(random, TAMANIO_PAGINA);
+    }
+
+    @Benchmark
+    public TurnoDTO turnoToDTO() {
+        return turnoMapper.toDTO(turno);
+    }
+
+    @Benchmark
+    public Turno turnoToModel() {
+        return turnoMapper.toModel(turnoDTO);
+    }
+
+    @Benchmark
+    public TransaccionDTO transaccionToDTO() {
+        return transaccionMapper.toDTO(transaccion);
+    }
+
+    @Benchmark
+    public Transaccion transaccionToModel() {
+        return transaccionMapper.toModel(transaccionDTO);
+    }
+
+    @Benchmark
+    public List<TransaccionDTO> paginaTransaccionesToDTO() {
+        return transaccionMapper.toDTOList(pagina);
+    }
+}
@@ -0,0 +1,191 @@
+package com.banquito.core.examen.config;
+
+import com.banquito.core.examen.service.GeneradorCodigos;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.UUID;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+
+/**
+ * Reserva en Mongo el nodo de {@link GeneradorCodigos} de esta instancia, así dos instancias no generan
+ * códigos con el mismo nodo. La reserva vence si no se renueva; al tomarla, el generador continúa después
+ * del último milisegundo que pudo usar el dueño anterior, aunque el reloj local esté atrasado.
+ * Con un nodo fijo en uso por otra instancia espera a que venza y, si no vence, la instancia queda fuera
+ * del grupo readiness. Con {@link GeneradorCodigos#NODO_AUTOMATICO} toma el primer nodo libre.
+ */
+@Component
+@Order(ArrendamientoNodoCodigos.ORDEN)
+@Slf4j
+public class ArrendamientoNodoCodigos implements ApplicationRunner {
+
+    static final int ORDEN = MigracionesMongo.ORDEN + 5;
+    static final String PASO = "codigos.nodo";
+    static final String COLECCION = "nodos_codigos";
+
+    private final MongoTemplate mongoTemplate;
+    private final GeneradorCodigos generador;
+    private final EsquemaMongoHealthIndicator esquema;
+    private final Duration vigencia;
+    private final String instancia = UUID.randomUUID().toString();
+
+    private volatile boolean reservado;
+    private volatile long vence;
+
+    public ArrendamientoNodoCodigos(MongoTemplate mongoTemplate, GeneradorCodigos generador,
+                                    EsquemaMongoHealthIndicator esquema,
+                                    @Value("${banquito.codigos.arrendamiento:PT30S}") Duration vigencia) {
+        this.mongoTemplate = mongoTemplate;
+        this.generador = generador;
+        this.esquema = esquema;
+        this.vigencia = vigencia;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (esquema.tieneFalla(MigracionesMongo.PASO)) {
+            // Sin migraciones aplicadas Mongo no respondió o el esquema no está listo; no se espera de nuevo
+            esquema.registrarFalla(PASO, "Migraciones pendientes");
+            return;
+        }
+        try {
+            if (generador.esNodoAutomatico()) {
+                reservarLibre();
+            } else {
+                reservarFijo(generador.getNodo());
+            }
+        } catch (RuntimeException e) {
+            log.error("No se pudo reservar el nodo de códigos: {}", e.getMessage());
+            esquema.registrarFalla(PASO, e.getMessage());
+        }
+    }
+
+    private void reservarFijo(long nodo) {
+        long limite = System.currentTimeMillis() + vigencia.toMillis() + 1000;
+        while (!reservar(nodo)) {
+            if (System.currentTimeMillis() > limite) {
+                log.error("El nodo de códigos {} está en uso por otra instancia", nodo);
+                esquema.registrarFalla(PASO, "Nodo " + nodo + " en uso por otra instancia");
+                return;
+            }
+            // Tras una caída la reserva anterior sigue vigente hasta que vence
+            log.warn("Nodo de códigos {} reservado por otra instancia, esperando a que venza", nodo);
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                esquema.registrarFalla(PASO, "Interrumpido esperando el nodo " + nodo);
+                return;
+            }
+        }
+    }
+
+    private void reservarLibre() {
+        for (long nodo = 0; nodo <= GeneradorCodigos.MAXIMO_NODO; nodo++) {
+            if (reservar(nodo)) {
+                generador.asignarNodo(nodo);
+                return;
+            }
+        }
+        esquema.registrarFalla(PASO, "No hay nodos de códigos libres");
+    }
+
+    // Toma el nodo si no tiene dueño, si su reserva venció o si ya es de esta instancia
+    private boolean reservar(long nodo) {
+        long ahora = System.currentTimeMillis();
+        Bson disponible = and(eq("_id", nodo),
+                or(lt("vence", new Date(ahora)), eq("instancia", instancia)));
+        Document anterior;
+        try {
+            anterior = coleccion().findOneAndUpdate(disponible,
+                    combine(set("instancia", instancia), set("vence", new Date(ahora + vigencia.toMillis()))),
+                    new FindOneAndUpdateOptions().upsert(true).returnDocument(ReturnDocument.BEFORE));
+        } catch (MongoWriteException e) {
+            // El upsert choca con la reserva vigente de otra instancia
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+        if (anterior != null) {
+            // El dueño anterior pudo generar hasta que venció su reserva
+            long hasta = Math.max(anterior.get("hasta", 0L), anterior.getDate("vence").getTime());
+            generador.noAntesDe(hasta);
+        }
+        vence = ahora + vigencia.toMillis();
+        reservado = true;
+        esquema.registrarCorrecto(PASO);
+        log.info("Nodo de códigos {} reservado hasta {}", nodo, new Date(vence));
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${banquito.codigos.renovacion:PT10S}")
+    public void renovar() {
+        if (!reservado) {
+            return;
+        }
+        long ahora = System.currentTimeMillis();
+        try {
+            long renovadas = coleccion().updateOne(
+                    and(eq("_id", generador.getNodo()), eq("instancia", instancia)),
+                    combine(set("vence", new Date(ahora + vigencia.toMillis())),
+                            set("hasta", generador.ultimoMilisegundo())))
+                    .getModifiedCount();
+            if (renovadas == 0) {
+                reservado = false;
+                log.error("El nodo de códigos {} fue tomado por otra instancia", generador.getNodo());
+                esquema.registrarFalla(PASO, "Nodo " + generador.getNodo() + " tomado por otra instancia");
+                return;
+            }
+            vence = ahora + vigencia.toMillis();
+        } catch (RuntimeException e) {
+            log.error("No se pudo renovar el nodo de códigos {}: {}", generador.getNodo(), e.getMessage());
+            if (ahora > vence) {
+                esquema.registrarFalla(PASO, "Reserva del nodo " + generador.getNodo() + " vencida");
+            }
+        }
+    }
+
+    /**
+     * Libera el nodo al detenerse, dejando el último milisegundo usado para quien lo tome después.
+     */
+    @PreDestroy
+    public void liberar() {
+        if (!reservado) {
+            return;
+        }
+        reservado = false;
+        try {
+            coleccion().updateOne(and(eq("_id", generador.getNodo()), eq("instancia", instancia)),
+                    combine(set("vence", new Date()), set("hasta", generador.ultimoMilisegundo())));
+        } catch (RuntimeException e) {
+            log.warn("No se pudo liberar el nodo de códigos {}: {}", generador.getNodo(), e.getMessage());
+        }
+    }
+
+    private MongoCollection<Document> coleccion() {
+        return mongoTemplate.getCollection(COLECCION);
+    }
+}
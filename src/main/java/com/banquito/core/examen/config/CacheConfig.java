@@ -0,0 +1,12 @@
+package com.banquito.core.examen.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String CAJEROS = "cajeros";
+    public static final String CAJEROS_ACTIVOS = "cajerosActivos";
+}
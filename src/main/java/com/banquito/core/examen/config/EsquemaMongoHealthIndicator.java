@@ -0,0 +1,40 @@
+package com.banquito.core.examen.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estado del esquema de Mongo que la aplicación necesita para atender: cada paso del arranque
+ * (índices únicos, migraciones) registra aquí si quedó aplicado. Forma parte del grupo readiness,
+ * así una instancia con un paso pendiente no recibe tráfico.
+ */
+@Component
+public class EsquemaMongoHealthIndicator implements HealthIndicator {
+
+    private final Map<String, String> fallas = new ConcurrentHashMap<>();
+
+    public void registrarFalla(String paso, String motivo) {
+        fallas.put(paso, motivo);
+    }
+
+    public void registrarCorrecto(String paso) {
+        fallas.remove(paso);
+    }
+
+    public boolean tieneFalla(String paso) {
+        return fallas.containsKey(paso);
+    }
+
+    @Override
+    public Health health() {
+        if (fallas.isEmpty()) {
+            return Health.up().build();
+        }
+        return Health.down().withDetails(new TreeMap<>(fallas)).build();
+    }
+}
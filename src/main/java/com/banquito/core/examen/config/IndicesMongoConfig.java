@@ -0,0 +1,156 @@
+package com.banquito.core.examen.config;
+
+import com.banquito.core.examen.model.Cajero;
+import com.banquito.core.examen.model.ResumenHorario;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Crea al arrancar, antes de que la instancia quede lista, los índices declarados en las entidades.
+ * Cada colección y cada índice se verifican por separado: un índice que falla no impide crear los demás.
+ * Un índice único no se crea si la colección ya tiene valores repetidos para sus claves; en ese caso,
+ * o si su creación falla, la instancia queda fuera del grupo readiness ({@link EsquemaMongoHealthIndicator})
+ * hasta que se corrijan los datos y se reinicie. Se ejecuta después de {@link MigracionesMongo} y no se
+ * intenta si alguna migración quedó pendiente. La creación es idempotente.
+ */
+@Configuration
+@Order(IndicesMongoConfig.ORDEN)
+@Slf4j
+public class IndicesMongoConfig implements ApplicationRunner {
+
+    static final int ORDEN = 100;
+    static final List<Class<?>> ENTIDADES = List.of(Turno.class, Transaccion.class, Cajero.class, ResumenHorario.class);
+
+    private static final String PASO = "indices";
+    private static final int MUESTRA_DUPLICADOS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final EsquemaMongoHealthIndicator esquema;
+
+    public IndicesMongoConfig(MongoTemplate mongoTemplate, EsquemaMongoHealthIndicator esquema) {
+        this.mongoTemplate = mongoTemplate;
+        this.esquema = esquema;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (esquema.tieneFalla(MigracionesMongo.PASO)) {
+            // Los índices únicos se crean sobre los datos ya migrados
+            log.error("Índices no verificados: hay migraciones pendientes");
+            esquema.registrarFalla(PASO, "Migraciones pendientes");
+            return;
+        }
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        try {
+            List<String> fallidos = new ArrayList<>();
+            for (Class<?> entidad : ENTIDADES) {
+                fallidos.addAll(verificarIndices(entidad, resolver));
+            }
+            if (fallidos.isEmpty()) {
+                esquema.registrarCorrecto(PASO);
+            } else {
+                log.error("Índices no creados: {}", fallidos);
+            }
+        } catch (DataAccessResourceFailureException e) {
+            // Sin conexión no tiene sentido seguir colección por colección: todo queda pendiente
+            log.error("No se pudieron verificar los índices, Mongo no está disponible: {}", e.getMessage());
+            esquema.registrarFalla(PASO, "Mongo no disponible: " + e.getMessage());
+        }
+    }
+
+    private List<String> verificarIndices(Class<?> entidad, MongoPersistentEntityIndexResolver resolver) {
+        MongoPersistentEntity<?> persistente = mongoTemplate.getConverter().getMappingContext()
+                .getRequiredPersistentEntity(entidad);
+        String coleccion = persistente.getCollection();
+        IndexOperations indexOps = mongoTemplate.indexOps(entidad);
+        Set<String> existentes = indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+
+        List<String> fallidos = new ArrayList<>();
+        int verificados = 0;
+        for (IndexDefinition indice : resolver.resolveIndexFor(persistente.getTypeInformation())) {
+            String nombre = nombre(indice);
+            String paso = PASO + "." + coleccion + "." + nombre;
+            boolean unico = indice.getIndexOptions().getBoolean("unique", false);
+            try {
+                if (unico && !existentes.contains(nombre)) {
+                    List<Document> duplicados = buscarDuplicados(coleccion, indice);
+                    if (!duplicados.isEmpty()) {
+                        log.error("Índice único {} de {} no creado: hay valores repetidos, por ejemplo {}",
+                                nombre, coleccion, duplicados);
+                        esquema.registrarFalla(paso, "Valores repetidos, por ejemplo " + duplicados);
+                        fallidos.add(coleccion + "." + nombre);
+                        continue;
+                    }
+                }
+                indexOps.createIndex(indice);
+                esquema.registrarCorrecto(paso);
+                verificados++;
+            } catch (DataAccessResourceFailureException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                log.error("No se pudo crear el índice {} de {}: {}", nombre, coleccion, e.getMessage());
+                // Sin un índice común solo se pierde rendimiento; sin uno único, la garantía que da
+                if (unico) {
+                    esquema.registrarFalla(paso, e.getMessage());
+                }
+                fallidos.add(coleccion + "." + nombre);
+            }
+        }
+        log.info("Índices verificados para la colección {}: {} de {}", coleccion, verificados, verificados + fallidos.size());
+        return fallidos;
+    }
+
+    // Agrupa por las claves del índice (dentro de su filtro parcial, si tiene) y devuelve algunos valores repetidos
+    // con los _id de sus documentos, p. ej. los turnos abiertos de un mismo cajero para cajero_abierto_unico
+    private List<Document> buscarDuplicados(String coleccion, IndexDefinition indice) {
+        Document claves = new Document();
+        indice.getIndexKeys().keySet().forEach(campo -> claves.append(campo.replace('.', '_'), "$" + campo));
+
+        List<Document> etapas = new ArrayList<>();
+        Object filtroParcial = indice.getIndexOptions().get("partialFilterExpression");
+        if (filtroParcial != null) {
+            etapas.add(new Document("$match", filtroParcial));
+        }
+        etapas.add(new Document("$group", new Document("_id", claves)
+                .append("cantidad", new Document("$sum", 1))
+                .append("documentos", new Document("$push", "$_id"))));
+        etapas.add(new Document("$match", new Document("cantidad", new Document("$gt", 1))));
+        etapas.add(new Document("$limit", MUESTRA_DUPLICADOS));
+        etapas.add(new Document("$project", new Document("cantidad", 1)
+                .append("documentos", new Document("$slice", List.of("$documentos", MUESTRA_DUPLICADOS)))));
+        return mongoTemplate.getCollection(coleccion).aggregate(etapas).allowDiskUse(true).into(new ArrayList<>());
+    }
+
+    // Mismo nombre que asigna Mongo cuando la definición no trae uno
+    private static String nombre(IndexDefinition indice) {
+        String nombre = indice.getIndexOptions().getString("name");
+        if (nombre != null) {
+            return nombre;
+        }
+        return indice.getIndexKeys().entrySet().stream()
+                .map(clave -> clave.getKey() + "_" + clave.getValue())
+                .collect(Collectors.joining("_"));
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.banquito.core.examen.config;
+
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongSupplier;
+
+/**
+ * Migraciones de los datos guardados en Mongo. Se aplican al arrancar, en orden y antes de crear los índices
+ * ({@link IndicesMongoConfig}), así la instancia no queda lista con documentos en un formato que el código ya no
+ * acepta. Cada migración queda registrada en la colección {@value #COLECCION} y no vuelve a aplicarse; si una
+ * falla, las siguientes quedan pendientes y la instancia fuera del grupo readiness hasta el próximo arranque.
+ * Las migraciones son idempotentes: dos instancias que arrancan a la vez pueden aplicar la misma sin daño.
+ */
+@Component
+@Order(MigracionesMongo.ORDEN)
+@Slf4j
+public class MigracionesMongo implements ApplicationRunner {
+
+    static final int ORDEN = IndicesMongoConfig.ORDEN - 10;
+    static final String PASO = "migraciones";
+    static final String COLECCION = "migraciones";
+    private static final List<String> MONTOS_TURNO =
+            List.of("montoCalculado", "totalDepositos", "totalRetiros", "montoDeclarado", "diferencia");
+    private static final int LOTE_ACTUALIZACIONES = 500;
+
+    private final MongoTemplate mongoTemplate;
+    private final EsquemaMongoHealthIndicator esquema;
+    private final Map<String, LongSupplier> migraciones = new LinkedHashMap<>();
+
+    public MigracionesMongo(MongoTemplate mongoTemplate, EsquemaMongoHealthIndicator esquema) {
+        this.mongoTemplate = mongoTemplate;
+        this.esquema = esquema;
+        migraciones.put("001-version-turnos", this::inicializarVersionTurnos);
+        migraciones.put("002-montos-turnos-decimal128", this::convertirMontosTurnos);
+        migraciones.put("003-agencia-transacciones", this::completarAgenciaTransacciones);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String actual = null;
+        try {
+            Set<String> aplicadas = mongoTemplate.getCollection(COLECCION)
+                    .distinct("_id", String.class)
+                    .into(new HashSet<>());
+            for (Map.Entry<String, LongSupplier> migracion : migraciones.entrySet()) {
+                actual = migracion.getKey();
+                if (aplicadas.contains(actual)) {
+                    continue;
+                }
+                long documentos = migracion.getValue().getAsLong();
+                registrarAplicada(actual, documentos);
+                log.info("Migración {} aplicada: {} documentos", actual, documentos);
+            }
+            esquema.registrarCorrecto(PASO);
+        } catch (RuntimeException e) {
+            String motivo = actual != null ? actual + ": " + e.getMessage() : e.getMessage();
+            log.error("Migraciones de Mongo no aplicadas, la instancia no quedará lista: {}", motivo);
+            esquema.registrarFalla(PASO, motivo);
+        }
+    }
+
+    private void registrarAplicada(String migracion, long documentos) {
+        try {
+            mongoTemplate.insert(new Document("_id", migracion)
+                    .append("fecha", new Date())
+                    .append("documentos", documentos), COLECCION);
+        } catch (DuplicateKeyException e) {
+            // Otra instancia la aplicó al mismo tiempo
+            log.debug("Migración {} ya registrada por otra instancia", migracion);
+        }
+    }
+
+    // Los turnos guardados antes de versionar la entidad no tienen el campo; sin él, save() intentaría insertarlos
+    private long inicializarVersionTurnos() {
+        return mongoTemplate.updateMulti(
+                Query.query(Criteria.where("version").exists(false)),
+                Update.update("version", 0L), Turno.class).getModifiedCount();
+    }
+    
+    // Los montos se guardaban como texto; $inc sobre un texto falla y $sum lo ignora
+    private long convertirMontosTurnos() {
+        MongoCollection<Document> turnos = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Turno.class));
+        long convertidos = 0;
+        for (String campo : MONTOS_TURNO) {
+            convertidos += turnos.updateMany(
+                    new Document(campo, new Document("$type", List.of("string", "double", "int", "long"))),
+                    List.of(new Document("$set", new Document(campo, new Document("$toDecimal", "$" + campo)))))
+                    .getModifiedCount();
+        }
+        return convertidos;
+    }
+    
+    // Las transacciones guardadas antes de llevar la agencia no aparecían en la exportación filtrada por agencia
+    private long completarAgenciaTransacciones() {
+        MongoCollection<Document> transacciones =
+                mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaccion.class));
+        List<UpdateManyModel<Document>> lote = new ArrayList<>(LOTE_ACTUALIZACIONES);
+        long actualizadas = 0;
+        try (MongoCursor<Document> turnos = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Turno.class))
+                .find(new Document("agencia", new Document("$ne", null)))
+                .projection(new Document("agencia", 1))
+                .iterator()) {
+            while (turnos.hasNext()) {
+                Document turno = turnos.next();
+                lote.add(new UpdateManyModel<>(
+                        new Document("turnoId", String.valueOf(turno.get("_id"))).append("agencia", null),
+                        new Document("$set", new Document("agencia", turno.getString("agencia")))));
+                if (lote.size() == LOTE_ACTUALIZACIONES) {
+                    actualizadas += transacciones.bulkWrite(lote, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                    lote.clear();
+                }
+            }
+        }
+        if (!lote.isEmpty()) {
+            actualizadas += transacciones.bulkWrite(lote, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        return actualizadas;
+    }
+}
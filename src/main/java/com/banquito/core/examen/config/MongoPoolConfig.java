@@ -0,0 +1,31 @@
+package com.banquito.core.examen.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tamaño del pool de conexiones del driver de Mongo. Con hilos virtuales el número de
+ * peticiones concurrentes ya no lo limita Tomcat sino este pool, por eso se configura
+ * explícitamente (ver application-virtual.properties).
+ */
+@Configuration
+public class MongoPoolConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolCustomizer(
+            @Value("${banquito.mongo.pool.tamanio-maximo:100}") int tamanioMaximo,
+            @Value("${banquito.mongo.pool.tamanio-minimo:0}") int tamanioMinimo,
+            @Value("${banquito.mongo.pool.conexiones-simultaneas:2}") int conexionesSimultaneas,
+            @Value("${banquito.mongo.pool.espera-maxima:PT2M}") Duration esperaMaxima) {
+        return builder -> builder.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(tamanioMaximo)
+                .minSize(tamanioMinimo)
+                .maxConnecting(conexionesSimultaneas)
+                .maxWaitTime(esperaMaxima.toMillis(), TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,264 @@
+package com.banquito.core.examen.config;
+
+import com.banquito.core.examen.model.CursorTransaccion;
+import com.banquito.core.examen.model.ResumenHorario;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.repository.ResumenHorarioRepositoryCustomImpl;
+import com.banquito.core.examen.repository.TransaccionRepositoryCustomImpl;
+import com.banquito.core.examen.repository.TurnoRepositoryCustomImpl;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.bson.Document;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.data.mongodb.repository.query.ConvertingParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoParametersParameterAccessor;
+import org.springframework.data.mongodb.repository.query.MongoQueryMethod;
+import org.springframework.data.mongodb.repository.query.PartTreeMongoQuery;
+import org.springframework.data.mongodb.repository.query.ReactiveMongoQueryMethod;
+import org.springframework.data.mongodb.repository.query.ReactivePartTreeMongoQuery;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.core.RepositoryMetadata;
+import org.springframework.data.repository.core.support.AbstractRepositoryMetadata;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.data.repository.query.ValueExpressionDelegate;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Endpoint de actuator que ejecuta explain sobre cada consulta de los repositorios y marca las que
+ * terminan en un escaneo completo de la colección. Las consultas derivadas se arman con el mismo
+ * {@link PartTreeMongoQuery} que usa Spring Data para ejecutarlas, a partir de los métodos declarados
+ * en cada repositorio; las personalizadas, con las mismas fábricas de {@link Query} que usan sus
+ * implementaciones. Las agregaciones y los distinct se explican con el filtro de su primer $match.
+ */
+@Component
+@Endpoint(id = "planesconsulta")
+public class PlanesConsultaEndpoint {
+
+    static final String MUESTRA = "muestra";
+    static final LocalDateTime DESDE = LocalDateTime.of(2024, 1, 1, 0, 0);
+    static final LocalDateTime HASTA = DESDE.plusDays(1);
+    private static final Pageable PAGINA = PageRequest.of(0, 20);
+    // Valores de muestra por nombre de parámetro, para que los filtros parciales de los índices apliquen
+    private static final Map<String, Object> VALORES = Map.of(
+            "estado", Turno.ESTADO_ABIERTO,
+            "tipo", Transaccion.TIPO_DEPOSITO);
+
+    private final MongoOperations mongoOperations;
+    private final ReactiveMongoOperations reactiveMongoOperations;
+    private final ListableBeanFactory beanFactory;
+
+    public PlanesConsultaEndpoint(MongoOperations mongoOperations, ReactiveMongoOperations reactiveMongoOperations,
+                                  ListableBeanFactory beanFactory) {
+        this.mongoOperations = mongoOperations;
+        this.reactiveMongoOperations = reactiveMongoOperations;
+        this.beanFactory = beanFactory;
+    }
+
+    @ReadOperation
+    public List<PlanConsulta> planes() {
+        List<Consulta> consultas = new ArrayList<>();
+        for (String nombre : beanFactory.getBeanNamesForType(RepositoryFactoryInformation.class, false, false)) {
+            Class<?> repositorio = beanFactory.getBean(nombre, RepositoryFactoryInformation.class)
+                    .getRepositoryInformation().getRepositoryInterface();
+            consultas.addAll(consultasDerivadas(repositorio, mongoOperations, reactiveMongoOperations));
+        }
+        consultas.addAll(consultasPersonalizadas());
+
+        QueryMapper mapper = new QueryMapper(mongoOperations.getConverter());
+        List<PlanConsulta> planes = new ArrayList<>(consultas.size());
+        for (Consulta consulta : consultas) {
+            MongoPersistentEntity<?> entidad = mongoOperations.getConverter().getMappingContext()
+                    .getRequiredPersistentEntity(consulta.getEntidad());
+            Query query = consulta.getQuery();
+            Document find = new Document("find", entidad.getCollection())
+                    .append("filter", mapper.getMappedObject(query.getQueryObject(), entidad));
+            if (query.isSorted()) {
+                find.append("sort", mapper.getMappedSort(query.getSortObject(), entidad));
+            }
+            if (query.getLimit() > 0) {
+                find.append("limit", query.getLimit());
+            }
+            Document explain = mongoOperations.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+
+            Set<String> etapas = new LinkedHashSet<>();
+            Set<String> indices = new LinkedHashSet<>();
+            Object planGanador = explain.get("queryPlanner", Document.class).get("winningPlan");
+            recorrerPlan(planGanador, etapas, indices);
+
+            planes.add(new PlanConsulta(consulta.getRepositorio(), consulta.getMetodo(), entidad.getCollection(),
+                    new ArrayList<>(etapas), new ArrayList<>(indices), etapas.contains("COLLSCAN")));
+        }
+        return planes;
+    }
+
+    /**
+     * Una consulta por método derivado declarado en el repositorio, armada por Spring Data con valores de muestra.
+     */
+    static List<Consulta> consultasDerivadas(Class<?> repositorio, MongoOperations operaciones,
+                                             ReactiveMongoOperations operacionesReactivas) {
+        RepositoryMetadata metadata = AbstractRepositoryMetadata.getMetadata(repositorio);
+        boolean reactivo = ReactiveCrudRepository.class.isAssignableFrom(repositorio);
+        Class<?> base = reactivo ? ReactiveMongoRepository.class : MongoRepository.class;
+        SpelAwareProxyProjectionFactory proyecciones = new SpelAwareProxyProjectionFactory();
+        var contexto = operaciones.getConverter().getMappingContext();
+
+        List<Consulta> consultas = new ArrayList<>();
+        for (Method metodo : repositorio.getDeclaredMethods()) {
+            // findAll(Pageable) y similares redeclaran métodos del repositorio base: no son consultas derivadas
+            if (!Modifier.isAbstract(metodo.getModifiers())
+                    || ClassUtils.hasMethod(base, metodo.getName(), metodo.getParameterTypes())) {
+                continue;
+            }
+            Object[] argumentos = argumentos(metodo);
+            Query query;
+            if (reactivo) {
+                ReactiveMongoQueryMethod metodoConsulta = new ReactiveMongoQueryMethod(metodo, metadata, proyecciones, contexto);
+                query = new DerivadaReactiva(metodoConsulta, operacionesReactivas)
+                        .crear(metodoConsulta, argumentos, operacionesReactivas);
+            } else {
+                MongoQueryMethod metodoConsulta = new MongoQueryMethod(metodo, metadata, proyecciones, contexto);
+                query = new Derivada(metodoConsulta, operaciones).crear(metodoConsulta, argumentos, operaciones);
+            }
+            consultas.add(new Consulta(repositorio.getSimpleName(), metodo.getName(), metadata.getDomainType(), query));
+        }
+        return consultas;
+    }
+
+    /**
+     * Lecturas de las implementaciones *RepositoryCustomImpl, con sus mismas fábricas de consultas.
+     */
+    static List<Consulta> consultasPersonalizadas() {
+        List<Consulta> consultas = new ArrayList<>();
+        consultas.add(new Consulta("TurnoRepository", "findAgenciasConTurnosAbiertos", Turno.class,
+                new Query(TurnoRepositoryCustomImpl.criterioAbiertos())));
+        consultas.add(new Consulta("TurnoRepository", "resumirPorAgencia", Turno.class,
+                new Query(TurnoRepositoryCustomImpl.criterioAbiertos())));
+        consultas.add(new Consulta("TurnoRepository", "resumirPorAgencia", Turno.class,
+                new Query(TurnoRepositoryCustomImpl.criterioConAlerta())));
+        consultas.add(new Consulta("TransaccionRepository", "sumarPorTipoYDenominacion", Transaccion.class,
+                new Query(TransaccionRepositoryCustomImpl.criterioTotales(MUESTRA))));
+        // Los tres historiales de TransaccionService, primera página y siguientes
+        CursorTransaccion cursor = new CursorTransaccion(DESDE, "000000000000000000000000");
+        for (String campo : List.of("turnoId", "cajeroId", "clienteId")) {
+            consultas.add(new Consulta("TransaccionRepository", "buscarHistorial", Transaccion.class,
+                    TransaccionRepositoryCustomImpl.consultaHistorial(campo, MUESTRA, null, PAGINA.getPageSize())));
+            consultas.add(new Consulta("TransaccionRepository", "buscarHistorial", Transaccion.class,
+                    TransaccionRepositoryCustomImpl.consultaHistorial(campo, MUESTRA, cursor, PAGINA.getPageSize())));
+        }
+        consultas.add(new Consulta("TransaccionRepository", "streamPorFecha", Transaccion.class,
+                TransaccionRepositoryCustomImpl.consultaPorFecha(DESDE, HASTA, null, null)));
+        consultas.add(new Consulta("TransaccionRepository", "streamPorFecha", Transaccion.class,
+                TransaccionRepositoryCustomImpl.consultaPorFecha(DESDE, HASTA, MUESTRA, Transaccion.TIPO_DEPOSITO)));
+        consultas.add(new Consulta("ResumenHorarioRepository", "reconstruir", Transaccion.class,
+                new BasicQuery(ResumenHorarioRepositoryCustomImpl.filtroTransacciones(DESDE, HASTA))));
+        consultas.add(new Consulta("ResumenHorarioRepository", "reconstruir", ResumenHorario.class,
+                ResumenHorarioRepositoryCustomImpl.consultaHoras(DESDE, HASTA)));
+        return consultas;
+    }
+
+    private static Object[] argumentos(Method metodo) {
+        Parameter[] parametros = metodo.getParameters();
+        Object[] argumentos = new Object[parametros.length];
+        int fechas = 0;
+        for (int i = 0; i < parametros.length; i++) {
+            Class<?> tipo = parametros[i].getType();
+            if (Pageable.class.isAssignableFrom(tipo)) {
+                argumentos[i] = PAGINA;
+            } else if (LocalDateTime.class.equals(tipo)) {
+                // Los rangos reciben primero el inicio y después el fin
+                argumentos[i] = fechas++ == 0 ? DESDE : HASTA;
+            } else if (String.class.equals(tipo)) {
+                argumentos[i] = VALORES.getOrDefault(parametros[i].getName(), MUESTRA);
+            } else {
+                throw new IllegalStateException("Sin valor de muestra para el parámetro " + parametros[i] + " de " + metodo);
+            }
+        }
+        return argumentos;
+    }
+
+    private static void recorrerPlan(Object nodo, Set<String> etapas, Set<String> indices) {
+        if (nodo instanceof Document documento) {
+            Object etapa = documento.get("stage");
+            if (etapa != null) {
+                etapas.add(etapa.toString());
+            }
+            Object indice = documento.get("indexName");
+            if (indice != null) {
+                indices.add(indice.toString());
+            }
+            documento.values().forEach(valor -> recorrerPlan(valor, etapas, indices));
+        } else if (nodo instanceof List<?> lista) {
+            lista.forEach(valor -> recorrerPlan(valor, etapas, indices));
+        }
+    }
+
+    // Expone createQuery, que Spring Data usa al ejecutar el método
+    private static final class Derivada extends PartTreeMongoQuery {
+
+        Derivada(MongoQueryMethod metodo, MongoOperations operaciones) {
+            super(metodo, operaciones, ValueExpressionDelegate.create());
+        }
+
+        Query crear(MongoQueryMethod metodo, Object[] argumentos, MongoOperations operaciones) {
+            return createQuery(new ConvertingParameterAccessor(operaciones.getConverter(),
+                    new MongoParametersParameterAccessor(metodo, argumentos)));
+        }
+    }
+
+    private static final class DerivadaReactiva extends ReactivePartTreeMongoQuery {
+
+        DerivadaReactiva(ReactiveMongoQueryMethod metodo, ReactiveMongoOperations operaciones) {
+            super(metodo, operaciones, ValueExpressionDelegate.create());
+        }
+
+        Query crear(ReactiveMongoQueryMethod metodo, Object[] argumentos, ReactiveMongoOperations operaciones) {
+            return createQuery(new ConvertingParameterAccessor(operaciones.getConverter(),
+                    new MongoParametersParameterAccessor(metodo, argumentos))).block();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    static class Consulta {
+        private final String repositorio;
+        private final String metodo;
+        private final Class<?> entidad;
+        private final Query query;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class PlanConsulta {
+        private final String repositorio;
+        private final String metodo;
+        private final String coleccion;
+        private final List<String> etapas;
+        private final List<String> indices;
+        private final boolean escaneoColeccion;
+    }
+}
@@ -1,10 +1,13 @@
 package com.banquito.core.examen.controller;
 
 import com.banquito.core.examen.controller.dto.CajeroDTO;
+import com.banquito.core.examen.controller.dto.ResumenCajeroDTO;
 import com.banquito.core.examen.controller.mapper.CajeroMapper;
+import com.banquito.core.examen.enums.FormatoExportacion;
 import com.banquito.core.examen.exception.NotFoundException;
 import com.banquito.core.examen.model.Cajero;
 import com.banquito.core.examen.service.CajeroService;
+import com.banquito.core.examen.service.ImportacionCajerosService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,12 +16,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.data.domain.Page;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 
+import java.io.InputStream;
+
 @RestController
 @RequestMapping("/v1/cajeros")
 @Tag(name = "Cajeros", description = "Operaciones para la gestión de cajeros")
@@ -27,10 +34,13 @@ public class CajeroController {
 
     private final CajeroService cajeroService;
     private final CajeroMapper cajeroMapper;
+    private final ImportacionCajerosService importacionService;
 
-    public CajeroController(CajeroService cajeroService, CajeroMapper cajeroMapper) {
+    public CajeroController(CajeroService cajeroService, CajeroMapper cajeroMapper,
+                            ImportacionCajerosService importacionService) {
         this.cajeroService = cajeroService;
         this.cajeroMapper = cajeroMapper;
+        this.importacionService = importacionService;
     }
 
     @PostMapping
@@ -46,12 +56,33 @@ public class CajeroController {
         return ResponseEntity.status(HttpStatus.CREATED).body(cajeroMapper.toDTO(cajero));
     }
 
+    @PostMapping("/importar")
+    @Operation(summary = "Importar cajeros", description = "Lee un archivo CSV (con encabezado) o NDJSON fila por fila, crea o actualiza cada cajero por su código en lotes y responde como NDJSON el resultado de cada fila a medida que se aplica, seguido de los totales")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Importación en curso; las filas rechazadas se informan en la respuesta")
+    })
+    public ResponseEntity<StreamingResponseBody> importarCajeros(
+            @Parameter(description = "Formato del archivo", example = "CSV")
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacion formato,
+            InputStream archivo) {
+        log.info("Solicitud para importar cajeros en formato {}", formato);
+        
+        StreamingResponseBody cuerpo = salida -> importacionService.importar(formato, archivo, salida);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(cuerpo);
+    }
+
     @GetMapping
     @Operation(summary = "Obtener todos los cajeros", description = "Obtiene la lista paginada de cajeros")
-    public ResponseEntity<Page<CajeroDTO>> obtenerTodosCajeros(
+    public ResponseEntity<Slice<ResumenCajeroDTO>> obtenerTodosCajeros(
+            @Parameter(description = "Si es false, omite el conteo total y solo indica si hay página siguiente", example = "true")
+            @RequestParam(defaultValue = "true") boolean conteo,
             @PageableDefault(size = 20, page = 0) Pageable pageable) {
         log.info("Solicitud para obtener todos los cajeros paginados");
-        Page<CajeroDTO> page = cajeroService.findAll(pageable).map(cajeroMapper::toDTO);
+        Slice<ResumenCajeroDTO> page = conteo
+                ? cajeroService.findAll(pageable).map(cajeroMapper::toDTO)
+                : cajeroService.findAllSinConteo(pageable).map(cajeroMapper::toDTO);
         return ResponseEntity.ok(page);
     }
 
@@ -97,20 +128,28 @@ public class CajeroController {
 
     @GetMapping("/agencia/{agencia}")
     @Operation(summary = "Obtener cajeros por agencia", description = "Obtiene cajeros filtrados por agencia con paginación")
-    public ResponseEntity<Page<CajeroDTO>> obtenerCajerosPorAgencia(
+    public ResponseEntity<Slice<ResumenCajeroDTO>> obtenerCajerosPorAgencia(
             @PathVariable String agencia,
+            @Parameter(description = "Si es false, omite el conteo total y solo indica si hay página siguiente", example = "true")
+            @RequestParam(defaultValue = "true") boolean conteo,
             @PageableDefault(size = 20, page = 0) Pageable pageable) {
         log.info("Buscar cajeros por agencia: {}", agencia);
-        Page<CajeroDTO> page = cajeroService.findByAgencia(agencia, pageable).map(cajeroMapper::toDTO);
+        Slice<ResumenCajeroDTO> page = conteo
+                ? cajeroService.findByAgencia(agencia, pageable).map(cajeroMapper::toDTO)
+                : cajeroService.findByAgenciaSinConteo(agencia, pageable).map(cajeroMapper::toDTO);
         return ResponseEntity.ok(page);
     }
 
     @GetMapping("/activos")
     @Operation(summary = "Obtener cajeros activos", description = "Obtiene los cajeros activos con paginación")
-    public ResponseEntity<Page<CajeroDTO>> obtenerCajerosActivos(
+    public ResponseEntity<Slice<ResumenCajeroDTO>> obtenerCajerosActivos(
+            @Parameter(description = "Si es false, omite el conteo total y solo indica si hay página siguiente", example = "true")
+            @RequestParam(defaultValue = "true") boolean conteo,
             @PageableDefault(size = 20, page = 0) Pageable pageable) {
         log.info("Solicitud para obtener cajeros activos paginados");
-        Page<CajeroDTO> page = cajeroService.findActivos(pageable).map(cajeroMapper::toDTO);
+        Slice<ResumenCajeroDTO> page = conteo
+                ? cajeroService.findActivos(pageable).map(cajeroMapper::toDTO)
+                : cajeroService.findActivosSinConteo(pageable).map(cajeroMapper::toDTO);
         return ResponseEntity.ok(page);
     }
 
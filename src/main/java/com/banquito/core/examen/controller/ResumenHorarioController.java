@@ -0,0 +1,85 @@
+package com.banquito.core.examen.controller;
+
+import com.banquito.core.examen.controller.dto.ResumenHorarioDTO;
+import com.banquito.core.examen.controller.mapper.ResumenHorarioMapper;
+import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.service.ResumenHorarioService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/v1/resumenes-horarios")
+@Tag(name = "Resúmenes horarios", description = "Totales de transacciones por hora, caja y agencia para reportes")
+@Slf4j
+public class ResumenHorarioController {
+
+    private final ResumenHorarioService resumenHorarioService;
+    private final ResumenHorarioMapper resumenHorarioMapper;
+
+    public ResumenHorarioController(ResumenHorarioService resumenHorarioService, ResumenHorarioMapper resumenHorarioMapper) {
+        this.resumenHorarioService = resumenHorarioService;
+        this.resumenHorarioMapper = resumenHorarioMapper;
+    }
+
+    @GetMapping("/agencia/{agencia}")
+    @Operation(summary = "Resumen horario de una agencia", description = "Totales por hora y caja de la agencia en el rango [desde, hasta)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resúmenes encontrados"),
+            @ApiResponse(responseCode = "409", description = "Rango de fechas inválido")
+    })
+    public ResponseEntity<List<ResumenHorarioDTO>> obtenerPorAgencia(
+            @Parameter(description = "Agencia", example = "MATRIZ") @PathVariable String agencia,
+            @Parameter(description = "Fecha inicial (incluida)", example = "2024-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "Fecha final (excluida)", example = "2024-01-02T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        return ResponseEntity.ok(resumenHorarioMapper.toDTOList(resumenHorarioService.findByAgencia(agencia, desde, hasta)));
+    }
+
+    @GetMapping("/caja/{codigoCaja}")
+    @Operation(summary = "Resumen horario de una caja", description = "Totales por hora de la caja en el rango [desde, hasta)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resúmenes encontrados"),
+            @ApiResponse(responseCode = "409", description = "Rango de fechas inválido")
+    })
+    public ResponseEntity<List<ResumenHorarioDTO>> obtenerPorCaja(
+            @Parameter(description = "Código de la caja", example = "CAJA01") @PathVariable String codigoCaja,
+            @Parameter(description = "Fecha inicial (incluida)", example = "2024-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "Fecha final (excluida)", example = "2024-01-02T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        return ResponseEntity.ok(resumenHorarioMapper.toDTOList(resumenHorarioService.findByCaja(codigoCaja, desde, hasta)));
+    }
+
+    @PostMapping("/reconstruir")
+    @Operation(summary = "Reconstruir resúmenes horarios", description = "Recalcula desde las transacciones los resúmenes de las horas completas del rango [desde, hasta)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cantidad de resúmenes escritos"),
+            @ApiResponse(responseCode = "409", description = "Rango de fechas inválido")
+    })
+    public ResponseEntity<Long> reconstruir(
+            @Parameter(description = "Fecha inicial (incluida)", example = "2024-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "Fecha final (excluida)", example = "2024-02-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta) {
+        log.info("Solicitud para reconstruir resúmenes horarios desde {} hasta {}", desde, hasta);
+        return ResponseEntity.ok(resumenHorarioService.reconstruir(desde, hasta));
+    }
+
+    @ExceptionHandler({TransaccionException.class})
+    public ResponseEntity<Void> handleTransaccionException(TransaccionException e) {
+        log.error("Error en resumen horario: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
@@ -0,0 +1,103 @@
+package com.banquito.core.examen.controller;
+
+import com.banquito.core.examen.controller.mapper.TransaccionMapper;
+import com.banquito.core.examen.controller.mapper.TurnoMapper;
+import com.banquito.core.examen.enums.PoliticaDesborde;
+import com.banquito.core.examen.model.EventoSupervision;
+import com.banquito.core.examen.service.FeedSupervision;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * Feed en vivo para supervisores por Server-Sent Events: cada transacción procesada (evento "transaccion")
+ * y cada turno cerrado con diferencia (evento "alerta") de la agencia.
+ */
+@RestController
+@RequestMapping("/v1/supervision")
+@Tag(name = "Supervisión", description = "Eventos en vivo de transacciones y alertas por agencia")
+@Slf4j
+public class SupervisionController {
+
+    private static final int CAPACIDAD_MAXIMA = 65536;
+
+    private final FeedSupervision feed;
+    private final TransaccionMapper transaccionMapper;
+    private final TurnoMapper turnoMapper;
+    private final Duration duracion;
+
+    public SupervisionController(FeedSupervision feed, TransaccionMapper transaccionMapper, TurnoMapper turnoMapper,
+                                 @Value("${banquito.supervision.duracion:PT1H}") Duration duracion) {
+        this.feed = feed;
+        this.transaccionMapper = transaccionMapper;
+        this.turnoMapper = turnoMapper;
+        this.duracion = duracion;
+    }
+
+    @GetMapping(value = "/agencia/{agencia}/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Feed de la agencia", description = "Envía por SSE las transacciones procesadas y los turnos cerrados con alerta de la agencia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Flujo de eventos abierto"),
+            @ApiResponse(responseCode = "400", description = "Capacidad fuera de rango")
+    })
+    public SseEmitter suscribir(
+            @Parameter(description = "Agencia", example = "MATRIZ") @PathVariable String agencia,
+            @Parameter(description = "Eventos que se retienen para este suscriptor mientras no los consume", example = "1024")
+            @RequestParam(defaultValue = "1024") int capacidad,
+            @Parameter(description = "Qué hacer cuando el suscriptor no consume a tiempo y se llena su buffer")
+            @RequestParam(defaultValue = "DESCARTAR_ANTIGUOS") PoliticaDesborde politica) {
+        if (capacidad <= 0 || capacidad > CAPACIDAD_MAXIMA) {
+            throw new IllegalArgumentException("La capacidad debe estar entre 1 y " + CAPACIDAD_MAXIMA);
+        }
+        log.info("Suscripción al feed de supervisión de la agencia: {}", agencia);
+
+        SseEmitter emitter = new SseEmitter(duracion.toMillis());
+        Runnable cancelar = feed.suscribir(agencia, capacidad, politica, new FeedSupervision.Destino() {
+            @Override
+            public void enviar(EventoSupervision evento) throws Exception {
+                Object datos = EventoSupervision.TIPO_ALERTA.equals(evento.getTipo())
+                        ? turnoMapper.toDTO(evento.getTurno())
+                        : transaccionMapper.toDTO(evento.getTransaccion());
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(evento.getSecuencia()))
+                        .name(evento.getTipo())
+                        .data(datos, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void latido() throws Exception {
+                emitter.send(SseEmitter.event().comment("latido"));
+            }
+
+            @Override
+            public void cerrar() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(cancelar);
+        emitter.onTimeout(cancelar);
+        emitter.onError(error -> cancelar.run());
+        return emitter;
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class})
+    public ResponseEntity<Void> handleIllegalArgumentException(IllegalArgumentException e) {
+        log.error("Suscripción inválida: {}", e.getMessage());
+        return ResponseEntity.badRequest().build();
+    }
+}
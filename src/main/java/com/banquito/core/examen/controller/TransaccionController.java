@@ -1,12 +1,20 @@
 package com.banquito.core.examen.controller;
 
+import com.banquito.core.examen.controller.dto.ProcesarLoteTransaccionesDTO;
 import com.banquito.core.examen.controller.dto.ProcesarTransaccionDTO;
+import com.banquito.core.examen.controller.dto.ResultadoTransaccionLoteDTO;
+import com.banquito.core.examen.controller.dto.ResumenTransaccionDTO;
+import com.banquito.core.examen.controller.dto.TotalesTransaccionesDTO;
 import com.banquito.core.examen.controller.dto.TransaccionDTO;
+import com.banquito.core.examen.controller.dto.VentanaTransaccionesDTO;
 import com.banquito.core.examen.controller.mapper.DetalleDenominacionMapper;
 import com.banquito.core.examen.controller.mapper.TransaccionMapper;
+import com.banquito.core.examen.enums.FormatoExportacion;
 import com.banquito.core.examen.exception.NotFoundException;
 import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.model.ResultadoTransaccionLote;
 import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.service.ExportacionTransaccionesService;
 import com.banquito.core.examen.service.TransaccionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,27 +23,40 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
 @RestController
 @RequestMapping("/v1/transacciones")
 @Tag(name = "Transacciones", description = "Operaciones para el procesamiento de transacciones")
 @Slf4j
 public class TransaccionController {
 
+    static final String ENCABEZADO_SIN_AGENCIA = "X-Transacciones-Sin-Agencia";
+
     private final TransaccionService transaccionService;
     private final TransaccionMapper transaccionMapper;
     private final DetalleDenominacionMapper detalleDenominacionMapper;
+    private final ExportacionTransaccionesService exportacionService;
 
-    public TransaccionController(TransaccionService transaccionService, TransaccionMapper transaccionMapper, DetalleDenominacionMapper detalleDenominacionMapper) {
+    public TransaccionController(TransaccionService transaccionService, TransaccionMapper transaccionMapper, DetalleDenominacionMapper detalleDenominacionMapper,
+                                 ExportacionTransaccionesService exportacionService) {
         this.transaccionService = transaccionService;
         this.transaccionMapper = transaccionMapper;
         this.detalleDenominacionMapper = detalleDenominacionMapper;
+        this.exportacionService = exportacionService;
     }
 
     @PostMapping
@@ -71,6 +92,21 @@ public class TransaccionController {
         }
     }
 
+    @PostMapping("/lote")
+    @Operation(summary = "Procesar lote de transacciones", description = "Procesa un lote de retiros y depósitos y devuelve el resultado de cada uno")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lote procesado; cada elemento indica si fue exitoso"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos")
+    })
+    public ResponseEntity<List<ResultadoTransaccionLoteDTO>> procesarLote(
+            @Valid @RequestBody ProcesarLoteTransaccionesDTO procesarLoteDTO) {
+        log.info("Solicitud para procesar lote de {} transacciones", procesarLoteDTO.getTransacciones().size());
+        
+        List<ResultadoTransaccionLote> resultados = transaccionService.procesarLote(
+                transaccionMapper.toSolicitudList(procesarLoteDTO.getTransacciones()));
+        return ResponseEntity.ok(transaccionMapper.toResultadoDTOList(resultados));
+    }
+
     @GetMapping("/{codigoTransaccion}")
     @Operation(summary = "Obtener transacción por código", description = "Obtiene la información de una transacción específica")
     @ApiResponses(value = {
@@ -78,7 +114,7 @@ public class TransaccionController {
             @ApiResponse(responseCode = "404", description = "Transacción no encontrada")
     })
     public ResponseEntity<TransaccionDTO> obtenerTransaccionPorCodigo(
-            @Parameter(description = "Código de la transacción", example = "TXN-CAJ001-20240101-080015")
+            @Parameter(description = "Código de la transacción", example = "TXN-CAJ001-16U9SQKKQO")
             @PathVariable String codigoTransaccion) {
         log.info("Buscando transacción por código: {}", codigoTransaccion);
         
@@ -96,49 +132,156 @@ public class TransaccionController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transacciones encontradas")
     })
-    public ResponseEntity<Page<TransaccionDTO>> obtenerTransaccionesPorTurno(
+    public ResponseEntity<Page<ResumenTransaccionDTO>> obtenerTransaccionesPorTurno(
             @Parameter(description = "ID del turno", example = "507f1f77bcf86cd799439011")
             @PathVariable String turnoId,
             @PageableDefault(size = 20, page = 0) Pageable pageable) {
         log.info("Buscando transacciones para turno: {}", turnoId);
-        Page<TransaccionDTO> page = transaccionService.findByTurnoId(turnoId, pageable).map(transaccionMapper::toDTO);
+        Page<ResumenTransaccionDTO> page = transaccionService.findByTurnoId(turnoId, pageable).map(transaccionMapper::toDTO);
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping("/turno/{turnoId}/historial")
+    @Operation(summary = "Historial de transacciones por turno", description = "Recorre las transacciones de un turno con un cursor; el tiempo de respuesta no depende de la profundidad")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transacciones encontradas"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<VentanaTransaccionesDTO> obtenerHistorialPorTurno(
+            @Parameter(description = "ID del turno", example = "507f1f77bcf86cd799439011")
+            @PathVariable String turnoId,
+            @Parameter(description = "Cursor devuelto por la página anterior; vacío para empezar")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de transacciones por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int tamanio) {
+        log.info("Buscando historial de transacciones para turno: {}", turnoId);
+        return ResponseEntity.ok(transaccionMapper.toDTO(transaccionService.findHistorialByTurnoId(turnoId, cursor, tamanio)));
+    }
+
+    @GetMapping("/turno/{turnoId}/totales")
+    @Operation(summary = "Obtener totales por tipo del turno", description = "Suma los depósitos y retiros del turno por denominación sin recorrer sus transacciones")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Totales calculados")
+    })
+    public ResponseEntity<TotalesTransaccionesDTO> obtenerTotalesPorTurno(
+            @Parameter(description = "ID del turno", example = "507f1f77bcf86cd799439011")
+            @PathVariable String turnoId) {
+        log.info("Calculando totales para turno: {}", turnoId);
+        return ResponseEntity.ok(transaccionMapper.toDTO(transaccionService.calcularTotalesPorTipo(turnoId)));
+    }
+
     @GetMapping("/cajero/{cajeroId}")
     @Operation(summary = "Obtener transacciones por cajero", description = "Obtiene todas las transacciones de un cajero específico")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transacciones encontradas")
     })
-    public ResponseEntity<Page<TransaccionDTO>> obtenerTransaccionesPorCajero(
+    public ResponseEntity<Page<ResumenTransaccionDTO>> obtenerTransaccionesPorCajero(
             @Parameter(description = "ID del cajero", example = "507f1f77bcf86cd799439012")
             @PathVariable String cajeroId,
             @PageableDefault(size = 20, page = 0) Pageable pageable) {
         log.info("Buscando transacciones para cajero: {}", cajeroId);
-        Page<TransaccionDTO> page = transaccionService.findByCajeroId(cajeroId, pageable).map(transaccionMapper::toDTO);
+        Page<ResumenTransaccionDTO> page = transaccionService.findByCajeroId(cajeroId, pageable).map(transaccionMapper::toDTO);
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping("/cajero/{cajeroId}/historial")
+    @Operation(summary = "Historial de transacciones por cajero", description = "Recorre las transacciones de un cajero con un cursor; el tiempo de respuesta no depende de la profundidad")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transacciones encontradas"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<VentanaTransaccionesDTO> obtenerHistorialPorCajero(
+            @Parameter(description = "ID del cajero", example = "507f1f77bcf86cd799439012")
+            @PathVariable String cajeroId,
+            @Parameter(description = "Cursor devuelto por la página anterior; vacío para empezar")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de transacciones por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int tamanio) {
+        log.info("Buscando historial de transacciones para cajero: {}", cajeroId);
+        return ResponseEntity.ok(transaccionMapper.toDTO(transaccionService.findHistorialByCajeroId(cajeroId, cursor, tamanio)));
+    }
+
     @GetMapping("/cliente/{clienteId}")
     @Operation(summary = "Obtener transacciones por cliente", description = "Obtiene todas las transacciones de un cliente específico")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transacciones encontradas")
     })
-    public ResponseEntity<Page<TransaccionDTO>> obtenerTransaccionesPorCliente(
+    public ResponseEntity<Page<ResumenTransaccionDTO>> obtenerTransaccionesPorCliente(
             @Parameter(description = "ID del cliente", example = "CLI001")
             @PathVariable String clienteId,
             @PageableDefault(size = 20, page = 0) Pageable pageable) {
         log.info("Buscando transacciones para cliente: {}", clienteId);
-        Page<TransaccionDTO> page = transaccionService.findByClienteId(clienteId, pageable).map(transaccionMapper::toDTO);
+        Page<ResumenTransaccionDTO> page = transaccionService.findByClienteId(clienteId, pageable).map(transaccionMapper::toDTO);
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping("/cliente/{clienteId}/historial")
+    @Operation(summary = "Historial de transacciones por cliente", description = "Recorre las transacciones de un cliente con un cursor; el tiempo de respuesta no depende de la profundidad")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transacciones encontradas"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido")
+    })
+    public ResponseEntity<VentanaTransaccionesDTO> obtenerHistorialPorCliente(
+            @Parameter(description = "ID del cliente", example = "CLI001")
+            @PathVariable String clienteId,
+            @Parameter(description = "Cursor devuelto por la página anterior; vacío para empezar")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Cantidad de transacciones por página (máximo 100)", example = "20")
+            @RequestParam(defaultValue = "20") int tamanio) {
+        log.info("Buscando historial de transacciones para cliente: {}", clienteId);
+        return ResponseEntity.ok(transaccionMapper.toDTO(transaccionService.findHistorialByClienteId(clienteId, cursor, tamanio)));
+    }
+
+    @GetMapping("/exportar")
+    @Operation(summary = "Exportar transacciones por rango de fechas", description = "Escribe las transacciones del rango [desde, hasta) como NDJSON o CSV a medida que se leen de la base, sin cargarlas en memoria. Con filtro de agencia, el encabezado " + ENCABEZADO_SIN_AGENCIA + " indica cuántas transacciones del rango no tienen agencia y quedaron fuera")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Exportación en curso"),
+            @ApiResponse(responseCode = "409", description = "Rango de fechas o tipo inválido")
+    })
+    public ResponseEntity<StreamingResponseBody> exportarTransacciones(
+            @Parameter(description = "Fecha inicial (incluida)", example = "2024-01-01T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @Parameter(description = "Fecha final (excluida)", example = "2024-01-02T00:00:00")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime hasta,
+            @Parameter(description = "Agencia", example = "MATRIZ")
+            @RequestParam(required = false) String agencia,
+            @Parameter(description = "Tipo de transacción", example = "DEPOSITO")
+            @RequestParam(required = false) String tipo,
+            @Parameter(description = "Formato de salida", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacion formato) {
+        log.info("Solicitud para exportar transacciones desde {} hasta {}", desde, hasta);
+        exportacionService.validarFiltro(desde, hasta, tipo);
+        
+        MediaType tipoContenido = formato == FormatoExportacion.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_NDJSON;
+        String archivo = "transacciones-" + desde.toLocalDate() + "." + formato.name().toLowerCase();
+        StreamingResponseBody cuerpo = salida -> exportacionService.exportar(desde, hasta, agencia, tipo, formato, salida);
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .contentType(tipoContenido)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + archivo + "\"");
+        if (agencia != null) {
+            long sinAgencia = exportacionService.contarSinAgencia(desde, hasta);
+            if (sinAgencia > 0) {
+                log.warn("Exportación de la agencia {}: {} transacciones del rango sin agencia quedan fuera", agencia, sinAgencia);
+                respuesta.header(ENCABEZADO_SIN_AGENCIA, String.valueOf(sinAgencia));
+            }
+        }
+        return respuesta.body(cuerpo);
+    }
+
     @ExceptionHandler({NotFoundException.class})
     public ResponseEntity<Void> handleNotFoundException(NotFoundException e) {
         log.error("Recurso no encontrado: {}", e.getMessage());
         return ResponseEntity.notFound().build();
     }
 
+    @ExceptionHandler({IllegalArgumentException.class})
+    public ResponseEntity<Void> handleIllegalArgumentException(IllegalArgumentException e) {
+        log.error("Parámetro inválido: {}", e.getMessage());
+        return ResponseEntity.badRequest().build();
+    }
+
     @ExceptionHandler({TransaccionException.class})
     public ResponseEntity<Void> handleTransaccionException(TransaccionException e) {
         log.error("Error de negocio en transacción: {}", e.getMessage());
@@ -0,0 +1,110 @@
+package com.banquito.core.examen.controller;
+
+import com.banquito.core.examen.controller.dto.ProcesarTransaccionDTO;
+import com.banquito.core.examen.controller.dto.TransaccionDTO;
+import com.banquito.core.examen.controller.mapper.DetalleDenominacionMapper;
+import com.banquito.core.examen.controller.mapper.TransaccionMapper;
+import com.banquito.core.examen.exception.NotFoundException;
+import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.service.ReactiveTransaccionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Endpoints de transacciones que devuelven tipos reactivos. Spring MVC los atiende de forma
+ * asíncrona: el hilo de la petición se libera mientras se espera a Mongo.
+ */
+@RestController
+@RequestMapping("/v1/reactivo/transacciones")
+@Tag(name = "Transacciones reactivas", description = "Procesamiento no bloqueante de transacciones para agencias de alto volumen")
+@Slf4j
+public class TransaccionReactivaController {
+
+    private final ReactiveTransaccionService reactiveTransaccionService;
+    private final TransaccionMapper transaccionMapper;
+    private final DetalleDenominacionMapper detalleDenominacionMapper;
+
+    public TransaccionReactivaController(ReactiveTransaccionService reactiveTransaccionService, TransaccionMapper transaccionMapper, DetalleDenominacionMapper detalleDenominacionMapper) {
+        this.reactiveTransaccionService = reactiveTransaccionService;
+        this.transaccionMapper = transaccionMapper;
+        this.detalleDenominacionMapper = detalleDenominacionMapper;
+    }
+
+    @PostMapping
+    @Operation(summary = "Procesar transacción (reactivo)", description = "Procesa una nueva transacción de retiro o depósito sin bloquear hilos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Transacción procesada exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos"),
+            @ApiResponse(responseCode = "404", description = "Turno no encontrado"),
+            @ApiResponse(responseCode = "409", description = "Error en el procesamiento de la transacción")
+    })
+    public Mono<ResponseEntity<TransaccionDTO>> procesarTransaccion(@Valid @RequestBody ProcesarTransaccionDTO procesarTransaccionDTO) {
+        log.info("Solicitud reactiva para procesar transacción tipo: {} para turno: {}", 
+                procesarTransaccionDTO.getTipo(), procesarTransaccionDTO.getTurnoId());
+        
+        return reactiveTransaccionService.procesarTransaccion(
+                        procesarTransaccionDTO.getTurnoId(),
+                        procesarTransaccionDTO.getTipo(),
+                        procesarTransaccionDTO.getMonto(),
+                        detalleDenominacionMapper.toModelList(procesarTransaccionDTO.getDenominaciones()),
+                        procesarTransaccionDTO.getClienteId(),
+                        procesarTransaccionDTO.getNumeroCuenta(),
+                        procesarTransaccionDTO.getObservaciones())
+                .map(transaccion -> ResponseEntity.status(HttpStatus.CREATED).body(transaccionMapper.toDTO(transaccion)));
+    }
+
+    @GetMapping("/{codigoTransaccion}")
+    @Operation(summary = "Obtener transacción por código (reactivo)", description = "Obtiene la información de una transacción específica")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transacción encontrada"),
+            @ApiResponse(responseCode = "404", description = "Transacción no encontrada")
+    })
+    public Mono<ResponseEntity<TransaccionDTO>> obtenerTransaccionPorCodigo(
+            @Parameter(description = "Código de la transacción", example = "TXN-CAJ001-16U9SQKKQO")
+            @PathVariable String codigoTransaccion) {
+        log.info("Buscando transacción reactiva por código: {}", codigoTransaccion);
+        return reactiveTransaccionService.findByCodigoTransaccion(codigoTransaccion)
+                .map(transaccion -> ResponseEntity.ok(transaccionMapper.toDTO(transaccion)));
+    }
+
+    @GetMapping("/turno/{turnoId}")
+    @Operation(summary = "Obtener transacciones por turno (reactivo)", description = "Obtiene una página de transacciones de un turno específico")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Transacciones encontradas")
+    })
+    public Mono<ResponseEntity<List<TransaccionDTO>>> obtenerTransaccionesPorTurno(
+            @Parameter(description = "ID del turno", example = "507f1f77bcf86cd799439011")
+            @PathVariable String turnoId,
+            @PageableDefault(size = 20, page = 0) Pageable pageable) {
+        log.info("Buscando transacciones reactivas para turno: {}", turnoId);
+        return reactiveTransaccionService.findByTurnoId(turnoId, pageable)
+                .map(transaccionMapper::toDTO)
+                .collectList()
+                .map(ResponseEntity::ok);
+    }
+
+    @ExceptionHandler({NotFoundException.class})
+    public ResponseEntity<Void> handleNotFoundException(NotFoundException e) {
+        log.error("Recurso no encontrado: {}", e.getMessage());
+        return ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler({TransaccionException.class})
+    public ResponseEntity<Void> handleTransaccionException(TransaccionException e) {
+        log.error("Error de negocio en transacción: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+}
@@ -2,12 +2,16 @@ package com.banquito.core.examen.controller;
 
 import com.banquito.core.examen.controller.dto.AbrirTurnoDTO;
 import com.banquito.core.examen.controller.dto.CerrarTurnoDTO;
+import com.banquito.core.examen.controller.dto.ResumenCierreDiarioDTO;
+import com.banquito.core.examen.controller.dto.ResumenTurnoDTO;
+import com.banquito.core.examen.controller.dto.TableroAgenciaDTO;
 import com.banquito.core.examen.controller.dto.TurnoDTO;
 import com.banquito.core.examen.controller.mapper.DetalleDenominacionMapper;
 import com.banquito.core.examen.controller.mapper.TurnoMapper;
 import com.banquito.core.examen.exception.NotFoundException;
 import com.banquito.core.examen.exception.TurnoException;
 import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.service.CierreDiarioService;
 import com.banquito.core.examen.service.TurnoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -19,10 +23,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/v1/turnos")
 @Tag(name = "Turnos", description = "Operaciones para el manejo de turnos de cajeros")
@@ -30,11 +36,14 @@ import org.springframework.data.web.PageableDefault;
 public class TurnoController {
 
     private final TurnoService turnoService;
+    private final CierreDiarioService cierreDiarioService;
     private final TurnoMapper turnoMapper;
     private final DetalleDenominacionMapper detalleDenominacionMapper;
 
-    public TurnoController(TurnoService turnoService, TurnoMapper turnoMapper, DetalleDenominacionMapper detalleDenominacionMapper) {
+    public TurnoController(TurnoService turnoService, CierreDiarioService cierreDiarioService, TurnoMapper turnoMapper,
+                           DetalleDenominacionMapper detalleDenominacionMapper) {
         this.turnoService = turnoService;
+        this.cierreDiarioService = cierreDiarioService;
         this.turnoMapper = turnoMapper;
         this.detalleDenominacionMapper = detalleDenominacionMapper;
     }
@@ -102,7 +111,7 @@ public class TurnoController {
             @ApiResponse(responseCode = "404", description = "Turno no encontrado")
     })
     public ResponseEntity<TurnoDTO> obtenerTurnoPorCodigo(
-            @Parameter(description = "Código del turno", example = "CAJA01-CAJ001-20240101")
+            @Parameter(description = "Código del turno", example = "CAJA01-CAJ001-16TGW8V7K0")
             @PathVariable String codigoTurno) {
         log.info("Buscando turno por código: {}", codigoTurno);
         
@@ -115,17 +124,36 @@ public class TurnoController {
         }
     }
 
+    @PostMapping("/{codigoTurno}/recalcular")
+    @Operation(summary = "Recalcular saldo del turno", description = "Recalcula el saldo esperado a partir de todas las transacciones del turno para auditoría")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Saldo recalculado"),
+            @ApiResponse(responseCode = "404", description = "Turno no encontrado"),
+            @ApiResponse(responseCode = "409", description = "El turno no está abierto")
+    })
+    public ResponseEntity<TurnoDTO> recalcularSaldo(
+            @Parameter(description = "Código del turno", example = "CAJA01-CAJ001-16TGW8V7K0")
+            @PathVariable String codigoTurno) {
+        log.info("Solicitud para recalcular saldo del turno: {}", codigoTurno);
+        Turno turno = turnoService.recalcularSaldo(codigoTurno);
+        return ResponseEntity.ok(turnoMapper.toDTO(turno));
+    }
+
     @GetMapping("/agencia/{agencia}")
     @Operation(summary = "Obtener turnos abiertos por agencia", description = "Obtiene todos los turnos abiertos de una agencia")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Turnos encontrados")
     })
-    public ResponseEntity<Page<TurnoDTO>> obtenerTurnosAbiertos(
+    public ResponseEntity<Slice<ResumenTurnoDTO>> obtenerTurnosAbiertos(
             @Parameter(description = "Código de la agencia", example = "MATRIZ")
             @PathVariable String agencia,
+            @Parameter(description = "Si es false, omite el conteo total y solo indica si hay página siguiente", example = "true")
+            @RequestParam(defaultValue = "true") boolean conteo,
             @PageableDefault(size = 20, page = 0) Pageable pageable) {
         log.info("Buscando turnos abiertos para agencia: {}", agencia);
-        Page<TurnoDTO> page = turnoService.findByAgencia(agencia, pageable).map(turnoMapper::toDTO);
+        Slice<ResumenTurnoDTO> page = conteo
+                ? turnoService.findByAgencia(agencia, pageable).map(turnoMapper::toDTO)
+                : turnoService.findByAgenciaSinConteo(agencia, pageable).map(turnoMapper::toDTO);
         return ResponseEntity.ok(page);
     }
 
@@ -134,13 +162,47 @@ public class TurnoController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Turnos con alertas encontrados")
     })
-    public ResponseEntity<Page<TurnoDTO>> obtenerTurnosConAlerta(
+    public ResponseEntity<Slice<ResumenTurnoDTO>> obtenerTurnosConAlerta(
+            @Parameter(description = "Si es false, omite el conteo total y solo indica si hay página siguiente", example = "true")
+            @RequestParam(defaultValue = "true") boolean conteo,
             @PageableDefault(size = 20, page = 0) Pageable pageable) {
         log.info("Buscando turnos con alertas");
-        Page<TurnoDTO> page = turnoService.findTurnosConAlerta(pageable).map(turnoMapper::toDTO);
+        Slice<ResumenTurnoDTO> page = conteo
+                ? turnoService.findTurnosConAlerta(pageable).map(turnoMapper::toDTO)
+                : turnoService.findTurnosConAlertaSinConteo(pageable).map(turnoMapper::toDTO);
         return ResponseEntity.ok(page);
     }
 
+    @PostMapping("/cierre-diario")
+    @Operation(summary = "Cierre de fin de día", description = "Concilia con sus transacciones y cierra todos los turnos abiertos, en paralelo por agencia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cierre ejecutado; incluye las diferencias encontradas"),
+            @ApiResponse(responseCode = "409", description = "Ya hay un cierre de fin de día en ejecución")
+    })
+    public ResponseEntity<ResumenCierreDiarioDTO> cerrarDia() {
+        log.info("Solicitud de cierre de fin de día");
+        return ResponseEntity.ok(turnoMapper.toDTO(cierreDiarioService.cerrarDia()));
+    }
+
+    @GetMapping("/tablero")
+    @Operation(summary = "Tablero de agencias", description = "Resumen en memoria de turnos abiertos, efectivo, depósitos, retiros y alertas de cada agencia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tablero de todas las agencias")
+    })
+    public ResponseEntity<List<TableroAgenciaDTO>> obtenerTableros() {
+        return ResponseEntity.ok(turnoMapper.toTableroDTOList(turnoService.obtenerTableros()));
+    }
+
+    @GetMapping("/tablero/{agencia}")
+    @Operation(summary = "Tablero de una agencia", description = "Resumen en memoria de turnos abiertos, efectivo, depósitos, retiros y alertas de la agencia")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Tablero de la agencia")
+    })
+    public ResponseEntity<TableroAgenciaDTO> obtenerTablero(
+            @Parameter(description = "Agencia", example = "MATRIZ") @PathVariable String agencia) {
+        return ResponseEntity.ok(turnoMapper.toDTO(turnoService.obtenerTablero(agencia)));
+    }
+
     @ExceptionHandler({NotFoundException.class})
     public ResponseEntity<Void> handleNotFoundException(NotFoundException e) {
         log.error("Recurso no encontrado: {}", e.getMessage());
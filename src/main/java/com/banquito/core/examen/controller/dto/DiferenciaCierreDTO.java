@@ -0,0 +1,28 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Turno cuyo saldo acumulado no coincide con sus transacciones")
+public class DiferenciaCierreDTO {
+    
+    @Schema(description = "Código del turno", example = "CAJA01-CAJ001-16TGW8V7K0")
+    private String codigoTurno;
+    
+    @Schema(description = "Código del cajero", example = "CAJ001")
+    private String codigoCajero;
+    
+    @Schema(description = "Saldo acumulado con cada transacción", example = "1050.00")
+    private BigDecimal montoAcumulado;
+    
+    @Schema(description = "Saldo calculado desde las transacciones, con el que se cerró el turno", example = "1000.00")
+    private BigDecimal montoConciliado;
+    
+    @Schema(description = "Saldo acumulado menos saldo conciliado", example = "50.00")
+    private BigDecimal diferencia;
+}
@@ -0,0 +1,22 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Lote de transacciones a procesar")
+public class ProcesarLoteTransaccionesDTO {
+    
+    @NotEmpty(message = "El lote debe contener al menos una transacción")
+    @Size(max = 1000, message = "El lote no puede contener más de 1000 transacciones")
+    @Valid
+    @Schema(description = "Transacciones del lote, en el orden en que deben procesarse")
+    private List<ProcesarTransaccionDTO> transacciones;
+}
@@ -0,0 +1,23 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resultado del procesamiento de una transacción dentro de un lote")
+public class ResultadoTransaccionLoteDTO {
+    
+    @Schema(description = "Posición de la transacción en el lote", example = "0")
+    private Integer indice;
+    
+    @Schema(description = "Indica si la transacción fue procesada", example = "true")
+    private Boolean exitosa;
+    
+    @Schema(description = "Transacción registrada, si fue exitosa")
+    private TransaccionDTO transaccion;
+    
+    @Schema(description = "Motivo del rechazo, si falló", example = "Error en la transacción: Procesar transacción. Motivo: El turno no está abierto")
+    private String error;
+}
@@ -0,0 +1,32 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resumen de un cajero para listados")
+public class ResumenCajeroDTO {
+    
+    @Schema(description = "ID del cajero", example = "507f1f77bcf86cd799439012")
+    private String id;
+    
+    @Schema(description = "Código del cajero", example = "CAJ001")
+    private String codigo;
+    
+    @Schema(description = "Código de la caja", example = "CAJA01")
+    private String codigoCaja;
+    
+    @Schema(description = "Nombre del cajero", example = "Juan")
+    private String nombre;
+    
+    @Schema(description = "Apellido del cajero", example = "Pérez")
+    private String apellido;
+    
+    @Schema(description = "Código de la agencia", example = "MATRIZ")
+    private String agencia;
+    
+    @Schema(description = "Estado activo del cajero", example = "true")
+    private Boolean activo;
+}
@@ -0,0 +1,32 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resultado del cierre de fin de día de una agencia")
+public class ResumenCierreAgenciaDTO {
+    
+    @Schema(description = "Agencia", example = "MATRIZ")
+    private String agencia;
+    
+    @Schema(description = "Turnos cerrados", example = "25")
+    private int turnosCerrados;
+    
+    @Schema(description = "Turnos que siguen abiertos por recibir transacciones durante el cierre o por error", example = "0")
+    private int turnosOmitidos;
+    
+    @Schema(description = "Suma de las diferencias de la agencia", example = "50.00")
+    private BigDecimal diferenciaTotal;
+    
+    @Schema(description = "Turnos con diferencia")
+    private List<DiferenciaCierreDTO> diferencias;
+    
+    @Schema(description = "Error que impidió cerrar la agencia, si lo hubo")
+    private String error;
+}
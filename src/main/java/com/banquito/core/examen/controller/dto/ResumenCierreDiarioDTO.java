@@ -0,0 +1,36 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resultado del cierre y conciliación de fin de día")
+public class ResumenCierreDiarioDTO {
+    
+    @Schema(description = "Inicio del cierre", example = "2024-01-01T23:30:00")
+    private LocalDateTime inicio;
+    
+    @Schema(description = "Fin del cierre", example = "2024-01-01T23:31:12")
+    private LocalDateTime fin;
+    
+    @Schema(description = "Turnos cerrados", example = "480")
+    private int turnosCerrados;
+    
+    @Schema(description = "Turnos que siguen abiertos", example = "2")
+    private int turnosOmitidos;
+    
+    @Schema(description = "Turnos cerrados con diferencia entre saldo acumulado y transacciones", example = "1")
+    private int turnosConDiferencia;
+    
+    @Schema(description = "Suma de las diferencias", example = "50.00")
+    private BigDecimal diferenciaTotal;
+    
+    @Schema(description = "Detalle por agencia")
+    private List<ResumenCierreAgenciaDTO> agencias;
+}
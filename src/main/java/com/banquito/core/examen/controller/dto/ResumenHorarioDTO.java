@@ -0,0 +1,42 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Totales de transacciones de una caja en una hora")
+public class ResumenHorarioDTO {
+    
+    @Schema(description = "Agencia", example = "MATRIZ")
+    private String agencia;
+    
+    @Schema(description = "Código de la caja", example = "CAJA01")
+    private String codigoCaja;
+    
+    @Schema(description = "Inicio de la hora", example = "2024-01-01T10:00:00")
+    private LocalDateTime hora;
+    
+    @Schema(description = "Cantidad de depósitos", example = "42")
+    private long cantidadDepositos;
+    
+    @Schema(description = "Cantidad de retiros", example = "17")
+    private long cantidadRetiros;
+    
+    @Schema(description = "Monto depositado", example = "8400.00")
+    private BigDecimal montoDepositos;
+    
+    @Schema(description = "Monto retirado", example = "3100.00")
+    private BigDecimal montoRetiros;
+    
+    @Schema(description = "Billetes depositados por denominación", example = "{\"20\": 120, \"100\": 60}")
+    private Map<String, Integer> billetesDepositados;
+    
+    @Schema(description = "Billetes retirados por denominación", example = "{\"20\": 55, \"50\": 40}")
+    private Map<String, Integer> billetesRetirados;
+}
@@ -0,0 +1,47 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resumen de un turno para listados")
+public class ResumenTurnoDTO {
+    
+    @Schema(description = "ID del turno", example = "507f1f77bcf86cd799439011")
+    private String id;
+    
+    @Schema(description = "Código del turno", example = "CAJA01-CAJ001-16TGW8V7K0")
+    private String codigoTurno;
+    
+    @Schema(description = "Código del cajero", example = "CAJ001")
+    private String codigoCajero;
+    
+    @Schema(description = "Código de la caja", example = "CAJA01")
+    private String codigoCaja;
+    
+    @Schema(description = "Agencia", example = "MATRIZ")
+    private String agencia;
+    
+    @Schema(description = "Estado del turno", example = "ABIERTO", allowableValues = {"ABIERTO", "CERRADO"})
+    private String estado;
+    
+    @Schema(description = "Fecha de apertura", example = "2024-01-01T08:00:00")
+    private LocalDateTime fechaApertura;
+    
+    @Schema(description = "Fecha de cierre", example = "2024-01-01T17:00:00")
+    private LocalDateTime fechaCierre;
+    
+    @Schema(description = "Monto calculado basado en transacciones", example = "1000.00")
+    private BigDecimal montoCalculado;
+    
+    @Schema(description = "Diferencia entre monto declarado y calculado", example = "0.00")
+    private BigDecimal diferencia;
+    
+    @Schema(description = "Indica si hay una alerta por diferencia", example = "false")
+    private Boolean tieneAlerta;
+}
@@ -0,0 +1,35 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Resumen en tiempo real de los turnos de una agencia")
+public class TableroAgenciaDTO {
+    
+    @Schema(description = "Agencia", example = "MATRIZ")
+    private String agencia;
+    
+    @Schema(description = "Cantidad de turnos abiertos", example = "12")
+    private long turnosAbiertos;
+    
+    @Schema(description = "Efectivo esperado en las cajas de los turnos abiertos", example = "54000.00")
+    private BigDecimal efectivoEnCaja;
+    
+    @Schema(description = "Total depositado en los turnos abiertos", example = "18000.00")
+    private BigDecimal totalDepositos;
+    
+    @Schema(description = "Total retirado en los turnos abiertos", example = "9000.00")
+    private BigDecimal totalRetiros;
+    
+    @Schema(description = "Cantidad de turnos cerrados con diferencia de dinero", example = "2")
+    private long alertas;
+    
+    @Schema(description = "Última reconstrucción del tablero desde la base de datos", example = "2024-01-01T10:05:00")
+    private LocalDateTime reconstruido;
+}
@@ -0,0 +1,29 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Totales de depósitos y retiros de un turno, por denominación")
+public class TotalesTransaccionesDTO {
+    
+    @Schema(description = "ID del turno", example = "507f1f77bcf86cd799439011")
+    private String turnoId;
+    
+    @Schema(description = "Monto total depositado", example = "1500.00")
+    private BigDecimal totalDepositos;
+    
+    @Schema(description = "Monto total retirado", example = "800.00")
+    private BigDecimal totalRetiros;
+    
+    @Schema(description = "Billetes depositados por denominación")
+    private List<DetalleDenominacionDTO> depositos;
+    
+    @Schema(description = "Billetes retirados por denominación")
+    private List<DetalleDenominacionDTO> retiros;
+}
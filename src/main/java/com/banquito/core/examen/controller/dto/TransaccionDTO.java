@@ -16,7 +16,7 @@ public class TransaccionDTO {
     @Schema(description = "ID de la transacción", example = "507f1f77bcf86cd799439013")
     private String id;
     
-    @Schema(description = "Código de la transacción", example = "TXN-CAJ001-20240101-080015")
+    @Schema(description = "Código de la transacción", example = "TXN-CAJ001-16U9SQKKQO")
     private String codigoTransaccion;
     
     @Schema(description = "ID del turno", example = "507f1f77bcf86cd799439011")
@@ -31,6 +31,9 @@ public class TransaccionDTO {
     @Schema(description = "Código de la caja", example = "CAJA01")
     private String codigoCaja;
     
+    @Schema(description = "Agencia del turno", example = "MATRIZ")
+    private String agencia;
+    
     @Schema(description = "Tipo de transacción", example = "RETIRO", allowableValues = {"RETIRO", "DEPOSITO"})
     private String tipo;
     
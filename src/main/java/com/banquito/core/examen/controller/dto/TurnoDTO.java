@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -16,7 +17,7 @@ public class TurnoDTO {
     @Schema(description = "ID del turno", example = "507f1f77bcf86cd799439011")
     private String id;
     
-    @Schema(description = "Código del turno", example = "CAJA01-CAJ001-20240101")
+    @Schema(description = "Código del turno", example = "CAJA01-CAJ001-16TGW8V7K0")
     private String codigoTurno;
     
     @Schema(description = "ID del cajero", example = "507f1f77bcf86cd799439012")
@@ -49,6 +50,15 @@ public class TurnoDTO {
     @Schema(description = "Monto calculado basado en transacciones", example = "1000.00")
     private BigDecimal montoCalculado;
     
+    @Schema(description = "Total depositado durante el turno", example = "500.00")
+    private BigDecimal totalDepositos;
+    
+    @Schema(description = "Total retirado durante el turno", example = "300.00")
+    private BigDecimal totalRetiros;
+    
+    @Schema(description = "Cantidad de billetes esperada en caja por denominación")
+    private Map<String, Integer> existencias;
+    
     @Schema(description = "Monto declarado por el cajero", example = "1000.00")
     private BigDecimal montoDeclarado;
     
@@ -58,6 +68,9 @@ public class TurnoDTO {
     @Schema(description = "Indica si hay una alerta por diferencia", example = "false")
     private Boolean tieneAlerta;
     
+    @Schema(description = "Diferencia entre el saldo acumulado y las transacciones, si el cierre de fin de día la encontró", example = "50.00")
+    private BigDecimal deriva;
+    
     @Schema(description = "Observaciones del turno", example = "Turno normal sin novedades")
     private String observaciones;
 } 
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.banquito.core.examen.controller.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@Schema(description = "Página del historial de transacciones con cursor para continuar")
+public class VentanaTransaccionesDTO {
+    
+    @Schema(description = "Transacciones de la página, de la más reciente a la más antigua")
+    private List<ResumenTransaccionDTO> contenido;
+    
+    @Schema(description = "Cursor opaco para pedir la página siguiente; nulo si no hay más", example = "MjAyNC0wMS0wMVQwODowMDoxNXw1MDdmMWY3N2JjZjg2Y2Q3OTk0MzkwMTM")
+    private String siguienteCursor;
+    
+    @Schema(description = "Indica si existe una página siguiente", example = "true")
+    private Boolean haySiguiente;
+}
@@ -1,7 +1,9 @@
 package com.banquito.core.examen.controller.mapper;
 
 import com.banquito.core.examen.controller.dto.CajeroDTO;
+import com.banquito.core.examen.controller.dto.ResumenCajeroDTO;
 import com.banquito.core.examen.model.Cajero;
+import com.banquito.core.examen.repository.ResumenCajero;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
@@ -21,4 +23,6 @@ public interface CajeroMapper {
     List<CajeroDTO> toDTOList(List<Cajero> models);
     
     List<Cajero> toModelList(List<CajeroDTO> dtos);
+    
+    ResumenCajeroDTO toDTO(ResumenCajero resumen);
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.banquito.core.examen.controller.mapper;
 
 import com.banquito.core.examen.controller.dto.DetalleDenominacionDTO;
 import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.VectorDenominaciones;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
@@ -21,4 +22,18 @@ public interface DetalleDenominacionMapper {
     List<DetalleDenominacionDTO> toDTOList(List<DetalleDenominacion> models);
     
     List<DetalleDenominacion> toModelList(List<DetalleDenominacionDTO> dtos);
+    
+    default VectorDenominaciones toVector(List<DetalleDenominacionDTO> dtos) {
+        VectorDenominaciones vector = new VectorDenominaciones();
+        if (dtos != null) {
+            for (DetalleDenominacionDTO dto : dtos) {
+                vector.agregar(dto.getDenominacion(), dto.getCantidad());
+            }
+        }
+        return vector;
+    }
+    
+    default List<DetalleDenominacionDTO> toDTOList(VectorDenominaciones vector) {
+        return vector == null ? null : toDTOList(vector.aLista());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.banquito.core.examen.controller.mapper;
+
+import com.banquito.core.examen.controller.dto.ResumenHorarioDTO;
+import com.banquito.core.examen.model.ResumenHorario;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+import java.util.List;
+
+@Mapper(
+        componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.IGNORE
+)
+public interface ResumenHorarioMapper {
+
+    ResumenHorarioDTO toDTO(ResumenHorario model);
+
+    List<ResumenHorarioDTO> toDTOList(List<ResumenHorario> models);
+}
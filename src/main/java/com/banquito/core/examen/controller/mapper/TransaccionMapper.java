@@ -1,7 +1,19 @@
 package com.banquito.core.examen.controller.mapper;
 
+import com.banquito.core.examen.controller.dto.DetalleDenominacionDTO;
+import com.banquito.core.examen.controller.dto.ProcesarTransaccionDTO;
+import com.banquito.core.examen.controller.dto.ResultadoTransaccionLoteDTO;
+import com.banquito.core.examen.controller.dto.ResumenTransaccionDTO;
+import com.banquito.core.examen.controller.dto.TotalesTransaccionesDTO;
 import com.banquito.core.examen.controller.dto.TransaccionDTO;
+import com.banquito.core.examen.controller.dto.VentanaTransaccionesDTO;
+import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.ResultadoTransaccionLote;
+import com.banquito.core.examen.model.TotalesTransacciones;
 import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.VectorDenominaciones;
+import com.banquito.core.examen.model.Ventana;
+import com.banquito.core.examen.repository.ResumenTransaccion;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
@@ -18,7 +30,35 @@ public interface TransaccionMapper {
     
     Transaccion toModel(TransaccionDTO dto);
     
+    Transaccion toModel(ProcesarTransaccionDTO dto);
+    
+    ResultadoTransaccionLoteDTO toDTO(ResultadoTransaccionLote model);
+    
+    List<ResultadoTransaccionLoteDTO> toResultadoDTOList(List<ResultadoTransaccionLote> models);
+    
+    List<Transaccion> toSolicitudList(List<ProcesarTransaccionDTO> dtos);
+    
     List<TransaccionDTO> toDTOList(List<Transaccion> models);
     
     List<Transaccion> toModelList(List<TransaccionDTO> dtos);
+    
+    ResumenTransaccionDTO toDTO(ResumenTransaccion resumen);
+    
+    List<ResumenTransaccionDTO> toResumenDTOList(List<ResumenTransaccion> resumenes);
+    
+    default VentanaTransaccionesDTO toDTO(Ventana<ResumenTransaccion> ventana) {
+        VentanaTransaccionesDTO dto = new VentanaTransaccionesDTO();
+        dto.setContenido(toResumenDTOList(ventana.getContenido()));
+        dto.setSiguienteCursor(ventana.getSiguienteCursor());
+        dto.setHaySiguiente(ventana.haySiguiente());
+        return dto;
+    }
+    
+    TotalesTransaccionesDTO toDTO(TotalesTransacciones model);
+    
+    List<DetalleDenominacionDTO> toDenominacionDTOList(List<DetalleDenominacion> models);
+    
+    default List<DetalleDenominacionDTO> toDenominacionDTOList(VectorDenominaciones vector) {
+        return vector == null ? null : toDenominacionDTOList(vector.aLista());
+    }
 } 
\ No newline at end of file
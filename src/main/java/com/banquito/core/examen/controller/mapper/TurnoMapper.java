@@ -1,7 +1,13 @@
 package com.banquito.core.examen.controller.mapper;
 
+import com.banquito.core.examen.controller.dto.ResumenCierreDiarioDTO;
+import com.banquito.core.examen.controller.dto.ResumenTurnoDTO;
+import com.banquito.core.examen.controller.dto.TableroAgenciaDTO;
 import com.banquito.core.examen.controller.dto.TurnoDTO;
+import com.banquito.core.examen.model.ResumenCierreDiario;
+import com.banquito.core.examen.model.TableroAgencia;
 import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.repository.ResumenTurno;
 import org.mapstruct.Mapper;
 import org.mapstruct.MappingConstants;
 import org.mapstruct.ReportingPolicy;
@@ -21,4 +27,12 @@ public interface TurnoMapper {
     List<TurnoDTO> toDTOList(List<Turno> models);
     
     List<Turno> toModelList(List<TurnoDTO> dtos);
+    
+    ResumenTurnoDTO toDTO(ResumenTurno resumen);
+    
+    TableroAgenciaDTO toDTO(TableroAgencia tablero);
+    
+    List<TableroAgenciaDTO> toTableroDTOList(List<TableroAgencia> tableros);
+    
+    ResumenCierreDiarioDTO toDTO(ResumenCierreDiario resumen);
 } 
\ No newline at end of file
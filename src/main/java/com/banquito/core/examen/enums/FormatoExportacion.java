@@ -0,0 +1,6 @@
+package com.banquito.core.examen.enums;
+
+public enum FormatoExportacion {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,7 @@
+package com.banquito.core.examen.enums;
+
+public enum PoliticaDesborde {
+    DESCARTAR_ANTIGUOS,
+    DESCARTAR_NUEVOS,
+    DESCONECTAR
+}
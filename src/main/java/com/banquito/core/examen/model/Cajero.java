@@ -6,6 +6,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -22,12 +23,15 @@ public class Cajero {
     @EqualsAndHashCode.Include
     private String id;
     
+    @Indexed(unique = true)
     private String codigo;
     private String codigoCaja;
     private String nombre;
     private String apellido;
     private String email;
+    @Indexed
     private String agencia;
+    @Indexed
     private Boolean activo;
     private LocalDateTime fechaCreacion;
     private LocalDateTime fechaActualizacion;
@@ -0,0 +1,46 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posición en el historial de transacciones ordenado por {@code (fechaTransaccion, id)} descendente.
+ * Se entrega al cliente como un token opaco; la siguiente página empieza justo después de esta posición.
+ */
+@Getter
+@ToString
+public class CursorTransaccion {
+    
+    private static final char SEPARADOR = '|';
+    
+    private final LocalDateTime fechaTransaccion;
+    private final String id;
+    
+    public CursorTransaccion(LocalDateTime fechaTransaccion, String id) {
+        this.fechaTransaccion = fechaTransaccion;
+        this.id = id;
+    }
+    
+    public String codificar() {
+        String valor = fechaTransaccion.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    public static CursorTransaccion decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.indexOf(SEPARADOR);
+            if (separador <= 0 || separador == valor.length() - 1) {
+                throw new IllegalArgumentException("Cursor no válido: " + token);
+            }
+            return new CursorTransaccion(LocalDateTime.parse(valor.substring(0, separador)), valor.substring(separador + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor no válido: " + token, e);
+        }
+    }
+}
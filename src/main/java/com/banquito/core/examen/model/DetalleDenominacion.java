@@ -6,8 +6,6 @@ import lombok.Setter;
 import lombok.ToString;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
-import java.util.Map;
 
 @Getter
 @Setter
@@ -22,18 +20,6 @@ public class DetalleDenominacion {
     public static final String DENOMINACION_CINCUENTA = "50";
     public static final String DENOMINACION_CIEN = "100";
     
-
-    private static final Map<String, BigDecimal> VALORES_DENOMINACION = new HashMap<>();
-    
-    static {
-        VALORES_DENOMINACION.put(DENOMINACION_UNO, new BigDecimal("1"));
-        VALORES_DENOMINACION.put(DENOMINACION_CINCO, new BigDecimal("5"));
-        VALORES_DENOMINACION.put(DENOMINACION_DIEZ, new BigDecimal("10"));
-        VALORES_DENOMINACION.put(DENOMINACION_VEINTE, new BigDecimal("20"));
-        VALORES_DENOMINACION.put(DENOMINACION_CINCUENTA, new BigDecimal("50"));
-        VALORES_DENOMINACION.put(DENOMINACION_CIEN, new BigDecimal("100"));
-    }
-    
     private String denominacion;
     private Integer cantidad;
     
@@ -48,18 +34,17 @@ public class DetalleDenominacion {
     }
     
     public BigDecimal getValorTotal() {
-        BigDecimal valorUnitario = VALORES_DENOMINACION.get(denominacion);
-        if (valorUnitario == null) {
-            throw new IllegalArgumentException("Denominación no válida: " + denominacion);
-        }
-        return valorUnitario.multiply(new BigDecimal(cantidad));
+        int posicion = VectorDenominaciones.posicionRequerida(denominacion);
+        return BigDecimal.valueOf((long) VectorDenominaciones.valor(posicion) * cantidad);
     }
     
+    // Los valores están solo en VectorDenominaciones; null si la denominación no existe
     public static BigDecimal getValorDenominacion(String denominacion) {
-        return VALORES_DENOMINACION.get(denominacion);
+        int posicion = VectorDenominaciones.posicion(denominacion);
+        return posicion < 0 ? null : BigDecimal.valueOf(VectorDenominaciones.valor(posicion));
     }
     
     public static boolean esValidaDenominacion(String denominacion) {
-        return VALORES_DENOMINACION.containsKey(denominacion);
+        return VectorDenominaciones.posicion(denominacion) >= 0;
     }
 } 
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.banquito.core.examen.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Turno cuyo saldo acumulado no coincide con la suma de sus transacciones al cerrarlo en el fin de día.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class DiferenciaCierre {
+    
+    private String codigoTurno;
+    private String codigoCajero;
+    private BigDecimal montoAcumulado;
+    private BigDecimal montoConciliado;
+    private BigDecimal diferencia;
+}
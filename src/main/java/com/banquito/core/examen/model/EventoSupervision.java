@@ -0,0 +1,27 @@
+package com.banquito.core.examen.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento del feed de supervisión de una agencia: una transacción procesada o un turno cerrado con alerta.
+ * La secuencia es global y creciente; un salto indica eventos descartados para ese suscriptor.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class EventoSupervision {
+    
+    public static final String TIPO_TRANSACCION = "transaccion";
+    public static final String TIPO_ALERTA = "alerta";
+    
+    private final long secuencia;
+    private final String tipo;
+    private final String agencia;
+    private final LocalDateTime fecha;
+    private final Transaccion transaccion;
+    private final Turno turno;
+}
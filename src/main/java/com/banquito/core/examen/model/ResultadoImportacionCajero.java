@@ -0,0 +1,39 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ResultadoImportacionCajero {
+    
+    public static final String CREADO = "CREADO";
+    public static final String ACTUALIZADO = "ACTUALIZADO";
+    public static final String RECHAZADO = "RECHAZADO";
+    
+    private Long fila;
+    private String codigo;
+    private String resultado;
+    private String error;
+    
+    public static ResultadoImportacionCajero aplicado(long fila, String codigo, boolean creado) {
+        ResultadoImportacionCajero resultado = new ResultadoImportacionCajero();
+        resultado.setFila(fila);
+        resultado.setCodigo(codigo);
+        resultado.setResultado(creado ? CREADO : ACTUALIZADO);
+        return resultado;
+    }
+    
+    public static ResultadoImportacionCajero rechazado(long fila, String codigo, String error) {
+        ResultadoImportacionCajero resultado = new ResultadoImportacionCajero();
+        resultado.setFila(fila);
+        resultado.setCodigo(codigo);
+        resultado.setResultado(RECHAZADO);
+        resultado.setError(error);
+        return resultado;
+    }
+}
@@ -0,0 +1,34 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ResultadoTransaccionLote {
+    
+    private Integer indice;
+    private Boolean exitosa;
+    private Transaccion transaccion;
+    private String error;
+    
+    public static ResultadoTransaccionLote exito(int indice, Transaccion transaccion) {
+        ResultadoTransaccionLote resultado = new ResultadoTransaccionLote();
+        resultado.setIndice(indice);
+        resultado.setExitosa(true);
+        resultado.setTransaccion(transaccion);
+        return resultado;
+    }
+    
+    public static ResultadoTransaccionLote fallo(int indice, String error) {
+        ResultadoTransaccionLote resultado = new ResultadoTransaccionLote();
+        resultado.setIndice(indice);
+        resultado.setExitosa(false);
+        resultado.setError(error);
+        return resultado;
+    }
+}
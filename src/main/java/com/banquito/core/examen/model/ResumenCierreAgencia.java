@@ -0,0 +1,34 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ResumenCierreAgencia {
+    
+    private String agencia;
+    private int turnosCerrados;
+    // Turnos que recibieron transacciones durante el cierre o no se pudieron conciliar; siguen abiertos
+    private int turnosOmitidos;
+    private BigDecimal diferenciaTotal = BigDecimal.ZERO;
+    private List<DiferenciaCierre> diferencias = new ArrayList<>();
+    private String error;
+    
+    public ResumenCierreAgencia(String agencia) {
+        this.agencia = agencia;
+    }
+    
+    public void agregarDiferencia(DiferenciaCierre diferencia) {
+        diferencias.add(diferencia);
+        diferenciaTotal = diferenciaTotal.add(diferencia.getDiferencia());
+    }
+}
@@ -0,0 +1,41 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado del cierre de fin de día: totales de la red y detalle por agencia.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ResumenCierreDiario {
+    
+    private LocalDateTime inicio;
+    private LocalDateTime fin;
+    private int turnosCerrados;
+    private int turnosOmitidos;
+    private int turnosConDiferencia;
+    private BigDecimal diferenciaTotal = BigDecimal.ZERO;
+    private List<ResumenCierreAgencia> agencias = new ArrayList<>();
+    
+    public ResumenCierreDiario(LocalDateTime inicio) {
+        this.inicio = inicio;
+    }
+    
+    public void agregar(ResumenCierreAgencia agencia) {
+        agencias.add(agencia);
+        turnosCerrados += agencia.getTurnosCerrados();
+        turnosOmitidos += agencia.getTurnosOmitidos();
+        turnosConDiferencia += agencia.getDiferencias().size();
+        diferenciaTotal = diferenciaTotal.add(agencia.getDiferenciaTotal());
+    }
+}
@@ -0,0 +1,62 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+/**
+ * Totales de transacciones de una caja en una hora. Cada transacción guardada los incrementa;
+ * la reconstrucción desde el historial los vuelve a calcular con $merge.
+ */
+@Document(collection = "resumenes_horarios")
+@CompoundIndex(name = "agencia_hora", def = "{'agencia': 1, 'hora': 1}")
+@CompoundIndex(name = "caja_hora", def = "{'codigoCaja': 1, 'hora': 1}")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class ResumenHorario {
+    
+    // La hora se trunca en UTC, igual que $dateTrunc en la reconstrucción
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH").withZone(ZoneOffset.UTC);
+    
+    // agencia|codigoCaja|hora UTC: la misma clave se calcula en las agregaciones de reconstrucción
+    @Id
+    private String id;
+    private String agencia;
+    private String codigoCaja;
+    @Indexed
+    private LocalDateTime hora;
+    private long cantidadDepositos;
+    private long cantidadRetiros;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal montoDepositos;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal montoRetiros;
+    private Map<String, Integer> billetesDepositados;
+    private Map<String, Integer> billetesRetirados;
+    
+    public static Instant inicioHora(LocalDateTime fecha) {
+        return fecha.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.HOURS);
+    }
+    
+    public static String clave(String agencia, String codigoCaja, Instant hora) {
+        return (agencia != null ? agencia : "") + "|" + (codigoCaja != null ? codigoCaja : "") + "|" + FORMATO_HORA.format(hora);
+    }
+}
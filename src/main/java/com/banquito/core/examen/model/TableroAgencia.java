@@ -0,0 +1,33 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Resumen operativo de una agencia: turnos abiertos, efectivo esperado en sus cajas,
+ * depósitos y retiros de esos turnos y turnos con alerta.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class TableroAgencia {
+    
+    private String agencia;
+    private long turnosAbiertos;
+    private BigDecimal efectivoEnCaja = BigDecimal.ZERO;
+    private BigDecimal totalDepositos = BigDecimal.ZERO;
+    private BigDecimal totalRetiros = BigDecimal.ZERO;
+    private long alertas;
+    // Última reconstrucción desde Mongo; entre reconstrucciones se actualiza en memoria
+    private LocalDateTime reconstruido;
+    
+    public TableroAgencia(String agencia) {
+        this.agencia = agencia;
+    }
+}
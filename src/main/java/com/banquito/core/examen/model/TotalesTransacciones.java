@@ -0,0 +1,39 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+/**
+ * Billetes depositados y retirados en un turno, sumados por Mongo sin traer las transacciones.
+ */
+@Getter
+@ToString
+public class TotalesTransacciones {
+    
+    private final String turnoId;
+    private final VectorDenominaciones depositos = new VectorDenominaciones();
+    private final VectorDenominaciones retiros = new VectorDenominaciones();
+    
+    public TotalesTransacciones(String turnoId) {
+        this.turnoId = turnoId;
+    }
+    
+    public TotalesTransacciones agregar(String tipo, String denominacion, int cantidad) {
+        if (Transaccion.TIPO_DEPOSITO.equals(tipo)) {
+            depositos.agregar(denominacion, cantidad);
+        } else if (Transaccion.TIPO_RETIRO.equals(tipo)) {
+            retiros.agregar(denominacion, cantidad);
+        }
+        return this;
+    }
+    
+    public BigDecimal getTotalDepositos() {
+        return depositos.totalMonto();
+    }
+    
+    public BigDecimal getTotalRetiros() {
+        return retiros.totalMonto();
+    }
+}
@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
@@ -13,6 +15,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Document(collection = "transacciones")
+@CompoundIndex(name = "turno_fecha_id", def = "{'turnoId': 1, 'fechaTransaccion': -1, '_id': -1}")
+@CompoundIndex(name = "turno_tipo", def = "{'turnoId': 1, 'tipo': 1}")
+@CompoundIndex(name = "cajero_fecha_id", def = "{'cajeroId': 1, 'fechaTransaccion': -1, '_id': -1}")
+@CompoundIndex(name = "agencia_fecha", def = "{'agencia': 1, 'fechaTransaccion': 1}")
+@CompoundIndex(name = "cliente_fecha_id", def = "{'clienteId': 1, 'fechaTransaccion': -1, '_id': -1}")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,16 +34,19 @@ public class Transaccion {
     @EqualsAndHashCode.Include
     private String id;
     
+    @Indexed(unique = true)
     private String codigoTransaccion;
     private String turnoId;
     private String cajeroId;
     private String codigoCajero;
     private String codigoCaja;
+    private String agencia;
     private String tipo;
     private BigDecimal monto;
     private List<DetalleDenominacion> denominaciones;
     private String clienteId;
     private String numeroCuenta;
+    @Indexed
     private LocalDateTime fechaTransaccion;
     private String observaciones;
     
@@ -45,10 +55,7 @@ public class Transaccion {
     }
     
     public BigDecimal calcularMontoTotal() {
-        if (denominaciones == null) return BigDecimal.ZERO;
-        return denominaciones.stream()
-                .map(DetalleDenominacion::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return BigDecimal.valueOf(VectorDenominaciones.total(denominaciones));
     }
     
     public static boolean esValidoTipo(String tipo) {
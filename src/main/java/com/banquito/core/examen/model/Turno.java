@@ -6,13 +6,24 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Document(collection = "turnos")
+@CompoundIndex(name = "cajero_estado_apertura", def = "{'cajeroId': 1, 'estado': 1, 'fechaApertura': -1}")
+@CompoundIndex(name = "agencia_estado", def = "{'agencia': 1, 'estado': 1}")
+// A lo sumo un turno abierto por cajero, también entre instancias de la aplicación
+@CompoundIndex(name = "cajero_abierto_unico", def = "{'cajeroId': 1}", unique = true,
+        partialFilter = "{'estado': 'ABIERTO'}")
 @Getter
 @Setter
 @NoArgsConstructor
@@ -27,38 +38,53 @@ public class Turno {
     @EqualsAndHashCode.Include
     private String id;
     
+    @Indexed(unique = true)
     private String codigoTurno;
     private String cajeroId;
     private String codigoCajero;
     private String codigoCaja;
     private String agencia;
+    @Indexed
     private String estado;
+    @Indexed
     private LocalDateTime fechaApertura;
     private LocalDateTime fechaCierre;
     private List<DetalleDenominacion> dineroInicial;
     private List<DetalleDenominacion> dineroFinal;
+    // Saldo esperado en caja; se actualiza con $inc en cada transacción
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal montoCalculado;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalDepositos;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal totalRetiros;
+    // Cantidad de billetes por denominación que debería haber en caja
+    private Map<String, Integer> existencias;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal montoDeclarado;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal diferencia;
+    // Diferencia entre el efectivo declarado y el calculado al cerrar
+    @Indexed
     private Boolean tieneAlerta;
+    // Cierre de fin de día: saldo acumulado menos la suma de las transacciones, cuando no coinciden
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal deriva;
     private String observaciones;
+    // Se incrementa también con cada $inc del saldo, así un cierre con datos desactualizados falla
+    @Version
+    private Long version;
     
     public Turno(String id) {
         this.id = id;
     }
     
     public BigDecimal calcularMontoInicial() {
-        if (dineroInicial == null) return BigDecimal.ZERO;
-        return dineroInicial.stream()
-                .map(DetalleDenominacion::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return BigDecimal.valueOf(VectorDenominaciones.total(dineroInicial));
     }
     
     public BigDecimal calcularMontoFinal() {
-        if (dineroFinal == null) return BigDecimal.ZERO;
-        return dineroFinal.stream()
-                .map(DetalleDenominacion::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return BigDecimal.valueOf(VectorDenominaciones.total(dineroFinal));
     }
     
     public static boolean esValidoEstado(String estado) {
@@ -0,0 +1,204 @@
+package com.banquito.core.examen.model;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cantidades de billetes en posiciones fijas, una por denominación soportada.
+ * Las operaciones de suma, resta y total trabajan sobre enteros y no crean objetos,
+ * por lo que se usa en los cálculos de dinero en lugar de listas de {@link DetalleDenominacion}.
+ * Las cantidades pueden ser negativas cuando el vector representa un movimiento.
+ */
+public final class VectorDenominaciones {
+    
+    private static final String[] DENOMINACIONES = {
+            DetalleDenominacion.DENOMINACION_UNO,
+            DetalleDenominacion.DENOMINACION_CINCO,
+            DetalleDenominacion.DENOMINACION_DIEZ,
+            DetalleDenominacion.DENOMINACION_VEINTE,
+            DetalleDenominacion.DENOMINACION_CINCUENTA,
+            DetalleDenominacion.DENOMINACION_CIEN
+    };
+    private static final int[] VALORES = {1, 5, 10, 20, 50, 100};
+    
+    public static final int POSICIONES = DENOMINACIONES.length;
+    
+    private final int[] cantidades = new int[POSICIONES];
+    
+    public static int posicion(String denominacion) {
+        if (denominacion == null) return -1;
+        return switch (denominacion) {
+            case DetalleDenominacion.DENOMINACION_UNO -> 0;
+            case DetalleDenominacion.DENOMINACION_CINCO -> 1;
+            case DetalleDenominacion.DENOMINACION_DIEZ -> 2;
+            case DetalleDenominacion.DENOMINACION_VEINTE -> 3;
+            case DetalleDenominacion.DENOMINACION_CINCUENTA -> 4;
+            case DetalleDenominacion.DENOMINACION_CIEN -> 5;
+            default -> -1;
+        };
+    }
+    
+    public static int posicionRequerida(String denominacion) {
+        int posicion = posicion(denominacion);
+        if (posicion < 0) {
+            throw new IllegalArgumentException("Denominación no válida: " + denominacion);
+        }
+        return posicion;
+    }
+    
+    public static String denominacion(int posicion) {
+        return DENOMINACIONES[posicion];
+    }
+    
+    public static int valor(int posicion) {
+        return VALORES[posicion];
+    }
+    
+    public static VectorDenominaciones desde(List<DetalleDenominacion> detalles) {
+        VectorDenominaciones vector = new VectorDenominaciones();
+        vector.agregar(detalles);
+        return vector;
+    }
+    
+    public static VectorDenominaciones desde(Map<String, Integer> cantidades) {
+        VectorDenominaciones vector = new VectorDenominaciones();
+        if (cantidades != null) {
+            cantidades.forEach((denominacion, cantidad) -> vector.agregar(denominacion, cantidad == null ? 0 : cantidad));
+        }
+        return vector;
+    }
+    
+    public static long total(List<DetalleDenominacion> detalles) {
+        if (detalles == null) return 0;
+        long total = 0;
+        for (int i = 0, n = detalles.size(); i < n; i++) {
+            DetalleDenominacion detalle = detalles.get(i);
+            total += (long) VALORES[posicionRequerida(detalle.getDenominacion())] * detalle.getCantidad();
+        }
+        return total;
+    }
+    
+    public int cantidad(int posicion) {
+        return cantidades[posicion];
+    }
+    
+    public int cantidad(String denominacion) {
+        return cantidades[posicionRequerida(denominacion)];
+    }
+    
+    public VectorDenominaciones agregar(String denominacion, int cantidad) {
+        cantidades[posicionRequerida(denominacion)] += cantidad;
+        return this;
+    }
+    
+    public VectorDenominaciones agregar(List<DetalleDenominacion> detalles) {
+        if (detalles == null) return this;
+        for (int i = 0, n = detalles.size(); i < n; i++) {
+            DetalleDenominacion detalle = detalles.get(i);
+            cantidades[posicionRequerida(detalle.getDenominacion())] += detalle.getCantidad();
+        }
+        return this;
+    }
+    
+    public VectorDenominaciones sumar(VectorDenominaciones otro) {
+        for (int i = 0; i < POSICIONES; i++) {
+            cantidades[i] += otro.cantidades[i];
+        }
+        return this;
+    }
+    
+    public VectorDenominaciones restar(VectorDenominaciones otro) {
+        for (int i = 0; i < POSICIONES; i++) {
+            cantidades[i] -= otro.cantidades[i];
+        }
+        return this;
+    }
+    
+    /**
+     * Indica si hay al menos tantos billetes de cada denominación como en {@code otro}.
+     */
+    public boolean cubre(VectorDenominaciones otro) {
+        for (int i = 0; i < POSICIONES; i++) {
+            if (cantidades[i] < otro.cantidades[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    public VectorDenominaciones negar() {
+        for (int i = 0; i < POSICIONES; i++) {
+            cantidades[i] = -cantidades[i];
+        }
+        return this;
+    }
+    
+    public VectorDenominaciones limpiar() {
+        Arrays.fill(cantidades, 0);
+        return this;
+    }
+    
+    public VectorDenominaciones copia() {
+        VectorDenominaciones copia = new VectorDenominaciones();
+        System.arraycopy(cantidades, 0, copia.cantidades, 0, POSICIONES);
+        return copia;
+    }
+    
+    public long total() {
+        long total = 0;
+        for (int i = 0; i < POSICIONES; i++) {
+            total += (long) VALORES[i] * cantidades[i];
+        }
+        return total;
+    }
+    
+    public BigDecimal totalMonto() {
+        return BigDecimal.valueOf(total());
+    }
+    
+    public boolean estaVacio() {
+        for (int i = 0; i < POSICIONES; i++) {
+            if (cantidades[i] != 0) return false;
+        }
+        return true;
+    }
+    
+    public List<DetalleDenominacion> aLista() {
+        List<DetalleDenominacion> detalles = new ArrayList<>(POSICIONES);
+        for (int i = 0; i < POSICIONES; i++) {
+            if (cantidades[i] != 0) {
+                detalles.add(new DetalleDenominacion(DENOMINACIONES[i], cantidades[i]));
+            }
+        }
+        return detalles;
+    }
+    
+    public Map<String, Integer> aMapa() {
+        Map<String, Integer> mapa = new HashMap<>();
+        for (int i = 0; i < POSICIONES; i++) {
+            if (cantidades[i] != 0) {
+                mapa.put(DENOMINACIONES[i], cantidades[i]);
+            }
+        }
+        return mapa;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof VectorDenominaciones otro && Arrays.equals(cantidades, otro.cantidades);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(cantidades);
+    }
+    
+    @Override
+    public String toString() {
+        return "VectorDenominaciones" + aMapa();
+    }
+}
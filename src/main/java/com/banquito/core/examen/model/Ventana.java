@@ -0,0 +1,27 @@
+package com.banquito.core.examen.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Página obtenida por posición (keyset) en lugar de desplazamiento. {@code siguienteCursor}
+ * es nulo cuando no hay más elementos.
+ */
+@Getter
+@ToString
+public class Ventana<T> {
+    
+    private final List<T> contenido;
+    private final String siguienteCursor;
+    
+    public Ventana(List<T> contenido, String siguienteCursor) {
+        this.contenido = contenido;
+        this.siguienteCursor = siguienteCursor;
+    }
+    
+    public boolean haySiguiente() {
+        return siguienteCursor != null;
+    }
+}
@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CajeroRepository extends MongoRepository<Cajero, String> {
+public interface CajeroRepository extends MongoRepository<Cajero, String>, CajeroRepositoryCustom {
     
     Optional<Cajero> findByCodigo(String codigo);
     
@@ -20,7 +20,15 @@ public interface CajeroRepository extends MongoRepository<Cajero, String> {
 
     org.springframework.data.domain.Page<Cajero> findAll(org.springframework.data.domain.Pageable pageable);
 
-    org.springframework.data.domain.Page<Cajero> findByAgencia(String agencia, org.springframework.data.domain.Pageable pageable);
+    org.springframework.data.domain.Page<ResumenCajero> findResumenBy(org.springframework.data.domain.Pageable pageable);
 
-    org.springframework.data.domain.Page<Cajero> findByActivoTrue(org.springframework.data.domain.Pageable pageable);
+    org.springframework.data.domain.Page<ResumenCajero> findResumenByAgencia(String agencia, org.springframework.data.domain.Pageable pageable);
+
+    org.springframework.data.domain.Page<ResumenCajero> findResumenByActivoTrue(org.springframework.data.domain.Pageable pageable);
+
+    org.springframework.data.domain.Slice<ResumenCajero> findResumenSliceBy(org.springframework.data.domain.Pageable pageable);
+
+    org.springframework.data.domain.Slice<ResumenCajero> findResumenSliceByAgencia(String agencia, org.springframework.data.domain.Pageable pageable);
+
+    org.springframework.data.domain.Slice<ResumenCajero> findResumenSliceByActivoTrue(org.springframework.data.domain.Pageable pageable);
 } 
\ No newline at end of file
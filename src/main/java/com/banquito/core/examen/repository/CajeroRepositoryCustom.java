@@ -0,0 +1,20 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.Cajero;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface CajeroRepositoryCustom {
+    
+    /**
+     * Crea o actualiza los cajeros por código con una única operación bulk no ordenada de upserts.
+     * Los códigos del lote deben ser distintos. Devuelve las posiciones de los cajeros que se crearon
+     * y el motivo de fallo indexado por la posición de cada cajero rechazado.
+     */
+    ResultadoUpsert upsertPorCodigo(List<Cajero> cajeros);
+    
+    record ResultadoUpsert(Set<Integer> creados, Map<Integer, String> errores) {
+    }
+}
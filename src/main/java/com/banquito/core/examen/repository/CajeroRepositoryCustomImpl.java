@@ -0,0 +1,69 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.Cajero;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CajeroRepositoryCustomImpl implements CajeroRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    public CajeroRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public ResultadoUpsert upsertPorCodigo(List<Cajero> cajeros) {
+        Set<Integer> creados = new HashSet<>();
+        Map<Integer, String> errores = new HashMap<>();
+        if (cajeros.isEmpty()) return new ResultadoUpsert(creados, errores);
+        
+        LocalDateTime ahora = LocalDateTime.now();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Cajero.class);
+        for (Cajero cajero : cajeros) {
+            Update update = new Update()
+                    .set("codigoCaja", cajero.getCodigoCaja())
+                    .set("nombre", cajero.getNombre())
+                    .set("apellido", cajero.getApellido())
+                    .set("email", cajero.getEmail())
+                    .set("agencia", cajero.getAgencia())
+                    .set("fechaActualizacion", ahora)
+                    .setOnInsert("fechaCreacion", ahora);
+            // Sin valor en la fila: los nuevos quedan activos y los existentes conservan su estado
+            if (cajero.getActivo() != null) {
+                update.set("activo", cajero.getActivo());
+            } else {
+                update.setOnInsert("activo", true);
+            }
+            bulk.upsert(new Query(Criteria.where("codigo").is(cajero.getCodigo())), update);
+        }
+        
+        BulkWriteResult resultado;
+        try {
+            resultado = bulk.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errores.put(error.getIndex(), error.getMessage());
+            }
+            resultado = e.getResult();
+        }
+        for (BulkWriteUpsert upsert : resultado.getUpserts()) {
+            creados.add(upsert.getIndex());
+        }
+        return new ResultadoUpsert(creados, errores);
+    }
+}
@@ -0,0 +1,16 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.Transaccion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveTransaccionRepository extends ReactiveMongoRepository<Transaccion, String> {
+    
+    Mono<Transaccion> findByCodigoTransaccion(String codigoTransaccion);
+    
+    Flux<Transaccion> findByTurnoIdOrderByFechaTransaccionDesc(String turnoId, Pageable pageable);
+}
@@ -0,0 +1,13 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.Turno;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Solo lectura por ID para {@link com.banquito.core.examen.service.ReactiveTransaccionService}; los turnos
+ * se modifican únicamente desde su cola en {@link com.banquito.core.examen.service.SecuenciadorTurnos}.
+ */
+@Repository
+public interface ReactiveTurnoRepository extends ReactiveMongoRepository<Turno, String> {
+}
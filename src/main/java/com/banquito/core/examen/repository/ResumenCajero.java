@@ -0,0 +1,21 @@
+package com.banquito.core.examen.repository;
+
+/**
+ * Proyección de {@link com.banquito.core.examen.model.Cajero} para listados.
+ */
+public interface ResumenCajero {
+    
+    String getId();
+    
+    String getCodigo();
+    
+    String getCodigoCaja();
+    
+    String getNombre();
+    
+    String getApellido();
+    
+    String getAgencia();
+    
+    Boolean getActivo();
+}
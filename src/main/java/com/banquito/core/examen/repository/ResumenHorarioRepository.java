@@ -0,0 +1,18 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.ResumenHorario;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ResumenHorarioRepository extends MongoRepository<ResumenHorario, String>, ResumenHorarioRepositoryCustom {
+    
+    List<ResumenHorario> findByAgenciaAndHoraGreaterThanEqualAndHoraLessThanOrderByHoraAscCodigoCajaAsc(
+            String agencia, LocalDateTime desde, LocalDateTime hasta);
+    
+    List<ResumenHorario> findByCodigoCajaAndHoraGreaterThanEqualAndHoraLessThanOrderByHoraAsc(
+            String codigoCaja, LocalDateTime desde, LocalDateTime hasta);
+}
@@ -0,0 +1,21 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.Transaccion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ResumenHorarioRepositoryCustom {
+    
+    /**
+     * Suma las transacciones a los resúmenes de su hora y caja con una única operación bulk de upserts
+     * ($inc), una por cada hora y caja distinta del lote.
+     */
+    void acumular(List<Transaccion> transacciones);
+    
+    /**
+     * Reemplaza los resúmenes de {@code [desde, hasta)} por los que se calculan en Mongo desde las transacciones
+     * y los escribe con $merge, sin traer documentos a la aplicación. Devuelve la cantidad de resúmenes del rango.
+     */
+    long reconstruir(LocalDateTime desde, LocalDateTime hasta);
+}
@@ -0,0 +1,207 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.ResumenHorario;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.VectorDenominaciones;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ResumenHorarioRepositoryCustomImpl implements ResumenHorarioRepositoryCustom {
+    
+    private static final String COLECCION = "resumenes_horarios";
+    private static final Decimal128 CERO = new Decimal128(BigDecimal.ZERO);
+    
+    private final MongoTemplate mongoTemplate;
+    
+    public ResumenHorarioRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public void acumular(List<Transaccion> transacciones) {
+        if (transacciones.isEmpty()) {
+            return;
+        }
+        // Las transacciones de un lote suelen caer en la misma hora y caja: un solo upsert por clave
+        Map<String, Acumulado> porClave = new LinkedHashMap<>();
+        for (Transaccion transaccion : transacciones) {
+            Instant hora = ResumenHorario.inicioHora(transaccion.getFechaTransaccion());
+            porClave.computeIfAbsent(ResumenHorario.clave(transaccion.getAgencia(), transaccion.getCodigoCaja(), hora),
+                    clave -> new Acumulado(transaccion.getAgencia(), transaccion.getCodigoCaja(), hora))
+                    .agregar(transaccion);
+        }
+        
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ResumenHorario.class);
+        porClave.forEach((clave, acumulado) ->
+                bulk.upsert(new Query(Criteria.where("_id").is(clave)), acumulado.aUpdate()));
+        bulk.execute();
+    }
+    
+    @Override
+    public long reconstruir(LocalDateTime desde, LocalDateTime hasta) {
+        mongoTemplate.remove(consultaHoras(desde, hasta), ResumenHorario.class);
+        
+        Document filtro = new Document("$match", filtroTransacciones(desde, hasta));
+        Document grupo = new Document("agencia", "$agencia")
+                .append("codigoCaja", "$codigoCaja")
+                .append("hora", new Document("$dateTrunc", new Document("date", "$fechaTransaccion").append("unit", "hour")));
+        Document esDeposito = new Document("$eq", List.of("$tipo", Transaccion.TIPO_DEPOSITO));
+        Document esRetiro = new Document("$eq", List.of("$tipo", Transaccion.TIPO_RETIRO));
+        Document monto = new Document("$toDecimal", "$monto");
+        
+        // Cantidades y montos por tipo; reemplaza el resumen si existía
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaccion.class)).aggregate(List.of(
+                filtro,
+                new Document("$group", new Document("_id", grupo)
+                        .append("cantidadDepositos", new Document("$sum", condicion(esDeposito, 1, 0)))
+                        .append("cantidadRetiros", new Document("$sum", condicion(esRetiro, 1, 0)))
+                        .append("montoDepositos", new Document("$sum", condicion(esDeposito, monto, CERO)))
+                        .append("montoRetiros", new Document("$sum", condicion(esRetiro, monto, CERO)))),
+                new Document("$project", new Document("_id", clave())
+                        .append("agencia", "$_id.agencia")
+                        .append("codigoCaja", "$_id.codigoCaja")
+                        .append("hora", "$_id.hora")
+                        .append("cantidadDepositos", 1)
+                        .append("cantidadRetiros", 1)
+                        .append("montoDepositos", 1)
+                        .append("montoRetiros", 1)
+                        .append("billetesDepositados", new Document("$literal", new Document()))
+                        .append("billetesRetirados", new Document("$literal", new Document()))),
+                combinar("replace", "insert")))
+                .allowDiskUse(true)
+                .toCollection();
+        
+        // Billetes por tipo y denominación; completa los resúmenes creados en el paso anterior
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaccion.class)).aggregate(List.of(
+                filtro,
+                new Document("$unwind", "$denominaciones"),
+                new Document("$group", new Document("_id", new Document(grupo)
+                                .append("tipo", "$tipo")
+                                .append("denominacion", "$denominaciones.denominacion"))
+                        .append("cantidad", new Document("$sum", "$denominaciones.cantidad"))),
+                new Document("$group", new Document("_id", new Document("agencia", "$_id.agencia")
+                                .append("codigoCaja", "$_id.codigoCaja")
+                                .append("hora", "$_id.hora"))
+                        .append("flujos", new Document("$push", new Document("tipo", "$_id.tipo")
+                                .append("k", "$_id.denominacion")
+                                .append("v", "$cantidad")))),
+                new Document("$project", new Document("_id", clave())
+                        .append("billetesDepositados", billetes(Transaccion.TIPO_DEPOSITO))
+                        .append("billetesRetirados", billetes(Transaccion.TIPO_RETIRO))),
+                combinar("merge", "discard")))
+                .allowDiskUse(true)
+                .toCollection();
+        
+        return mongoTemplate.count(consultaHoras(desde, hasta), ResumenHorario.class);
+    }
+    
+    // Filtros de la reconstrucción; PlanesConsultaEndpoint explica estos mismos
+    
+    public static Query consultaHoras(LocalDateTime desde, LocalDateTime hasta) {
+        return new Query(Criteria.where("hora").gte(desde).lt(hasta));
+    }
+    
+    public static Document filtroTransacciones(LocalDateTime desde, LocalDateTime hasta) {
+        return new Document("fechaTransaccion", new Document("$gte", fecha(desde)).append("$lt", fecha(hasta)));
+    }
+    
+    // Misma clave que ResumenHorario.clave, calculada en el servidor
+    private static Document clave() {
+        return new Document("$concat", List.of(
+                new Document("$ifNull", List.of("$_id.agencia", "")), "|",
+                new Document("$ifNull", List.of("$_id.codigoCaja", "")), "|",
+                new Document("$dateToString", new Document("date", "$_id.hora").append("format", "%Y-%m-%dT%H"))));
+    }
+    
+    private static Document billetes(String tipo) {
+        Document delTipo = new Document("$filter", new Document("input", "$flujos")
+                .append("as", "flujo")
+                .append("cond", new Document("$eq", List.of("$$flujo.tipo", tipo))));
+        return new Document("$arrayToObject", new Document("$map", new Document("input", delTipo)
+                .append("as", "flujo")
+                .append("in", new Document("k", "$$flujo.k").append("v", "$$flujo.v"))));
+    }
+    
+    private static Document condicion(Document si, Object entonces, Object sino) {
+        return new Document("$cond", List.of(si, entonces, sino));
+    }
+    
+    private static Document combinar(String siExiste, String siNoExiste) {
+        return new Document("$merge", new Document("into", COLECCION)
+                .append("on", "_id")
+                .append("whenMatched", siExiste)
+                .append("whenNotMatched", siNoExiste));
+    }
+    
+    private static Date fecha(LocalDateTime fecha) {
+        return Date.from(fecha.atZone(ZoneId.systemDefault()).toInstant());
+    }
+    
+    private static final class Acumulado {
+        
+        private final String agencia;
+        private final String codigoCaja;
+        private final Instant hora;
+        private long cantidadDepositos;
+        private long cantidadRetiros;
+        private BigDecimal montoDepositos = BigDecimal.ZERO;
+        private BigDecimal montoRetiros = BigDecimal.ZERO;
+        private final VectorDenominaciones billetesDepositados = new VectorDenominaciones();
+        private final VectorDenominaciones billetesRetirados = new VectorDenominaciones();
+        
+        Acumulado(String agencia, String codigoCaja, Instant hora) {
+            this.agencia = agencia;
+            this.codigoCaja = codigoCaja;
+            this.hora = hora;
+        }
+        
+        void agregar(Transaccion transaccion) {
+            BigDecimal monto = transaccion.getMonto() != null ? transaccion.getMonto() : BigDecimal.ZERO;
+            if (Transaccion.TIPO_DEPOSITO.equals(transaccion.getTipo())) {
+                cantidadDepositos++;
+                montoDepositos = montoDepositos.add(monto);
+                billetesDepositados.agregar(transaccion.getDenominaciones());
+            } else {
+                cantidadRetiros++;
+                montoRetiros = montoRetiros.add(monto);
+                billetesRetirados.agregar(transaccion.getDenominaciones());
+            }
+        }
+        
+        Update aUpdate() {
+            Update update = new Update()
+                    .setOnInsert("agencia", agencia)
+                    .setOnInsert("codigoCaja", codigoCaja)
+                    .setOnInsert("hora", LocalDateTime.ofInstant(hora, ZoneId.systemDefault()))
+                    .inc("cantidadDepositos", cantidadDepositos)
+                    .inc("cantidadRetiros", cantidadRetiros)
+                    .inc("montoDepositos", new Decimal128(montoDepositos))
+                    .inc("montoRetiros", new Decimal128(montoRetiros));
+            incrementarBilletes(update, "billetesDepositados", billetesDepositados);
+            incrementarBilletes(update, "billetesRetirados", billetesRetirados);
+            return update;
+        }
+        
+        private static void incrementarBilletes(Update update, String campo, VectorDenominaciones billetes) {
+            for (int i = 0; i < VectorDenominaciones.POSICIONES; i++) {
+                if (billetes.cantidad(i) != 0) {
+                    update.inc(campo + "." + VectorDenominaciones.denominacion(i), billetes.cantidad(i));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.banquito.core.examen.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de {@link com.banquito.core.examen.model.Transaccion} para listados: no trae
+ * las denominaciones ni las observaciones.
+ */
+public interface ResumenTransaccion {
+    
+    String getId();
+    
+    String getCodigoTransaccion();
+    
+    String getTurnoId();
+    
+    String getCodigoCajero();
+    
+    String getCodigoCaja();
+    
+    String getTipo();
+    
+    BigDecimal getMonto();
+    
+    String getClienteId();
+    
+    String getNumeroCuenta();
+    
+    LocalDateTime getFechaTransaccion();
+}
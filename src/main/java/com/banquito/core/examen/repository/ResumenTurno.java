@@ -0,0 +1,33 @@
+package com.banquito.core.examen.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Proyección de {@link com.banquito.core.examen.model.Turno} para listados: no trae las
+ * denominaciones de apertura y cierre ni las existencias.
+ */
+public interface ResumenTurno {
+    
+    String getId();
+    
+    String getCodigoTurno();
+    
+    String getCodigoCajero();
+    
+    String getCodigoCaja();
+    
+    String getAgencia();
+    
+    String getEstado();
+    
+    LocalDateTime getFechaApertura();
+    
+    LocalDateTime getFechaCierre();
+    
+    BigDecimal getMontoCalculado();
+    
+    BigDecimal getDiferencia();
+    
+    Boolean getTieneAlerta();
+}
@@ -11,7 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 @Repository
-public interface TransaccionRepository extends MongoRepository<Transaccion, String> {
+public interface TransaccionRepository extends MongoRepository<Transaccion, String>, TransaccionRepositoryCustom {
     
     Optional<Transaccion> findByCodigoTransaccion(String codigoTransaccion);
     
@@ -25,13 +25,16 @@ public interface TransaccionRepository extends MongoRepository<Transaccion, Stri
     
     List<Transaccion> findByFechaTransaccionBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
     
+    long countByAgenciaIsNullAndFechaTransaccionGreaterThanEqualAndFechaTransaccionLessThan(LocalDateTime desde,
+                                                                                             LocalDateTime hasta);
+    
     List<Transaccion> findByClienteId(String clienteId);
 
-    Page<Transaccion> findByTurnoIdOrderByFechaTransaccionDesc(String turnoId, Pageable pageable);
+    Page<ResumenTransaccion> findResumenByTurnoIdOrderByFechaTransaccionDesc(String turnoId, Pageable pageable);
     
-    Page<Transaccion> findByCajeroId(String cajeroId, Pageable pageable);
+    Page<ResumenTransaccion> findResumenByCajeroId(String cajeroId, Pageable pageable);
     
-    Page<Transaccion> findByTurnoIdAndTipo(String turnoId, String tipo, Pageable pageable);
+    Page<ResumenTransaccion> findResumenByTurnoIdAndTipo(String turnoId, String tipo, Pageable pageable);
     
-    Page<Transaccion> findByClienteId(String clienteId, Pageable pageable);
+    Page<ResumenTransaccion> findResumenByClienteId(String clienteId, Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.CursorTransaccion;
+import com.banquito.core.examen.model.TotalesTransacciones;
+import com.banquito.core.examen.model.Transaccion;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+public interface TransaccionRepositoryCustom {
+    
+    /**
+     * Inserta las transacciones con una única operación bulk no ordenada.
+     * Devuelve el motivo de fallo indexado por la posición de cada transacción rechazada.
+     */
+    Map<Integer, String> insertarLote(List<Transaccion> transacciones);
+    
+    /**
+     * Inserta las transacciones ignorando las que ya existen (clave duplicada), de modo que se puede
+     * repetir sin efectos. Devuelve solo las que se insertaron; cualquier otro error se propaga.
+     */
+    List<Transaccion> insertarNuevas(List<Transaccion> transacciones);
+    
+    /**
+     * Suma en Mongo la cantidad de billetes de las transacciones del turno, agrupada por tipo y denominación.
+     * Solo viajan las sumas (a lo sumo una fila por tipo y denominación), sin importar cuántas transacciones tenga el turno.
+     */
+    TotalesTransacciones sumarPorTipoYDenominacion(String turnoId);
+    
+    /**
+     * Historial por posición: devuelve hasta {@code limite} transacciones con {@code campo = valor}
+     * ordenadas por {@code (fechaTransaccion, id)} descendente y posteriores al cursor, si se indica.
+     * Usa los índices {@code <campo>_fecha_id}, por lo que no hay skip ni conteo.
+     */
+    List<ResumenTransaccion> buscarHistorial(String campo, String valor, CursorTransaccion despuesDe, int limite);
+    
+    /**
+     * Recorre con un cursor de Mongo las transacciones de {@code [desde, hasta)} en orden de fecha,
+     * filtrando opcionalmente por agencia y tipo. El stream debe cerrarse para liberar el cursor.
+     */
+    Stream<Transaccion> streamPorFecha(LocalDateTime desde, LocalDateTime hasta, String agencia, String tipo);
+}
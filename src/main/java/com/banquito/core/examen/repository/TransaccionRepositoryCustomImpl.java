@@ -0,0 +1,145 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.CursorTransaccion;
+import com.banquito.core.examen.model.TotalesTransacciones;
+import com.banquito.core.examen.model.Transaccion;
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class TransaccionRepositoryCustomImpl implements TransaccionRepositoryCustom {
+    
+    private static final int LOTE_CURSOR = 1000;
+    private static final int CLAVE_DUPLICADA = 11000;
+    
+    private final MongoTemplate mongoTemplate;
+    
+    public TransaccionRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public Map<Integer, String> insertarLote(List<Transaccion> transacciones) {
+        Map<Integer, String> errores = new HashMap<>();
+        if (transacciones.isEmpty()) return errores;
+        
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaccion.class)
+                    .insert(transacciones)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errores.put(error.getIndex(), error.getMessage());
+            }
+        }
+        return errores;
+    }
+    
+    @Override
+    public List<Transaccion> insertarNuevas(List<Transaccion> transacciones) {
+        if (transacciones.isEmpty()) return transacciones;
+        
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaccion.class)
+                    .insert(transacciones)
+                    .execute();
+            return transacciones;
+        } catch (BulkOperationException e) {
+            Set<Integer> duplicadas = new HashSet<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != CLAVE_DUPLICADA) {
+                    throw e;
+                }
+                duplicadas.add(error.getIndex());
+            }
+            List<Transaccion> nuevas = new ArrayList<>(transacciones.size() - duplicadas.size());
+            for (int i = 0; i < transacciones.size(); i++) {
+                if (!duplicadas.contains(i)) {
+                    nuevas.add(transacciones.get(i));
+                }
+            }
+            return nuevas;
+        }
+    }
+    
+    @Override
+    public TotalesTransacciones sumarPorTipoYDenominacion(String turnoId) {
+        Aggregation agregacion = Aggregation.newAggregation(
+                Aggregation.match(criterioTotales(turnoId)),
+                Aggregation.project("tipo", "denominaciones"),
+                Aggregation.unwind("denominaciones"),
+                Aggregation.project("tipo")
+                        .and("denominaciones.denominacion").as("denominacion")
+                        .and("denominaciones.cantidad").as("cantidad"),
+                Aggregation.group("tipo", "denominacion").sum("cantidad").as("cantidad"));
+        
+        TotalesTransacciones totales = new TotalesTransacciones(turnoId);
+        for (Document fila : mongoTemplate.aggregate(agregacion, Transaccion.class, Document.class)) {
+            Document grupo = fila.get("_id", Document.class);
+            totales.agregar(grupo.getString("tipo"), grupo.getString("denominacion"),
+                    fila.get("cantidad", Number.class).intValue());
+        }
+        return totales;
+    }
+    
+    @Override
+    public List<ResumenTransaccion> buscarHistorial(String campo, String valor, CursorTransaccion despuesDe, int limite) {
+        return mongoTemplate.query(Transaccion.class)
+                .as(ResumenTransaccion.class)
+                .matching(consultaHistorial(campo, valor, despuesDe, limite))
+                .all();
+    }
+    
+    @Override
+    public Stream<Transaccion> streamPorFecha(LocalDateTime desde, LocalDateTime hasta, String agencia, String tipo) {
+        return mongoTemplate.stream(consultaPorFecha(desde, hasta, agencia, tipo), Transaccion.class);
+    }
+    
+    // Las consultas se arman aparte para que el reporte de planes (PlanesConsultaEndpoint) explique las mismas
+    
+    public static Criteria criterioTotales(String turnoId) {
+        return Criteria.where("turnoId").is(turnoId);
+    }
+    
+    public static Query consultaHistorial(String campo, String valor, CursorTransaccion despuesDe, int limite) {
+        Criteria criterio = Criteria.where(campo).is(valor);
+        if (despuesDe != null) {
+            criterio = criterio.orOperator(
+                    Criteria.where("fechaTransaccion").lt(despuesDe.getFechaTransaccion()),
+                    Criteria.where("fechaTransaccion").is(despuesDe.getFechaTransaccion())
+                            .and("id").lt(despuesDe.getId()));
+        }
+        return Query.query(criterio)
+                .with(Sort.by(Sort.Direction.DESC, "fechaTransaccion", "id"))
+                .limit(limite);
+    }
+    
+    public static Query consultaPorFecha(LocalDateTime desde, LocalDateTime hasta, String agencia, String tipo) {
+        Criteria criterio = new Criteria();
+        if (agencia != null) {
+            criterio = criterio.and("agencia").is(agencia);
+        }
+        criterio = criterio.and("fechaTransaccion").gte(desde).lt(hasta);
+        if (tipo != null) {
+            criterio = criterio.and("tipo").is(tipo);
+        }
+        return Query.query(criterio)
+                .with(Sort.by(Sort.Direction.ASC, "fechaTransaccion"))
+                .cursorBatchSize(LOTE_CURSOR);
+    }
+}
@@ -9,9 +9,10 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 @Repository
-public interface TurnoRepository extends MongoRepository<Turno, String> {
+public interface TurnoRepository extends MongoRepository<Turno, String>, TurnoRepositoryCustom {
     
     Optional<Turno> findByCodigoTurno(String codigoTurno);
     
@@ -26,8 +27,14 @@ public interface TurnoRepository extends MongoRepository<Turno, String> {
     List<Turno> findByFechaAperturaBetween(LocalDateTime fechaInicio, LocalDateTime fechaFin);
     
     List<Turno> findByTieneAlertaTrue();
+    
+    long countByEstado(String estado);
 
-    Page<Turno> findByAgenciaAndEstado(String agencia, String estado, Pageable pageable);
+    Page<ResumenTurno> findResumenByAgenciaAndEstado(String agencia, String estado, Pageable pageable);
+    
+    Page<ResumenTurno> findResumenByTieneAlertaTrue(Pageable pageable);
+    
+    Slice<ResumenTurno> findResumenSliceByAgenciaAndEstado(String agencia, String estado, Pageable pageable);
     
-    Page<Turno> findByTieneAlertaTrue(Pageable pageable);
+    Slice<ResumenTurno> findResumenSliceByTieneAlertaTrue(Pageable pageable);
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.TableroAgencia;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public interface TurnoRepositoryCustom {
+    
+    /**
+     * Suma (depósitos) o resta (retiros) los montos y billetes de las transacciones
+     * sobre el saldo del turno en una sola operación atómica del servidor.
+     * La actualización exige que el turno tenga los billetes que las transacciones retiran en neto.
+     * Devuelve false si el turno no existe, ya no está abierto o no alcanzan los billetes.
+     */
+    boolean aplicarMovimientos(String turnoId, List<Transaccion> transacciones);
+    
+    /**
+     * Igual que {@link #aplicarMovimientos} pero sin exigir existencias, para transacciones ya
+     * confirmadas al cliente (diario). Devuelve false si el turno no existe o ya no está abierto.
+     */
+    boolean aplicarMovimientosConfirmados(String turnoId, List<Transaccion> transacciones);
+    
+    void revertirMovimientos(String turnoId, List<Transaccion> transacciones);
+    
+    /**
+     * Suma por agencia los turnos abiertos y sus saldos (índice de estado) y cuenta los turnos con alerta
+     * (índice de tieneAlerta). Solo viaja una fila por agencia.
+     */
+    List<TableroAgencia> resumirPorAgencia();
+    
+    List<String> findAgenciasConTurnosAbiertos();
+    
+    /**
+     * Cierra con una única operación bulk no ordenada los turnos ya conciliados. Cada uno se cierra solo si
+     * sigue abierto y con la misma versión que se leyó. Devuelve los IDs de los turnos que quedaron cerrados
+     * con esa fecha de cierre.
+     */
+    Set<String> cerrarConciliados(List<Turno> turnos, LocalDateTime fechaCierre);
+    
+    void reemplazarSaldo(String turnoId, BigDecimal montoCalculado, BigDecimal totalDepositos,
+                         BigDecimal totalRetiros, Map<String, Integer> existencias);
+}
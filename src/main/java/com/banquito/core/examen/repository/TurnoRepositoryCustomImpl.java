@@ -0,0 +1,217 @@
+package com.banquito.core.examen.repository;
+
+import com.banquito.core.examen.model.TableroAgencia;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.model.VectorDenominaciones;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class TurnoRepositoryCustomImpl implements TurnoRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    public TurnoRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+    
+    @Override
+    public boolean aplicarMovimientos(String turnoId, List<Transaccion> transacciones) {
+        return mongoTemplate.updateFirst(new Query(criterioMovimiento(turnoId, transacciones)),
+                construirMovimiento(transacciones, 1), Turno.class).getMatchedCount() > 0;
+    }
+    
+    @Override
+    public boolean aplicarMovimientosConfirmados(String turnoId, List<Transaccion> transacciones) {
+        Query query = new Query(Criteria.where("_id").is(turnoId).and("estado").is(Turno.ESTADO_ABIERTO));
+        return mongoTemplate.updateFirst(query, construirMovimiento(transacciones, 1), Turno.class)
+                .getMatchedCount() > 0;
+    }
+    
+    @Override
+    public void revertirMovimientos(String turnoId, List<Transaccion> transacciones) {
+        Query query = new Query(Criteria.where("_id").is(turnoId));
+        mongoTemplate.updateFirst(query, construirMovimiento(transacciones, -1), Turno.class);
+    }
+    
+    @Override
+    public void reemplazarSaldo(String turnoId, BigDecimal montoCalculado, BigDecimal totalDepositos,
+                                BigDecimal totalRetiros, Map<String, Integer> existencias) {
+        Update update = new Update()
+                .set("montoCalculado", new Decimal128(montoCalculado))
+                .set("totalDepositos", new Decimal128(totalDepositos))
+                .set("totalRetiros", new Decimal128(totalRetiros))
+                .set("existencias", existencias)
+                .inc("version", 1);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(turnoId)), update, Turno.class);
+    }
+    
+    @Override
+    public List<TableroAgencia> resumirPorAgencia() {
+        Map<String, TableroAgencia> porAgencia = new TreeMap<>();
+        
+        Aggregation abiertos = Aggregation.newAggregation(
+                Aggregation.match(criterioAbiertos()),
+                Aggregation.group("agencia")
+                        .count().as("turnosAbiertos")
+                        .sum("montoCalculado").as("efectivoEnCaja")
+                        .sum("totalDepositos").as("totalDepositos")
+                        .sum("totalRetiros").as("totalRetiros"));
+        for (Document fila : mongoTemplate.aggregate(abiertos, Turno.class, Document.class)) {
+            String agencia = fila.getString("_id");
+            if (agencia == null) continue;
+            TableroAgencia tablero = porAgencia.computeIfAbsent(agencia, TableroAgencia::new);
+            tablero.setTurnosAbiertos(fila.get("turnosAbiertos", Number.class).longValue());
+            tablero.setEfectivoEnCaja(aBigDecimal(fila.get("efectivoEnCaja")));
+            tablero.setTotalDepositos(aBigDecimal(fila.get("totalDepositos")));
+            tablero.setTotalRetiros(aBigDecimal(fila.get("totalRetiros")));
+        }
+        
+        Aggregation alertas = Aggregation.newAggregation(
+                Aggregation.match(criterioConAlerta()),
+                Aggregation.group("agencia").count().as("alertas"));
+        for (Document fila : mongoTemplate.aggregate(alertas, Turno.class, Document.class)) {
+            String agencia = fila.getString("_id");
+            if (agencia == null) continue;
+            porAgencia.computeIfAbsent(agencia, TableroAgencia::new)
+                    .setAlertas(fila.get("alertas", Number.class).longValue());
+        }
+        return new ArrayList<>(porAgencia.values());
+    }
+    
+    @Override
+    public List<String> findAgenciasConTurnosAbiertos() {
+        return mongoTemplate.findDistinct(new Query(criterioAbiertos()), "agencia", Turno.class, String.class);
+    }
+    
+    // Filtros de las agregaciones y del distinct; PlanesConsultaEndpoint explica estos mismos
+    
+    public static Criteria criterioAbiertos() {
+        return Criteria.where("estado").is(Turno.ESTADO_ABIERTO);
+    }
+    
+    public static Criteria criterioConAlerta() {
+        return Criteria.where("tieneAlerta").is(true);
+    }
+    
+    @Override
+    public Set<String> cerrarConciliados(List<Turno> turnos, LocalDateTime fechaCierre) {
+        if (turnos.isEmpty()) {
+            return Set.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Turno.class);
+        for (Turno turno : turnos) {
+            Query query = new Query(Criteria.where("_id").is(turno.getId())
+                    .and("estado").is(Turno.ESTADO_ABIERTO)
+                    .and("version").is(turno.getVersion()));
+            Update update = new Update()
+                    .set("estado", Turno.ESTADO_CERRADO)
+                    .set("fechaCierre", fechaCierre)
+                    .set("montoCalculado", new Decimal128(turno.getMontoCalculado()))
+                    .set("totalDepositos", new Decimal128(turno.getTotalDepositos()))
+                    .set("totalRetiros", new Decimal128(turno.getTotalRetiros()))
+                    .set("existencias", turno.getExistencias())
+                    .set("tieneAlerta", turno.getTieneAlerta())
+                    .set("observaciones", turno.getObservaciones())
+                    .inc("version", 1);
+            if (turno.getDeriva() != null) {
+                update.set("deriva", new Decimal128(turno.getDeriva()));
+            }
+            bulk.updateOne(query, update);
+        }
+        bulk.execute();
+        
+        // El resultado bulk solo trae conteos; los cerrados aquí son los que tienen esta fecha de cierre
+        Query cerrados = new Query(Criteria.where("_id").in(turnos.stream().map(Turno::getId).toList())
+                .and("estado").is(Turno.ESTADO_CERRADO)
+                .and("fechaCierre").is(fechaCierre));
+        cerrados.fields().include("_id");
+        Set<String> ids = new HashSet<>();
+        mongoTemplate.find(cerrados, Turno.class).forEach(turno -> ids.add(turno.getId()));
+        return ids;
+    }
+    
+    /**
+     * Turno abierto con al menos los billetes que las transacciones retiran en neto por denominación;
+     * el filtro y el $inc se evalúan juntos en el servidor, así las existencias nunca quedan negativas.
+     */
+    static Criteria criterioMovimiento(String turnoId, List<Transaccion> transacciones) {
+        Criteria criterio = Criteria.where("_id").is(turnoId).and("estado").is(Turno.ESTADO_ABIERTO);
+        VectorDenominaciones neto = new VectorDenominaciones();
+        for (Transaccion transaccion : transacciones) {
+            if (Transaccion.TIPO_DEPOSITO.equals(transaccion.getTipo())) {
+                neto.agregar(transaccion.getDenominaciones());
+            } else {
+                neto.restar(VectorDenominaciones.desde(transaccion.getDenominaciones()));
+            }
+        }
+        for (int i = 0; i < VectorDenominaciones.POSICIONES; i++) {
+            if (neto.cantidad(i) < 0) {
+                criterio.and("existencias." + VectorDenominaciones.denominacion(i)).gte(-neto.cantidad(i));
+            }
+        }
+        return criterio;
+    }
+    
+    static Update construirMovimiento(List<Transaccion> transacciones, int sentido) {
+        long depositos = 0;
+        long retiros = 0;
+        VectorDenominaciones billetes = new VectorDenominaciones();
+        VectorDenominaciones movimiento = new VectorDenominaciones();
+        
+        for (Transaccion transaccion : transacciones) {
+            movimiento.limpiar().agregar(transaccion.getDenominaciones());
+            if (Transaccion.TIPO_DEPOSITO.equals(transaccion.getTipo())) {
+                depositos += movimiento.total();
+                billetes.sumar(movimiento);
+            } else {
+                retiros += movimiento.total();
+                billetes.restar(movimiento);
+            }
+        }
+        if (sentido < 0) {
+            depositos = -depositos;
+            retiros = -retiros;
+            billetes.negar();
+        }
+        
+        Update update = new Update().inc("montoCalculado", decimal(depositos - retiros));
+        if (depositos != 0) {
+            update.inc("totalDepositos", decimal(depositos));
+        }
+        if (retiros != 0) {
+            update.inc("totalRetiros", decimal(retiros));
+        }
+        billetes.aMapa().forEach((denominacion, cantidad) -> update.inc("existencias." + denominacion, cantidad));
+        return update.inc("version", 1);
+    }
+    
+    private static BigDecimal aBigDecimal(Object valor) {
+        if (valor instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        if (valor instanceof Number numero) {
+            return new BigDecimal(numero.toString());
+        }
+        return BigDecimal.ZERO;
+    }
+    
+    private static Decimal128 decimal(long valor) {
+        return new Decimal128(BigDecimal.valueOf(valor));
+    }
+}
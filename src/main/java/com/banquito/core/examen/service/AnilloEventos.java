@@ -0,0 +1,88 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.enums.PoliticaDesborde;
+import com.banquito.core.examen.model.EventoSupervision;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer circular de capacidad fija entre el despachador del feed y un suscriptor.
+ * Al llenarse aplica la política del suscriptor en lugar de bloquear al despachador.
+ */
+final class AnilloEventos {
+    
+    enum Resultado {
+        AGREGADO,
+        // Se agregó descartando el más antiguo, o se descartó el nuevo
+        DESCARTADO,
+        // Lleno con política DESCONECTAR: no se agregó
+        LLENO
+    }
+    
+    private final EventoSupervision[] eventos;
+    private final PoliticaDesborde politica;
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    private final Condition hayEventos = cerrojo.newCondition();
+    private int inicio;
+    private int cantidad;
+    
+    AnilloEventos(int capacidad, PoliticaDesborde politica) {
+        if (capacidad <= 0) {
+            throw new IllegalArgumentException("La capacidad debe ser positiva");
+        }
+        this.eventos = new EventoSupervision[capacidad];
+        this.politica = politica;
+    }
+    
+    Resultado ofrecer(EventoSupervision evento) {
+        cerrojo.lock();
+        try {
+            Resultado resultado = Resultado.AGREGADO;
+            if (cantidad == eventos.length) {
+                switch (politica) {
+                    case DESCONECTAR:
+                        return Resultado.LLENO;
+                    case DESCARTAR_NUEVOS:
+                        return Resultado.DESCARTADO;
+                    case DESCARTAR_ANTIGUOS:
+                        eventos[inicio] = null;
+                        inicio = (inicio + 1) % eventos.length;
+                        cantidad--;
+                        resultado = Resultado.DESCARTADO;
+                        break;
+                }
+            }
+            eventos[(inicio + cantidad) % eventos.length] = evento;
+            cantidad++;
+            hayEventos.signal();
+            return resultado;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+    
+    /**
+     * Saca el evento más antiguo, esperando hasta {@code espera}; devuelve null si no llegó ninguno.
+     */
+    EventoSupervision tomar(Duration espera) throws InterruptedException {
+        cerrojo.lock();
+        try {
+            long nanos = espera.toNanos();
+            while (cantidad == 0) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = hayEventos.awaitNanos(nanos);
+            }
+            EventoSupervision evento = eventos[inicio];
+            eventos[inicio] = null;
+            inicio = (inicio + 1) % eventos.length;
+            cantidad--;
+            return evento;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.exception.NotFoundException;
+import com.banquito.core.examen.exception.TurnoException;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.repository.TransaccionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aplica en Mongo, por lotes y en orden, las transacciones confirmadas en {@link DiarioTransacciones}.
+ *
+ * <p>En la operación normal inserta el lote y suma al saldo de cada turno solo las transacciones que
+ * se insertaron. Al reaplicar (entradas recuperadas al arrancar o un lote que falló a medias) no se
+ * sabe qué incrementos llegaron a Mongo, así que tras insertar se recalcula el saldo de los turnos
+ * afectados a partir de sus transacciones. La posición aplicada solo avanza cuando el lote terminó.
+ */
+@Component
+@ConditionalOnProperty(name = "banquito.diario.habilitado", havingValue = "true")
+@Slf4j
+public class AplicadorDiario {
+    
+    private static final Duration ESPERA_LECTURA = Duration.ofMillis(500);
+    private static final Duration REINTENTO_MAXIMO = Duration.ofSeconds(30);
+    
+    private final DiarioTransacciones diario;
+    private final TransaccionRepository transaccionRepository;
+    private final TurnoService turnoService;
+    private final ResumenHorarioService resumenesHorarios;
+    private final int tamanioLote;
+    
+    private volatile boolean activo;
+    private Thread hilo;
+    
+    public AplicadorDiario(DiarioTransacciones diario, TransaccionRepository transaccionRepository,
+                           @Lazy TurnoService turnoService, ResumenHorarioService resumenesHorarios,
+                           @Value("${banquito.diario.lote:500}") int tamanioLote) {
+        this.diario = diario;
+        this.transaccionRepository = transaccionRepository;
+        this.turnoService = turnoService;
+        this.resumenesHorarios = resumenesHorarios;
+        this.tamanioLote = tamanioLote;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        activo = true;
+        hilo = Thread.ofPlatform().name("diario-aplicador").daemon().start(this::ejecutar);
+    }
+    
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        if (hilo != null) {
+            hilo.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+    
+    private void ejecutar() {
+        boolean reaplicar = false;
+        Duration espera = Duration.ofMillis(100);
+        while (activo && diario.estaAbierto()) {
+            try {
+                DiarioTransacciones.LoteDiario lote = diario.leerPendientes(tamanioLote, ESPERA_LECTURA);
+                if (!lote.avanza()) {
+                    continue;
+                }
+                aplicar(lote.getTransacciones(), reaplicar || lote.getDesde() < diario.getPosicionRecuperada());
+                diario.confirmarAplicado(lote.getHasta());
+                reaplicar = false;
+                espera = Duration.ofMillis(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // El lote se repite completo; las inserciones ya hechas se ignoran y el saldo se recalcula
+                log.error("No se pudo aplicar el diario de transacciones, reintento en {}: {}", espera, e.getMessage());
+                reaplicar = true;
+                if (!dormir(espera)) {
+                    return;
+                }
+                espera = espera.multipliedBy(2);
+                if (espera.compareTo(REINTENTO_MAXIMO) > 0) {
+                    espera = REINTENTO_MAXIMO;
+                }
+            }
+        }
+    }
+    
+    private void aplicar(List<Transaccion> transacciones, boolean reaplicar) {
+        if (transacciones.isEmpty()) {
+            return;
+        }
+        List<Transaccion> nuevas = transaccionRepository.insertarNuevas(transacciones);
+        // Solo las recién insertadas: reaplicar una entrada no vuelve a sumarla al resumen
+        resumenesHorarios.registrar(nuevas);
+        
+        if (reaplicar) {
+            Set<String> turnoIds = new LinkedHashSet<>();
+            transacciones.forEach(transaccion -> turnoIds.add(transaccion.getTurnoId()));
+            log.warn("Reaplicando {} transacciones del diario ({} nuevas), recalculando {} turnos",
+                    transacciones.size(), nuevas.size(), turnoIds.size());
+            turnoIds.forEach(this::recalcular);
+            return;
+        }
+        
+        Map<String, List<Transaccion>> porTurno = new LinkedHashMap<>();
+        for (Transaccion transaccion : nuevas) {
+            porTurno.computeIfAbsent(transaccion.getTurnoId(), id -> new ArrayList<>()).add(transaccion);
+        }
+        porTurno.forEach((turnoId, movimientos) -> {
+            try {
+                turnoService.registrarMovimientosConfirmados(turnoId, movimientos);
+            } catch (TurnoException e) {
+                // Las transacciones quedan guardadas; el turno se cerró antes de aplicarlas
+                log.error("Turno {} cerrado antes de aplicar {} transacciones del diario; quedan guardadas sin afectar el saldo",
+                        turnoId, movimientos.size());
+            }
+        });
+        log.debug("Aplicadas {} transacciones del diario", nuevas.size());
+    }
+    
+    private void recalcular(String turnoId) {
+        try {
+            turnoService.recalcularSaldoAlReaplicar(turnoId);
+        } catch (TurnoException | NotFoundException e) {
+            log.error("No se recalculó el saldo del turno {} al reaplicar el diario: {}", turnoId, e.getMessage());
+        }
+    }
+    
+    private boolean dormir(Duration espera) {
+        try {
+            Thread.sleep(espera);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
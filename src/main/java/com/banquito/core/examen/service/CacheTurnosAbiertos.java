@@ -0,0 +1,73 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.model.Turno;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Copias en memoria de los turnos abiertos, por ID de turno y por ID de cajero,
+ * para que el procesamiento de transacciones no consulte Mongo en cada llamada.
+ * Solo sirve para validar y copiar datos del turno: el estado definitivo lo
+ * garantiza la actualización atómica del saldo, que exige el turno ABIERTO.
+ */
+@Component
+public class CacheTurnosAbiertos {
+    
+    private final Cache<String, Turno> porId;
+    private final Cache<String, String> turnoIdPorCajero;
+    
+    public CacheTurnosAbiertos(@Value("${banquito.cache.turnos-abiertos.maximo:5000}") long maximo,
+                               @Value("${banquito.cache.turnos-abiertos.expiracion:PT12H}") Duration expiracion,
+                               MeterRegistry meterRegistry) {
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(expiracion)
+                .recordStats()
+                .build();
+        this.turnoIdPorCajero = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(expiracion)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "turnosAbiertos");
+        CaffeineCacheMetrics.monitor(meterRegistry, turnoIdPorCajero, "turnosAbiertosPorCajero");
+    }
+    
+    public Optional<Turno> porId(String turnoId) {
+        return Optional.ofNullable(porId.getIfPresent(turnoId));
+    }
+    
+    public Optional<Turno> porCajero(String cajeroId) {
+        String turnoId = turnoIdPorCajero.getIfPresent(cajeroId);
+        return turnoId == null ? Optional.empty() : porId(turnoId);
+    }
+    
+    public void registrar(Turno turno) {
+        if (!Turno.ESTADO_ABIERTO.equals(turno.getEstado())) return;
+        porId.put(turno.getId(), turno);
+        turnoIdPorCajero.put(turno.getCajeroId(), turno.getId());
+    }
+    
+    public void desalojar(Turno turno) {
+        porId.invalidate(turno.getId());
+        turnoIdPorCajero.asMap().remove(turno.getCajeroId(), turno.getId());
+    }
+    
+    public void desalojar(String turnoId) {
+        Turno turno = porId.getIfPresent(turnoId);
+        if (turno != null) {
+            desalojar(turno);
+        }
+    }
+    
+    public long tamanio() {
+        return porId.estimatedSize();
+    }
+}
@@ -1,9 +1,20 @@
 package com.banquito.core.examen.service;
 
+import com.banquito.core.examen.config.CacheConfig;
 import com.banquito.core.examen.exception.NotFoundException;
 import com.banquito.core.examen.model.Cajero;
 import com.banquito.core.examen.repository.CajeroRepository;
+import com.banquito.core.examen.repository.ResumenCajero;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -11,15 +22,39 @@ import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 @Service
 @Slf4j
 public class CajeroService {
     
     private final CajeroRepository cajeroRepository;
+    private final CacheManager cacheManager;
+    private final boolean precargaHabilitada;
     
-    public CajeroService(CajeroRepository cajeroRepository) {
+    public CajeroService(CajeroRepository cajeroRepository, CacheManager cacheManager,
+                         @Value("${banquito.cache.cajeros.precarga:true}") boolean precargaHabilitada) {
         this.cajeroRepository = cajeroRepository;
+        this.cacheManager = cacheManager;
+        this.precargaHabilitada = precargaHabilitada;
+    }
+    
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void precargarCache() {
+        if (!precargaHabilitada) return;
+        try {
+            List<Cajero> activos = cajeroRepository.findByActivoTrue();
+            Cache porId = cacheManager.getCache(CacheConfig.CAJEROS);
+            Cache activosPorCodigo = cacheManager.getCache(CacheConfig.CAJEROS_ACTIVOS);
+            for (Cajero cajero : activos) {
+                porId.put(cajero.getId(), cajero);
+                activosPorCodigo.put(cajero.getCodigo(), cajero);
+            }
+            log.info("Caché de cajeros precargada con {} cajeros activos", activos.size());
+        } catch (RuntimeException e) {
+            log.warn("No se pudo precargar la caché de cajeros: {}", e.getMessage());
+        }
     }
     
     public List<Cajero> findAll() {
@@ -27,6 +62,7 @@ public class CajeroService {
         return cajeroRepository.findAll();
     }
     
+    @Cacheable(cacheNames = CacheConfig.CAJEROS, key = "#id", sync = true)
     public Cajero findById(String id) {
         log.info("Buscando cajero por ID: {}", id);
         Optional<Cajero> cajero = cajeroRepository.findById(id);
@@ -45,6 +81,7 @@ public class CajeroService {
         throw new NotFoundException(codigo, "Cajero");
     }
     
+    @Cacheable(cacheNames = CacheConfig.CAJEROS_ACTIVOS, key = "#codigo", sync = true)
     public Cajero findByCodigoActivo(String codigo) {
         log.info("Buscando cajero activo por código: {}", codigo);
         Optional<Cajero> cajero = cajeroRepository.findByCodigoAndActivoTrue(codigo);
@@ -64,6 +101,7 @@ public class CajeroService {
         return cajeroRepository.findByActivoTrue();
     }
     
+    @CacheEvict(cacheNames = CacheConfig.CAJEROS_ACTIVOS, key = "#cajero.codigo")
     public Cajero create(Cajero cajero) {
         log.info("Creando nuevo cajero: {}", cajero.getCodigo());
         cajero.setFechaCreacion(LocalDateTime.now());
@@ -71,6 +109,11 @@ public class CajeroService {
         return cajeroRepository.save(cajero);
     }
     
+    // El código pudo haber cambiado, por eso se vacía toda la caché por código
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CAJEROS, key = "#cajero.id"),
+            @CacheEvict(cacheNames = CacheConfig.CAJEROS_ACTIVOS, allEntries = true)
+    })
     public Cajero update(Cajero cajero) {
         log.info("Actualizando cajero: {}", cajero.getId());
         if (cajeroRepository.existsById(cajero.getId())) {
@@ -80,6 +123,10 @@ public class CajeroService {
         throw new NotFoundException(cajero.getId(), "Cajero");
     }
     
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CAJEROS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CAJEROS_ACTIVOS, allEntries = true)
+    })
     public void delete(String id) {
         log.info("Eliminando cajero: {}", id);
         if (cajeroRepository.existsById(id)) {
@@ -89,18 +136,33 @@ public class CajeroService {
         }
     }
 
-    public Page<Cajero> findAll(Pageable pageable) {
+    public Page<ResumenCajero> findAll(Pageable pageable) {
         log.info("Buscando todos los cajeros paginados: {}", pageable);
-        return cajeroRepository.findAll(pageable);
+        return cajeroRepository.findResumenBy(pageable);
     }
     
-    public Page<Cajero> findByAgencia(String agencia, Pageable pageable) {
+    public Page<ResumenCajero> findByAgencia(String agencia, Pageable pageable) {
         log.info("Buscando cajeros por agencia '{}' paginados: {}", agencia, pageable);
-        return cajeroRepository.findByAgencia(agencia, pageable);
+        return cajeroRepository.findResumenByAgencia(agencia, pageable);
     }
     
-    public Page<Cajero> findActivos(Pageable pageable) {
+    public Page<ResumenCajero> findActivos(Pageable pageable) {
         log.info("Buscando cajeros activos paginados: {}", pageable);
-        return cajeroRepository.findByActivoTrue(pageable);
+        return cajeroRepository.findResumenByActivoTrue(pageable);
+    }
+    
+    public Slice<ResumenCajero> findAllSinConteo(Pageable pageable) {
+        log.info("Buscando todos los cajeros sin conteo: {}", pageable);
+        return cajeroRepository.findResumenSliceBy(pageable);
+    }
+    
+    public Slice<ResumenCajero> findByAgenciaSinConteo(String agencia, Pageable pageable) {
+        log.info("Buscando cajeros por agencia '{}' sin conteo: {}", agencia, pageable);
+        return cajeroRepository.findResumenSliceByAgencia(agencia, pageable);
+    }
+    
+    public Slice<ResumenCajero> findActivosSinConteo(Pageable pageable) {
+        log.info("Buscando cajeros activos sin conteo: {}", pageable);
+        return cajeroRepository.findResumenSliceByActivoTrue(pageable);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,58 @@
+package com.banquito.core.examen.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Cerrojos por franjas para serializar, dentro de esta instancia, las operaciones sobre un mismo
+ * cajero (apertura de turno) o un mismo turno (lo que aplica {@link SecuenciadorTurnos}) sin un cerrojo global:
+ * cada clave cae en una de un número fijo de franjas, de modo que claves distintas casi nunca esperan.
+ * Entre instancias el orden lo garantizan el índice único de turnos abiertos y la versión del turno.
+ */
+@Component
+public class CerrojosTurnos {
+    
+    private final ReentrantLock[] cajeros;
+    private final ReentrantLock[] turnos;
+    private final int mascara;
+    
+    public CerrojosTurnos(@Value("${banquito.cerrojos.franjas:256}") int franjas) {
+        int tamanio = Integer.highestOneBit(Math.max(1, franjas - 1)) << 1;
+        this.cajeros = crear(tamanio);
+        this.turnos = crear(tamanio);
+        this.mascara = tamanio - 1;
+    }
+    
+    public <T> T conCajero(String cajeroId, Supplier<T> accion) {
+        return ejecutar(cajeros[franja(cajeroId)], accion);
+    }
+    
+    public <T> T conTurno(String turnoId, Supplier<T> accion) {
+        return ejecutar(turnos[franja(turnoId)], accion);
+    }
+    
+    private int franja(String clave) {
+        int hash = clave.hashCode();
+        return (hash ^ (hash >>> 16)) & mascara;
+    }
+    
+    private static <T> T ejecutar(ReentrantLock cerrojo, Supplier<T> accion) {
+        cerrojo.lock();
+        try {
+            return accion.get();
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+    
+    private static ReentrantLock[] crear(int tamanio) {
+        ReentrantLock[] cerrojos = new ReentrantLock[tamanio];
+        for (int i = 0; i < cerrojos.length; i++) {
+            cerrojos[i] = new ReentrantLock();
+        }
+        return cerrojos;
+    }
+}
@@ -0,0 +1,106 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.exception.TurnoException;
+import com.banquito.core.examen.model.ResumenCierreAgencia;
+import com.banquito.core.examen.model.ResumenCierreDiario;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Cierre y conciliación de fin de día de todos los turnos abiertos. Las agencias se procesan en paralelo
+ * y la conciliación de sus turnos comparte un pool acotado de hilos virtuales, de modo que la carga
+ * sobre Mongo no crece con el número de agencias.
+ */
+@Service
+@Slf4j
+public class CierreDiarioService {
+    
+    private static final String OPERACION = "Cierre de fin de día";
+    
+    private final TurnoService turnoService;
+    private final int paralelismo;
+    private final AtomicBoolean enEjecucion = new AtomicBoolean();
+    
+    public CierreDiarioService(TurnoService turnoService,
+                               @Value("${banquito.cierre-diario.paralelismo:16}") int paralelismo) {
+        this.turnoService = turnoService;
+        this.paralelismo = paralelismo;
+    }
+    
+    @Scheduled(cron = "${banquito.cierre-diario.cron:-}")
+    public void cierreProgramado() {
+        try {
+            cerrarDia();
+        } catch (RuntimeException e) {
+            log.error("Falló el cierre de fin de día programado: {}", e.getMessage());
+        }
+    }
+    
+    public ResumenCierreDiario cerrarDia() {
+        if (!enEjecucion.compareAndSet(false, true)) {
+            throw new TurnoException(OPERACION, "Ya hay un cierre de fin de día en ejecución");
+        }
+        try {
+            return ejecutar();
+        } finally {
+            enEjecucion.set(false);
+        }
+    }
+    
+    private ResumenCierreDiario ejecutar() {
+        LocalDateTime inicio = LocalDateTime.now();
+        // Mongo guarda milisegundos; la fecha de cierre identifica después los turnos cerrados por este proceso
+        LocalDateTime fechaCierre = inicio.truncatedTo(ChronoUnit.MILLIS);
+        
+        // Con el diario activo, las transacciones confirmadas deben estar en Mongo antes de conciliar; cada turno
+        // vuelve a esperar en su cola por las que el diario confirme mientras tanto
+        turnoService.esperarDiario(OPERACION);
+        List<String> agencias = turnoService.findAgenciasConTurnosAbiertos();
+        log.info("Iniciando cierre de fin de día: {} agencias con turnos abiertos", agencias.size());
+        
+        ResumenCierreDiario resumen = new ResumenCierreDiario(inicio);
+        try (ExecutorService turnos = Executors.newFixedThreadPool(paralelismo, Thread.ofVirtual().name("cierre-diario-", 0).factory());
+             ExecutorService porAgencia = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<String, Future<ResumenCierreAgencia>> pendientes = new LinkedHashMap<>();
+            for (String agencia : agencias) {
+                pendientes.put(agencia, porAgencia.submit(() -> turnoService.cerrarAgenciaFinDeDia(agencia, fechaCierre, turnos)));
+            }
+            for (Map.Entry<String, Future<ResumenCierreAgencia>> pendiente : pendientes.entrySet()) {
+                resumen.agregar(esperar(pendiente.getKey(), pendiente.getValue()));
+            }
+        }
+        
+        resumen.setFin(LocalDateTime.now());
+        log.info("Cierre de fin de día terminado: {} turnos cerrados, {} omitidos, {} con diferencia (total {})",
+                resumen.getTurnosCerrados(), resumen.getTurnosOmitidos(), resumen.getTurnosConDiferencia(),
+                resumen.getDiferenciaTotal());
+        return resumen;
+    }
+    
+    private ResumenCierreAgencia esperar(String agencia, Future<ResumenCierreAgencia> pendiente) {
+        try {
+            return pendiente.get();
+        } catch (ExecutionException e) {
+            log.error("No se pudo cerrar la agencia {}: {}", agencia, e.getCause().getMessage());
+            ResumenCierreAgencia fallida = new ResumenCierreAgencia(agencia);
+            fallida.setError(e.getCause().getMessage());
+            return fallida;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TurnoException(OPERACION, "Interrumpido esperando la agencia " + agencia);
+        }
+    }
+}
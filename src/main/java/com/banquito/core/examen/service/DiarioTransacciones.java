@@ -0,0 +1,459 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.model.Transaccion;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Diario local (write-ahead) de transacciones sobre archivos mapeados en memoria.
+ *
+ * <p>Cada entrada es {@code [longitud][crc32][transacción en JSON]} y se escribe en segmentos de tamaño fijo.
+ * {@link #registrar} vuelve solo cuando la entrada quedó sincronizada en disco: un hilo sincroniza de una
+ * vez todo lo escrito mientras tanto, así que varias transacciones comparten cada {@code force()}.
+ * El aplicador lee las entradas sincronizadas y confirma hasta dónde las guardó en Mongo; al arrancar
+ * se recorre el diario desde esa posición para recuperar lo que quedó sin aplicar.
+ */
+@Component
+@ConditionalOnProperty(name = "banquito.diario.habilitado", havingValue = "true")
+@Slf4j
+public class DiarioTransacciones {
+    
+    private static final int ENCABEZADO = 8;
+    private static final String PREFIJO = "diario-";
+    private static final String EXTENSION = ".log";
+    private static final String ARCHIVO_APLICADO = "aplicado.pos";
+    
+    private final Path directorio;
+    private final int tamanioSegmento;
+    private final ObjectMapper objectMapper;
+    
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pendientes = lock.newCondition();
+    private final Condition sincronizadas = lock.newCondition();
+    private final Condition aplicadas = lock.newCondition();
+    
+    private MappedByteBuffer segmentoActual;
+    private long indiceActual;
+    private long posicionEscrita;
+    private long posicionSincronizada;
+    private long posicionAplicada;
+    @Getter
+    private long posicionRecuperada;
+    private boolean abierto;
+    private IOException fallo;
+    private Thread sincronizador;
+    
+    // Solo los usa el hilo del aplicador
+    private ByteBuffer segmentoLectura;
+    private long indiceLectura = -1;
+    
+    public DiarioTransacciones(@Value("${banquito.diario.directorio:diario}") Path directorio,
+                               @Value("${banquito.diario.tamanio-segmento:64MB}") DataSize tamanioSegmento,
+                               ObjectMapper objectMapper) {
+        this.directorio = directorio;
+        this.tamanioSegmento = Math.toIntExact(tamanioSegmento.toBytes());
+        // Campos calculados (valorTotal) o de versiones anteriores no deben impedir reaplicar una entrada
+        this.objectMapper = objectMapper.copy().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+    
+    @PostConstruct
+    public void abrir() throws IOException {
+        Files.createDirectories(directorio);
+        posicionAplicada = leerPosicionAplicada();
+        long ultimoIndice = ultimoIndice();
+        posicionRecuperada = finDeEntradas(posicionAplicada, ultimoIndice);
+        
+        // Se escribe en un segmento nuevo para no continuar detrás de una entrada incompleta
+        abrirSegmento(Math.max(ultimoIndice + 1, Math.ceilDiv(posicionAplicada, tamanioSegmento)));
+        posicionEscrita = indiceActual * tamanioSegmento;
+        posicionSincronizada = posicionEscrita;
+        abierto = true;
+        
+        sincronizador = Thread.ofPlatform().name("diario-sincronizador").daemon().start(this::sincronizar);
+        if (posicionRecuperada > posicionAplicada) {
+            log.warn("Diario de transacciones con entradas sin aplicar desde la posición {} hasta {}", 
+                    posicionAplicada, posicionRecuperada);
+        }
+        log.info("Diario de transacciones abierto en {} (segmento {})", directorio.toAbsolutePath(), indiceActual);
+    }
+    
+    @PreDestroy
+    public void cerrar() throws InterruptedException {
+        lock.lock();
+        try {
+            abierto = false;
+            pendientes.signalAll();
+            sincronizadas.signalAll();
+            aplicadas.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (sincronizador != null) {
+            sincronizador.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+    
+    /**
+     * Agrega la transacción al diario y espera a que quede sincronizada en disco.
+     */
+    public void registrar(Transaccion transaccion) throws IOException {
+        registrarTodas(List.of(transaccion));
+    }
+    
+    /**
+     * Agrega las transacciones en orden y espera una sola vez a que todas queden sincronizadas en disco.
+     */
+    public void registrarTodas(List<Transaccion> transacciones) throws IOException {
+        List<byte[]> entradas = new ArrayList<>(transacciones.size());
+        int[] crcs = new int[transacciones.size()];
+        for (Transaccion transaccion : transacciones) {
+            byte[] datos = objectMapper.writeValueAsBytes(transaccion);
+            if (ENCABEZADO + datos.length > tamanioSegmento) {
+                throw new IOException("La transacción no cabe en un segmento del diario: " + (ENCABEZADO + datos.length) + " bytes");
+            }
+            CRC32 crc = new CRC32();
+            crc.update(datos);
+            crcs[entradas.size()] = (int) crc.getValue();
+            entradas.add(datos);
+        }
+        
+        lock.lock();
+        try {
+            verificarAbierto();
+            for (int i = 0; i < entradas.size(); i++) {
+                escribir(entradas.get(i), crcs[i]);
+            }
+            long fin = posicionEscrita;
+            pendientes.signal();
+            
+            while (posicionSincronizada < fin) {
+                verificarAbierto();
+                sincronizadas.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrumpido esperando la sincronización del diario", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Espera hasta {@code espera} a que haya entradas sincronizadas sin aplicar y devuelve como máximo
+     * {@code maximo} de ellas. El lote puede venir vacío pero avanzar la posición (saltos de segmento).
+     */
+    public LoteDiario leerPendientes(int maximo, Duration espera) throws IOException, InterruptedException {
+        long desde;
+        long hasta;
+        lock.lock();
+        try {
+            long restante = espera.toNanos();
+            while (abierto && posicionAplicada >= posicionSincronizada) {
+                if (restante <= 0) {
+                    return new LoteDiario(List.of(), posicionAplicada, posicionAplicada);
+                }
+                restante = sincronizadas.awaitNanos(restante);
+            }
+            desde = posicionAplicada;
+            hasta = posicionSincronizada;
+        } finally {
+            lock.unlock();
+        }
+        return leer(desde, hasta, maximo);
+    }
+    
+    /**
+     * Registra que todo lo anterior a {@code posicion} ya está en Mongo y borra los segmentos aplicados.
+     */
+    public void confirmarAplicado(long posicion) throws IOException {
+        escribirPosicionAplicada(posicion);
+        long indiceVigente;
+        lock.lock();
+        try {
+            posicionAplicada = posicion;
+            indiceVigente = indiceActual;
+            aplicadas.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        long indiceAplicado = Math.min(posicion / tamanioSegmento, indiceVigente);
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            for (Path archivo : archivos.toList()) {
+                long indice = indice(archivo);
+                if (indice >= 0 && indice < indiceAplicado) {
+                    Files.deleteIfExists(archivo);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Espera a que se apliquen en Mongo todas las transacciones registradas hasta este momento.
+     */
+    public boolean esperarAplicacion(Duration espera) throws InterruptedException {
+        lock.lock();
+        try {
+            long objetivo = posicionEscrita;
+            long restante = espera.toNanos();
+            while (posicionAplicada < objetivo) {
+                if (restante <= 0 || !abierto) {
+                    return false;
+                }
+                restante = aplicadas.awaitNanos(restante);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    public boolean estaAbierto() {
+        lock.lock();
+        try {
+            return abierto;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void sincronizar() {
+        while (true) {
+            MappedByteBuffer segmento;
+            long objetivo;
+            lock.lock();
+            try {
+                while (abierto && posicionEscrita == posicionSincronizada) {
+                    pendientes.awaitUninterruptibly();
+                }
+                if (posicionEscrita == posicionSincronizada) {
+                    return;
+                }
+                segmento = segmentoActual;
+                objetivo = posicionEscrita;
+            } finally {
+                lock.unlock();
+            }
+            
+            // Todo lo escrito hasta aquí se sincroniza con un solo force(); mientras tanto se sigue escribiendo
+            RuntimeException error = null;
+            try {
+                segmento.force();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+            
+            lock.lock();
+            try {
+                if (error != null) {
+                    log.error("No se pudo sincronizar el diario de transacciones", error);
+                    fallo = new IOException("No se pudo sincronizar el diario", error);
+                    abierto = false;
+                    aplicadas.signalAll();
+                } else {
+                    posicionSincronizada = Math.max(posicionSincronizada, objetivo);
+                }
+                sincronizadas.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null) {
+                return;
+            }
+        }
+    }
+    
+    private void escribir(byte[] datos, int crc) throws IOException {
+        int tamanio = ENCABEZADO + datos.length;
+        if (segmentoActual.remaining() < tamanio) {
+            rotar();
+        }
+        int inicio = segmentoActual.position();
+        segmentoActual.putInt(inicio + 4, crc);
+        segmentoActual.put(inicio + ENCABEZADO, datos);
+        // La longitud va al final: una entrada a medio escribir se lee como fin del segmento
+        segmentoActual.putInt(inicio, datos.length);
+        segmentoActual.position(inicio + tamanio);
+        posicionEscrita = indiceActual * tamanioSegmento + segmentoActual.position();
+    }
+    
+    private void rotar() throws IOException {
+        segmentoActual.force();
+        posicionSincronizada = Math.max(posicionSincronizada, posicionEscrita);
+        sincronizadas.signalAll();
+        abrirSegmento(indiceActual + 1);
+        posicionEscrita = indiceActual * tamanioSegmento;
+        posicionSincronizada = posicionEscrita;
+    }
+    
+    private void abrirSegmento(long indice) throws IOException {
+        try (FileChannel canal = FileChannel.open(ruta(indice),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            segmentoActual = canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanioSegmento);
+        }
+        indiceActual = indice;
+        sincronizarDirectorio();
+    }
+    
+    private LoteDiario leer(long desde, long hasta, int maximo) throws IOException {
+        List<Transaccion> transacciones = new ArrayList<>();
+        long posicion = desde;
+        while (posicion < hasta && transacciones.size() < maximo) {
+            long indice = posicion / tamanioSegmento;
+            byte[] datos = entrada(indice, (int) (posicion % tamanioSegmento));
+            if (datos == null) {
+                posicion = (indice + 1) * tamanioSegmento;
+                continue;
+            }
+            transacciones.add(objectMapper.readValue(datos, Transaccion.class));
+            posicion += ENCABEZADO + datos.length;
+        }
+        return new LoteDiario(transacciones, desde, Math.min(posicion, hasta));
+    }
+    
+    private long finDeEntradas(long desde, long ultimoIndice) throws IOException {
+        long posicion = desde;
+        while (posicion / tamanioSegmento <= ultimoIndice) {
+            long indice = posicion / tamanioSegmento;
+            byte[] datos = entrada(indice, (int) (posicion % tamanioSegmento));
+            if (datos == null) {
+                if (indice == ultimoIndice) {
+                    break;
+                }
+                posicion = (indice + 1) * tamanioSegmento;
+                continue;
+            }
+            posicion += ENCABEZADO + datos.length;
+        }
+        return posicion;
+    }
+    
+    // Devuelve null al final del segmento o ante una entrada incompleta o corrupta
+    private byte[] entrada(long indice, int desplazamiento) throws IOException {
+        ByteBuffer segmento = segmentoLectura(indice);
+        if (segmento == null || desplazamiento + ENCABEZADO > segmento.capacity()) {
+            return null;
+        }
+        int longitud = segmento.getInt(desplazamiento);
+        if (longitud <= 0 || desplazamiento + ENCABEZADO + longitud > segmento.capacity()) {
+            return null;
+        }
+        byte[] datos = new byte[longitud];
+        segmento.get(desplazamiento + ENCABEZADO, datos);
+        CRC32 crc = new CRC32();
+        crc.update(datos);
+        return (int) crc.getValue() == segmento.getInt(desplazamiento + 4) ? datos : null;
+    }
+    
+    private ByteBuffer segmentoLectura(long indice) throws IOException {
+        if (indice != indiceLectura) {
+            Path archivo = ruta(indice);
+            segmentoLectura = null;
+            if (Files.exists(archivo)) {
+                try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+                    segmentoLectura = canal.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(canal.size(), tamanioSegmento));
+                }
+            }
+            indiceLectura = indice;
+        }
+        return segmentoLectura;
+    }
+    
+    private long leerPosicionAplicada() throws IOException {
+        Path archivo = directorio.resolve(ARCHIVO_APLICADO);
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(archivo));
+        return buffer.remaining() >= Long.BYTES ? buffer.getLong() : 0;
+    }
+    
+    private void escribirPosicionAplicada(long posicion) throws IOException {
+        try (FileChannel canal = FileChannel.open(directorio.resolve(ARCHIVO_APLICADO),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(Long.BYTES).putLong(0, posicion), 0);
+            canal.force(false);
+        }
+    }
+    
+    private long ultimoIndice() throws IOException {
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            return archivos.mapToLong(DiarioTransacciones::indice).max().orElse(-1);
+        }
+    }
+    
+    private void sincronizarDirectorio() {
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // No todos los sistemas de archivos permiten sincronizar un directorio
+            log.debug("No se pudo sincronizar el directorio del diario: {}", e.getMessage());
+        }
+    }
+    
+    private void verificarAbierto() throws IOException {
+        if (fallo != null) {
+            throw fallo;
+        }
+        if (!abierto) {
+            throw new IOException("El diario de transacciones está cerrado");
+        }
+    }
+    
+    private Path ruta(long indice) {
+        return directorio.resolve(String.format("%s%016d%s", PREFIJO, indice, EXTENSION));
+    }
+    
+    private static long indice(Path archivo) {
+        String nombre = archivo.getFileName().toString();
+        if (!nombre.startsWith(PREFIJO) || !nombre.endsWith(EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(nombre.substring(PREFIJO.length(), nombre.length() - EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+    
+    @Getter
+    public static class LoteDiario {
+        
+        private final List<Transaccion> transacciones;
+        private final long desde;
+        private final long hasta;
+        
+        LoteDiario(List<Transaccion> transacciones, long desde, long hasta) {
+            this.transacciones = transacciones;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+        
+        public boolean avanza() {
+            return hasta > desde;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.enums.FormatoExportacion;
+import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.repository.TransaccionRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Exporta transacciones para el mayor del core bancario leyendo un cursor de Mongo y escribiendo
+ * cada fila en un buffer de tamaño fijo, de modo que la memoria no crece con la cantidad de filas.
+ */
+@Service
+@Slf4j
+public class ExportacionTransaccionesService {
+    
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    private static final String ENCABEZADO_CSV = "codigoTransaccion,fechaTransaccion,agencia,codigoCaja,codigoCajero,"
+            + "turnoId,tipo,monto,clienteId,numeroCuenta,denominaciones";
+    
+    private final TransaccionRepository transaccionRepository;
+    private final ObjectMapper objectMapper;
+    
+    public ExportacionTransaccionesService(TransaccionRepository transaccionRepository, ObjectMapper objectMapper) {
+        this.transaccionRepository = transaccionRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    public void validarFiltro(LocalDateTime desde, LocalDateTime hasta, String tipo) {
+        if (!desde.isBefore(hasta)) {
+            throw new TransaccionException("Exportar transacciones", "La fecha inicial debe ser anterior a la final");
+        }
+        if (tipo != null && !Transaccion.esValidoTipo(tipo)) {
+            throw new TransaccionException("Exportar transacciones", "Tipo de transacción inválido");
+        }
+    }
+    
+    /**
+     * Transacciones del rango sin agencia: las que la migración no pudo completar porque su turno no existe
+     * o no la tiene. Un filtro por agencia no las incluye.
+     */
+    public long contarSinAgencia(LocalDateTime desde, LocalDateTime hasta) {
+        return transaccionRepository.countByAgenciaIsNullAndFechaTransaccionGreaterThanEqualAndFechaTransaccionLessThan(
+                desde, hasta);
+    }
+    
+    public long exportar(LocalDateTime desde, LocalDateTime hasta, String agencia, String tipo,
+                         FormatoExportacion formato, OutputStream salida) throws IOException {
+        validarFiltro(desde, hasta, tipo);
+        log.info("Exportando transacciones {} desde {} hasta {} (agencia: {}, tipo: {})", 
+                formato, desde, hasta, agencia, tipo);
+        
+        long filas = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANIO_BUFFER);
+        try (Stream<Transaccion> transacciones = transaccionRepository.streamPorFecha(desde, hasta, agencia, tipo)) {
+            Iterator<Transaccion> cursor = transacciones.iterator();
+            if (formato == FormatoExportacion.CSV) {
+                writer.write(ENCABEZADO_CSV);
+                writer.write('\n');
+                while (cursor.hasNext()) {
+                    escribirCsv(writer, cursor.next());
+                    filas++;
+                }
+            } else {
+                JsonGenerator generador = objectMapper.getFactory().createGenerator(writer);
+                generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generador.setRootValueSeparator(null);
+                while (cursor.hasNext()) {
+                    escribirJson(generador, cursor.next());
+                    generador.writeRaw('\n');
+                    filas++;
+                }
+                generador.close();
+            }
+            writer.flush();
+        }
+        log.info("Exportación terminada: {} transacciones", filas);
+        return filas;
+    }
+    
+    private static void escribirJson(JsonGenerator generador, Transaccion transaccion) throws IOException {
+        generador.writeStartObject();
+        generador.writeStringField("codigoTransaccion", transaccion.getCodigoTransaccion());
+        generador.writeStringField("fechaTransaccion", texto(transaccion.getFechaTransaccion()));
+        generador.writeStringField("agencia", transaccion.getAgencia());
+        generador.writeStringField("codigoCaja", transaccion.getCodigoCaja());
+        generador.writeStringField("codigoCajero", transaccion.getCodigoCajero());
+        generador.writeStringField("turnoId", transaccion.getTurnoId());
+        generador.writeStringField("tipo", transaccion.getTipo());
+        if (transaccion.getMonto() != null) {
+            generador.writeNumberField("monto", transaccion.getMonto());
+        } else {
+            generador.writeNullField("monto");
+        }
+        generador.writeStringField("clienteId", transaccion.getClienteId());
+        generador.writeStringField("numeroCuenta", transaccion.getNumeroCuenta());
+        generador.writeObjectFieldStart("denominaciones");
+        if (transaccion.getDenominaciones() != null) {
+            for (DetalleDenominacion detalle : transaccion.getDenominaciones()) {
+                generador.writeNumberField(detalle.getDenominacion(), detalle.getCantidad());
+            }
+        }
+        generador.writeEndObject();
+        generador.writeEndObject();
+    }
+    
+    private static void escribirCsv(Writer writer, Transaccion transaccion) throws IOException {
+        campoCsv(writer, transaccion.getCodigoTransaccion()).write(',');
+        campoCsv(writer, texto(transaccion.getFechaTransaccion())).write(',');
+        campoCsv(writer, transaccion.getAgencia()).write(',');
+        campoCsv(writer, transaccion.getCodigoCaja()).write(',');
+        campoCsv(writer, transaccion.getCodigoCajero()).write(',');
+        campoCsv(writer, transaccion.getTurnoId()).write(',');
+        campoCsv(writer, transaccion.getTipo()).write(',');
+        campoCsv(writer, transaccion.getMonto() == null ? null : transaccion.getMonto().toPlainString()).write(',');
+        campoCsv(writer, transaccion.getClienteId()).write(',');
+        campoCsv(writer, transaccion.getNumeroCuenta()).write(',');
+        // Denominaciones como "20x5;50x2"
+        List<DetalleDenominacion> denominaciones = transaccion.getDenominaciones();
+        if (denominaciones != null) {
+            for (int i = 0; i < denominaciones.size(); i++) {
+                if (i > 0) writer.write(';');
+                writer.write(denominaciones.get(i).getDenominacion());
+                writer.write('x');
+                writer.write(String.valueOf(denominaciones.get(i).getCantidad()));
+            }
+        }
+        writer.write('\n');
+    }
+    
+    private static Writer campoCsv(Writer writer, String valor) throws IOException {
+        if (valor == null) return writer;
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            writer.write(valor);
+            return writer;
+        }
+        writer.write('"');
+        writer.write(valor.replace("\"", "\"\""));
+        writer.write('"');
+        return writer;
+    }
+    
+    private static String texto(LocalDateTime fecha) {
+        return fecha == null ? null : fecha.toString();
+    }
+}
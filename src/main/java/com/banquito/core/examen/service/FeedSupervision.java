@@ -0,0 +1,222 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.enums.PoliticaDesborde;
+import com.banquito.core.examen.model.EventoSupervision;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Feed en vivo por agencia de transacciones procesadas y turnos cerrados con alerta.
+ * Quien publica solo deja el evento en una cola acotada (si está llena, el evento se descarta) y sigue;
+ * un despachador lo copia al anillo de cada suscriptor de la agencia y cada suscriptor lo envía
+ * desde su propio hilo virtual. Un suscriptor lento pierde eventos o se desconecta según su política,
+ * sin frenar al despachador ni a los demás.
+ */
+@Component
+@Slf4j
+public class FeedSupervision {
+    
+    /**
+     * Envío de eventos a un suscriptor. Se llama siempre desde el hilo del suscriptor.
+     */
+    public interface Destino {
+        
+        void enviar(EventoSupervision evento) throws Exception;
+        
+        // Se llama cuando no hubo eventos durante el intervalo de latido, para mantener viva la conexión
+        void latido() throws Exception;
+        
+        void cerrar();
+    }
+    
+    private final ConcurrentHashMap<String, Set<Suscriptor>> suscriptores = new ConcurrentHashMap<>();
+    private final BlockingQueue<EventoSupervision> pendientes;
+    private final AtomicLong secuencia = new AtomicLong();
+    private final Duration latido;
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("feed-supervision-", 0).factory());
+    private final Counter descartadosPublicacion;
+    private final Counter descartadosSuscriptor;
+    private final Counter desconectados;
+    private volatile boolean activo = true;
+    
+    public FeedSupervision(@Value("${banquito.supervision.cola:65536}") int capacidadCola,
+                           @Value("${banquito.supervision.latido:PT15S}") Duration latido,
+                           MeterRegistry meterRegistry) {
+        this.pendientes = new ArrayBlockingQueue<>(capacidadCola);
+        this.latido = latido;
+        this.descartadosPublicacion = Counter.builder("banquito.supervision.descartados")
+                .description("Eventos del feed de supervisión descartados")
+                .tag("etapa", "publicacion")
+                .register(meterRegistry);
+        this.descartadosSuscriptor = Counter.builder("banquito.supervision.descartados")
+                .description("Eventos del feed de supervisión descartados")
+                .tag("etapa", "suscriptor")
+                .register(meterRegistry);
+        this.desconectados = Counter.builder("banquito.supervision.desconectados")
+                .description("Suscriptores desconectados por no consumir a tiempo")
+                .register(meterRegistry);
+        Gauge.builder("banquito.supervision.suscriptores", suscriptores,
+                        mapa -> mapa.values().stream().mapToInt(Set::size).sum())
+                .description("Suscriptores conectados al feed de supervisión")
+                .register(meterRegistry);
+        executor.execute(this::despachar);
+    }
+    
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        activo = false;
+        suscriptores.values().forEach(suscritos -> suscritos.forEach(Suscriptor::cancelar));
+        executor.shutdownNow();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+    
+    public void publicarTransacciones(List<Transaccion> transacciones) {
+        for (Transaccion transaccion : transacciones) {
+            if (tieneSuscriptores(transaccion.getAgencia())) {
+                publicar(new EventoSupervision(secuencia.incrementAndGet(), EventoSupervision.TIPO_TRANSACCION,
+                        transaccion.getAgencia(), LocalDateTime.now(), transaccion, null));
+            }
+        }
+    }
+    
+    public void publicarAlerta(Turno turno) {
+        if (tieneSuscriptores(turno.getAgencia())) {
+            publicar(new EventoSupervision(secuencia.incrementAndGet(), EventoSupervision.TIPO_ALERTA,
+                    turno.getAgencia(), LocalDateTime.now(), null, turno));
+        }
+    }
+    
+    /**
+     * Registra un suscriptor de la agencia con un anillo de {@code capacidad} eventos. El envío corre en un hilo
+     * virtual propio hasta que se cancela la suscripción o {@code destino} falla; al terminar se llama a
+     * {@link Destino#cerrar()}.
+     */
+    public Runnable suscribir(String agencia, int capacidad, PoliticaDesborde politica, Destino destino) {
+        Suscriptor suscriptor = new Suscriptor(agencia, new AnilloEventos(capacidad, politica), destino);
+        suscriptores.computeIfAbsent(agencia, clave -> ConcurrentHashMap.newKeySet()).add(suscriptor);
+        executor.execute(suscriptor::enviar);
+        log.info("Nuevo suscriptor del feed de supervisión para la agencia {} ({} eventos, {})", agencia, capacidad, politica);
+        return suscriptor::cancelar;
+    }
+    
+    private boolean tieneSuscriptores(String agencia) {
+        if (agencia == null) {
+            return false;
+        }
+        Set<Suscriptor> suscritos = suscriptores.get(agencia);
+        return suscritos != null && !suscritos.isEmpty();
+    }
+    
+    private void publicar(EventoSupervision evento) {
+        if (!pendientes.offer(evento)) {
+            descartadosPublicacion.increment();
+        }
+    }
+    
+    private void despachar() {
+        while (activo) {
+            EventoSupervision evento;
+            try {
+                evento = pendientes.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            Set<Suscriptor> suscritos = suscriptores.get(evento.getAgencia());
+            if (suscritos == null) {
+                continue;
+            }
+            for (Suscriptor suscriptor : suscritos) {
+                suscriptor.entregar(evento);
+            }
+        }
+    }
+    
+    private void quitar(Suscriptor suscriptor) {
+        suscriptores.computeIfPresent(suscriptor.agencia, (agencia, suscritos) -> {
+            suscritos.remove(suscriptor);
+            return suscritos.isEmpty() ? null : suscritos;
+        });
+    }
+    
+    private final class Suscriptor {
+        
+        private final String agencia;
+        private final AnilloEventos anillo;
+        private final Destino destino;
+        private final AtomicBoolean cancelado = new AtomicBoolean();
+        private volatile Thread hilo;
+        
+        Suscriptor(String agencia, AnilloEventos anillo, Destino destino) {
+            this.agencia = agencia;
+            this.anillo = anillo;
+            this.destino = destino;
+        }
+        
+        // Hilo del despachador: nunca bloquea
+        void entregar(EventoSupervision evento) {
+            switch (anillo.ofrecer(evento)) {
+                case DESCARTADO -> descartadosSuscriptor.increment();
+                case LLENO -> {
+                    log.warn("Suscriptor de la agencia {} desconectado: no consume a tiempo", agencia);
+                    desconectados.increment();
+                    cancelar();
+                }
+                case AGREGADO -> {
+                }
+            }
+        }
+        
+        void enviar() {
+            hilo = Thread.currentThread();
+            try {
+                while (!cancelado.get()) {
+                    EventoSupervision evento = anillo.tomar(latido);
+                    if (evento == null) {
+                        destino.latido();
+                    } else {
+                        destino.enviar(evento);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Cancelado mientras esperaba eventos
+            } catch (Exception e) {
+                log.info("Suscriptor de la agencia {} desconectado: {}", agencia, e.getMessage());
+            } finally {
+                cancelado.set(true);
+                quitar(this);
+                destino.cerrar();
+            }
+        }
+        
+        void cancelar() {
+            if (cancelado.compareAndSet(false, true)) {
+                quitar(this);
+                Thread actual = hilo;
+                if (actual != null) {
+                    actual.interrupt();
+                }
+            }
+        }
+    }
+}
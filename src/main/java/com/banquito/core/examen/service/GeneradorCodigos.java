@@ -0,0 +1,142 @@
+package com.banquito.core.examen.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Genera identificadores únicos y crecientes al estilo Snowflake:
+ * 41 bits de milisegundos desde {@link #EPOCA}, 10 bits de nodo y 12 bits de secuencia.
+ * No usa bloqueos; si en un mismo milisegundo se agota la secuencia, continúa en el
+ * milisegundo siguiente en lugar de esperar, por lo que nunca repite un valor dentro del proceso.
+ *
+ * <p>Si el reloj retrocede, sigue desde el último valor mientras el adelanto no supere
+ * {@link #ADELANTO_MAXIMO_MS}; con un retroceso mayor espera a que el reloj lo alcance y, si eso
+ * tomaría más de {@link #ESPERA_MAXIMA_MS}, rechaza generar. Entre reinicios, el nodo y el último
+ * valor usado los reserva {@code ArrendamientoNodoCodigos} en Mongo.
+ */
+@Component
+public class GeneradorCodigos {
+    
+    static final long EPOCA = 1704067200000L; // 2024-01-01T00:00:00Z
+    static final int BITS_NODO = 10;
+    static final int BITS_SECUENCIA = 12;
+    public static final long MAXIMO_NODO = (1L << BITS_NODO) - 1;
+    static final long ADELANTO_MAXIMO_MS = 1000;
+    static final long ESPERA_MAXIMA_MS = 5000;
+    
+    /** Valor de {@code banquito.codigos.nodo} para tomar el primer nodo libre al arrancar. */
+    public static final long NODO_AUTOMATICO = -1;
+    
+    private final LongSupplier reloj;
+    private volatile long nodo;
+    // Milisegundos desde la época desplazados BITS_SECUENCIA bits, más la secuencia
+    private final AtomicLong ultimo = new AtomicLong();
+    
+    @Autowired
+    public GeneradorCodigos(@Value("${banquito.codigos.nodo:0}") long nodo) {
+        this(nodo, System::currentTimeMillis);
+    }
+    
+    GeneradorCodigos(long nodo, LongSupplier reloj) {
+        if (nodo != NODO_AUTOMATICO) {
+            validarNodo(nodo);
+        }
+        this.nodo = nodo;
+        this.reloj = reloj;
+    }
+    
+    public long getNodo() {
+        return nodo;
+    }
+    
+    public boolean esNodoAutomatico() {
+        return nodo == NODO_AUTOMATICO;
+    }
+    
+    /**
+     * Asigna el nodo tomado al arrancar cuando se configuró {@link #NODO_AUTOMATICO}.
+     */
+    public void asignarNodo(long nodo) {
+        validarNodo(nodo);
+        this.nodo = nodo;
+    }
+    
+    /**
+     * Los identificadores siguientes usan milisegundos posteriores a {@code milisegundos} (época Unix),
+     * aunque el reloj local esté atrasado respecto de quien usó antes este nodo.
+     */
+    public void noAntesDe(long milisegundos) {
+        long minimo = (milisegundos + 1 - EPOCA) << BITS_SECUENCIA;
+        ultimo.accumulateAndGet(minimo, Math::max);
+    }
+    
+    /**
+     * Último milisegundo (época Unix) usado por un identificador.
+     */
+    public long ultimoMilisegundo() {
+        return (ultimo.get() >>> BITS_SECUENCIA) + EPOCA;
+    }
+    
+    public long siguienteId() {
+        long nodoActual = nodo;
+        if (nodoActual == NODO_AUTOMATICO) {
+            throw new IllegalStateException("El nodo de códigos todavía no está asignado");
+        }
+        long siguiente;
+        while (true) {
+            long actual = ultimo.get();
+            long ahora = reloj.getAsLong() - EPOCA;
+            long adelanto = (actual >>> BITS_SECUENCIA) - ahora;
+            if (adelanto > ADELANTO_MAXIMO_MS) {
+                esperarReloj(adelanto);
+                continue;
+            }
+            long base = ahora << BITS_SECUENCIA;
+            siguiente = base > actual ? base : actual + 1;
+            if (ultimo.compareAndSet(actual, siguiente)) {
+                break;
+            }
+        }
+        
+        long tiempo = siguiente >>> BITS_SECUENCIA;
+        long secuencia = siguiente & ((1L << BITS_SECUENCIA) - 1);
+        return (tiempo << (BITS_NODO + BITS_SECUENCIA)) | (nodoActual << BITS_SECUENCIA) | secuencia;
+    }
+    
+    public String codigoTransaccion(String codigoCajero) {
+        return "TXN-" + codigoCajero + "-" + formatear(siguienteId());
+    }
+    
+    public String codigoTurno(String codigoCaja, String codigoCajero) {
+        return codigoCaja + "-" + codigoCajero + "-" + formatear(siguienteId());
+    }
+    
+    // Seguir muy por delante del reloj dejaría usados milisegundos que otro proceso con este nodo generaría después
+    private static void esperarReloj(long adelanto) {
+        if (adelanto > ESPERA_MAXIMA_MS) {
+            throw new IllegalStateException("El reloj retrocedió " + adelanto
+                    + " ms respecto del último código generado; no se generan códigos hasta que se recupere");
+        }
+        try {
+            Thread.sleep(adelanto - ADELANTO_MAXIMO_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrumpido esperando que el reloj alcance al último código generado");
+        }
+    }
+    
+    private static void validarNodo(long nodo) {
+        if (nodo < 0 || nodo > MAXIMO_NODO) {
+            throw new IllegalArgumentException("El nodo debe estar entre 0 y " + MAXIMO_NODO + ": " + nodo);
+        }
+    }
+    
+    private static String formatear(long id) {
+        return Long.toString(id, 36).toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,375 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.config.CacheConfig;
+import com.banquito.core.examen.enums.FormatoExportacion;
+import com.banquito.core.examen.model.Cajero;
+import com.banquito.core.examen.model.ResultadoImportacionCajero;
+import com.banquito.core.examen.repository.CajeroRepository;
+import com.banquito.core.examen.repository.CajeroRepositoryCustom;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Importa cajeros desde CSV o NDJSON leyendo el archivo fila por fila: cada fila se valida al leerla y las
+ * válidas se crean o actualizan por código en lotes de {@code banquito.importacion-cajeros.lote} con una
+ * operación bulk. El resultado de cada fila se escribe en cuanto se conoce, así que la memoria usada
+ * depende del tamaño del lote y no del archivo.
+ */
+@Service
+@Slf4j
+public class ImportacionCajerosService {
+    
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+    private static final int LONGITUD_MAXIMA_FILA = 8 * 1024;
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final List<String> COLUMNAS_REQUERIDAS = List.of("codigo", "codigoCaja", "nombre", "apellido", "agencia");
+    
+    private final CajeroRepository cajeroRepository;
+    private final ObjectMapper objectMapper;
+    private final CacheManager cacheManager;
+    private final int tamanioLote;
+    
+    public ImportacionCajerosService(CajeroRepository cajeroRepository, ObjectMapper objectMapper, CacheManager cacheManager,
+                                     @Value("${banquito.importacion-cajeros.lote:500}") int tamanioLote) {
+        this.cajeroRepository = cajeroRepository;
+        this.objectMapper = objectMapper;
+        this.cacheManager = cacheManager;
+        this.tamanioLote = tamanioLote;
+    }
+    
+    /**
+     * Escribe en {@code salida} una línea NDJSON por fila con su resultado y al final una línea con los totales.
+     * Si falla la escritura de un lote en Mongo la importación se detiene; las filas ya informadas quedan aplicadas.
+     */
+    public ResumenImportacion importar(FormatoExportacion formato, InputStream entrada, OutputStream salida) throws IOException {
+        log.info("Importando cajeros desde {} en lotes de {}", formato, tamanioLote);
+        
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), TAMANIO_BUFFER);
+        JsonGenerator generador = objectMapper.getFactory().createGenerator(writer);
+        generador.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generador.setRootValueSeparator(null);
+        
+        LectorFilas lector = new LectorFilas(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        Importacion importacion = new Importacion(generador);
+        try {
+            if (formato == FormatoExportacion.CSV) {
+                importarCsv(lector, importacion);
+            } else {
+                importarNdjson(lector, importacion);
+            }
+            importacion.aplicarLote();
+        } finally {
+            // Los cajeros por ID se guardaron sin conocer su ID; los activos por código se vacían en cada lote
+            cacheManager.getCache(CacheConfig.CAJEROS).clear();
+        }
+        
+        ResumenImportacion resumen = importacion.resumen;
+        generador.writeStartObject();
+        generador.writeNumberField("filas", resumen.filas);
+        generador.writeNumberField("creados", resumen.creados);
+        generador.writeNumberField("actualizados", resumen.actualizados);
+        generador.writeNumberField("rechazados", resumen.rechazados);
+        generador.writeEndObject();
+        generador.writeRaw('\n');
+        generador.close();
+        writer.flush();
+        log.info("Importación de cajeros terminada: {}", resumen);
+        return resumen;
+    }
+    
+    private void importarNdjson(LectorFilas lector, Importacion importacion) throws IOException {
+        String linea;
+        while ((linea = lector.leer()) != null) {
+            if (linea.isBlank()) continue;
+            if (lector.excedida) {
+                importacion.rechazar(lector.numero, null, filaExcedida());
+                continue;
+            }
+            JsonNode nodo;
+            try {
+                nodo = objectMapper.readTree(linea);
+            } catch (JsonProcessingException e) {
+                importacion.rechazar(lector.numero, null, "JSON inválido: " + e.getOriginalMessage());
+                continue;
+            }
+            if (!nodo.isObject()) {
+                importacion.rechazar(lector.numero, null, "La fila debe ser un objeto JSON");
+                continue;
+            }
+            Cajero cajero = new Cajero();
+            cajero.setCodigo(texto(nodo.get("codigo")));
+            cajero.setCodigoCaja(texto(nodo.get("codigoCaja")));
+            cajero.setNombre(texto(nodo.get("nombre")));
+            cajero.setApellido(texto(nodo.get("apellido")));
+            cajero.setEmail(texto(nodo.get("email")));
+            cajero.setAgencia(texto(nodo.get("agencia")));
+            importacion.agregar(lector.numero, cajero, texto(nodo.get("activo")));
+        }
+    }
+    
+    private void importarCsv(LectorFilas lector, Importacion importacion) throws IOException {
+        String linea = lector.leer();
+        if (linea == null) return;
+        Map<String, Integer> columnas = new HashMap<>();
+        List<String> encabezado = lector.excedida ? List.of() : camposCsv(linea);
+        for (int i = 0; encabezado != null && i < encabezado.size(); i++) {
+            columnas.put(encabezado.get(i).trim(), i);
+        }
+        List<String> faltantes = COLUMNAS_REQUERIDAS.stream().filter(columna -> !columnas.containsKey(columna)).toList();
+        if (!faltantes.isEmpty()) {
+            // Sin encabezado válido no se puede interpretar ninguna fila
+            importacion.rechazar(lector.numero, null, "Faltan columnas en el encabezado: " + String.join(", ", faltantes));
+            return;
+        }
+        
+        while ((linea = lector.leer()) != null) {
+            if (linea.isBlank()) continue;
+            if (lector.excedida) {
+                importacion.rechazar(lector.numero, null, filaExcedida());
+                continue;
+            }
+            List<String> campos = camposCsv(linea);
+            if (campos == null) {
+                importacion.rechazar(lector.numero, null, "Comillas sin cerrar");
+                continue;
+            }
+            Cajero cajero = new Cajero();
+            cajero.setCodigo(campo(campos, columnas, "codigo"));
+            cajero.setCodigoCaja(campo(campos, columnas, "codigoCaja"));
+            cajero.setNombre(campo(campos, columnas, "nombre"));
+            cajero.setApellido(campo(campos, columnas, "apellido"));
+            cajero.setEmail(campo(campos, columnas, "email"));
+            cajero.setAgencia(campo(campos, columnas, "agencia"));
+            importacion.agregar(lector.numero, cajero, campo(campos, columnas, "activo"));
+        }
+    }
+    
+    /**
+     * Mismas reglas que {@code CajeroDTO}; devuelve el motivo del rechazo o {@code null} si la fila es válida.
+     */
+    private static String validar(Cajero cajero, String activo) {
+        if (cajero.getCodigo() == null) return "El código del cajero es requerido";
+        if (cajero.getCodigoCaja() == null) return "El código de la caja es requerido";
+        if (cajero.getNombre() == null) return "El nombre es requerido";
+        if (cajero.getApellido() == null) return "El apellido es requerido";
+        if (cajero.getAgencia() == null) return "La agencia es requerida";
+        if (cajero.getEmail() != null && !EMAIL.matcher(cajero.getEmail()).matches()) return "El email debe ser válido";
+        if (activo != null && !"true".equalsIgnoreCase(activo) && !"false".equalsIgnoreCase(activo)) {
+            return "El estado activo debe ser true o false";
+        }
+        return null;
+    }
+    
+    private static String filaExcedida() {
+        return "La fila supera los " + LONGITUD_MAXIMA_FILA + " caracteres";
+    }
+    
+    private static String texto(JsonNode nodo) {
+        if (nodo == null || nodo.isNull()) return null;
+        String valor = nodo.asText().trim();
+        return valor.isEmpty() ? null : valor;
+    }
+    
+    private static String campo(List<String> campos, Map<String, Integer> columnas, String nombre) {
+        Integer indice = columnas.get(nombre);
+        if (indice == null || indice >= campos.size()) return null;
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+    
+    /**
+     * Separa una línea CSV en campos; los campos entre comillas pueden contener comas y comillas duplicadas ("").
+     * Devuelve {@code null} si una comilla queda sin cerrar.
+     */
+    static List<String> camposCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c != '"') {
+                    actual.append(c);
+                } else if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        if (entreComillas) return null;
+        campos.add(actual.toString());
+        return campos;
+    }
+    
+    /**
+     * Estado de una importación: el lote pendiente de escribir en Mongo y los totales.
+     */
+    private final class Importacion {
+        
+        private final JsonGenerator generador;
+        private final List<Cajero> lote = new ArrayList<>(tamanioLote);
+        private final List<Long> filasLote = new ArrayList<>(tamanioLote);
+        private final Set<String> codigosLote = new HashSet<>();
+        private final ResumenImportacion resumen = new ResumenImportacion();
+        
+        private Importacion(JsonGenerator generador) {
+            this.generador = generador;
+        }
+        
+        void agregar(long fila, Cajero cajero, String activo) throws IOException {
+            String error = validar(cajero, activo);
+            if (error != null) {
+                rechazar(fila, cajero.getCodigo(), error);
+                return;
+            }
+            cajero.setActivo(activo == null ? null : Boolean.valueOf(activo));
+            // Un mismo código dos veces en el lote: se aplica primero el anterior para respetar el orden del archivo
+            if (codigosLote.contains(cajero.getCodigo())) {
+                aplicarLote();
+            }
+            lote.add(cajero);
+            filasLote.add(fila);
+            codigosLote.add(cajero.getCodigo());
+            if (lote.size() >= tamanioLote) {
+                aplicarLote();
+            }
+        }
+        
+        void rechazar(long fila, String codigo, String error) throws IOException {
+            escribir(ResultadoImportacionCajero.rechazado(fila, codigo, error));
+        }
+        
+        void aplicarLote() throws IOException {
+            if (lote.isEmpty()) return;
+            CajeroRepositoryCustom.ResultadoUpsert resultado = cajeroRepository.upsertPorCodigo(lote);
+            Cache activosPorCodigo = cacheManager.getCache(CacheConfig.CAJEROS_ACTIVOS);
+            for (int i = 0; i < lote.size(); i++) {
+                String codigo = lote.get(i).getCodigo();
+                String error = resultado.errores().get(i);
+                if (error != null) {
+                    escribir(ResultadoImportacionCajero.rechazado(filasLote.get(i), codigo, error));
+                } else {
+                    activosPorCodigo.evict(codigo);
+                    escribir(ResultadoImportacionCajero.aplicado(filasLote.get(i), codigo, resultado.creados().contains(i)));
+                }
+            }
+            lote.clear();
+            filasLote.clear();
+            codigosLote.clear();
+            // Quien importa ve el avance lote por lote
+            generador.flush();
+        }
+        
+        private void escribir(ResultadoImportacionCajero resultado) throws IOException {
+            resumen.contar(resultado);
+            generador.writeStartObject();
+            generador.writeNumberField("fila", resultado.getFila());
+            generador.writeStringField("codigo", resultado.getCodigo());
+            generador.writeStringField("resultado", resultado.getResultado());
+            if (resultado.getError() != null) {
+                generador.writeStringField("error", resultado.getError());
+            }
+            generador.writeEndObject();
+            generador.writeRaw('\n');
+        }
+    }
+    
+    @Getter
+    public static final class ResumenImportacion {
+        
+        private long filas;
+        private long creados;
+        private long actualizados;
+        private long rechazados;
+        
+        private void contar(ResultadoImportacionCajero resultado) {
+            filas++;
+            switch (resultado.getResultado()) {
+                case ResultadoImportacionCajero.CREADO -> creados++;
+                case ResultadoImportacionCajero.ACTUALIZADO -> actualizados++;
+                default -> rechazados++;
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return filas + " filas, " + creados + " creados, " + actualizados + " actualizados, " + rechazados + " rechazados";
+        }
+    }
+    
+    /**
+     * Lee líneas de a una sin cargar el archivo; una línea más larga que {@link #LONGITUD_MAXIMA_FILA} se descarta
+     * hasta su salto de línea y se marca como excedida, para que una fila mal formada no agote la memoria.
+     */
+    private static final class LectorFilas {
+        
+        private final Reader reader;
+        private final StringBuilder linea = new StringBuilder();
+        private long numero;
+        private boolean excedida;
+        
+        private LectorFilas(Reader reader) {
+            this.reader = new BufferedReader(reader, TAMANIO_BUFFER);
+        }
+        
+        String leer() throws IOException {
+            linea.setLength(0);
+            excedida = false;
+            int c = reader.read();
+            if (c < 0) return null;
+            numero++;
+            while (c >= 0 && c != '\n') {
+                if (linea.length() < LONGITUD_MAXIMA_FILA) {
+                    linea.append((char) c);
+                } else {
+                    excedida = true;
+                }
+                c = reader.read();
+            }
+            int fin = linea.length();
+            if (fin > 0 && linea.charAt(fin - 1) == '\r') {
+                linea.setLength(fin - 1);
+            }
+            // Marca de orden de bytes al inicio de archivos guardados desde Excel
+            if (numero == 1 && !linea.isEmpty() && linea.charAt(0) == '\uFEFF') {
+                linea.deleteCharAt(0);
+            }
+            return linea.toString();
+        }
+    }
+}
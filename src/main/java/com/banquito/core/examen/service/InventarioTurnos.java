@@ -0,0 +1,105 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.VectorDenominaciones;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Existencias por denominación de cada turno abierto, en memoria, para decidir en O(1) si la caja
+ * cubre un retiro. Se cargan una vez desde {@code Turno.existencias} (que Mongo mantiene con $inc)
+ * y luego se actualizan con cada transacción aceptada. Solo se modifican bajo el cerrojo del turno;
+ * si Mongo rechaza un movimiento aceptado aquí, la copia se descarta y se vuelve a cargar.
+ * También recuerda los turnos que se cerraron, para rechazar sin consultar Mongo las transacciones
+ * que llegan después del cierre (con el diario activo no hay otra escritura que las detenga).
+ */
+@Component
+public class InventarioTurnos {
+    
+    private final Cache<String, VectorDenominaciones> existencias;
+    private final Cache<String, Boolean> cerrados;
+    
+    public InventarioTurnos(@Value("${banquito.cache.turnos-abiertos.maximo:5000}") long maximo,
+                            @Value("${banquito.cache.turnos-abiertos.expiracion:PT12H}") Duration expiracion,
+                            MeterRegistry meterRegistry) {
+        this.existencias = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(expiracion)
+                .recordStats()
+                .build();
+        this.cerrados = Caffeine.newBuilder()
+                .maximumSize(maximo)
+                .expireAfterWrite(expiracion)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, existencias, "inventarioTurnos");
+    }
+    
+    /**
+     * Devuelve una copia de las existencias del turno, cargándolas con {@code cargar} si no están en memoria.
+     */
+    public VectorDenominaciones obtener(String turnoId, Function<String, Map<String, Integer>> cargar) {
+        // Sin Cache.get(clave, función): la carga puede recalcular el saldo y desalojar esta misma clave
+        VectorDenominaciones actuales = existencias.getIfPresent(turnoId);
+        if (actuales == null) {
+            actuales = VectorDenominaciones.desde(cargar.apply(turnoId));
+            existencias.put(turnoId, actuales);
+        }
+        return actuales.copia();
+    }
+    
+    public void actualizar(String turnoId, VectorDenominaciones actuales) {
+        existencias.put(turnoId, actuales);
+    }
+    
+    public void desalojar(String turnoId) {
+        existencias.invalidate(turnoId);
+    }
+    
+    public void marcarCerrado(String turnoId) {
+        cerrados.put(turnoId, Boolean.TRUE);
+        existencias.invalidate(turnoId);
+    }
+    
+    /**
+     * Quita la marca de un turno que se preparó para cerrar pero siguió abierto.
+     */
+    public void desmarcarCerrado(String turnoId) {
+        cerrados.invalidate(turnoId);
+    }
+    
+    public boolean estaCerrado(String turnoId) {
+        return cerrados.getIfPresent(turnoId) != null;
+    }
+    
+    /**
+     * Aplica en orden las transacciones sobre {@code existencias} y devuelve las posiciones de los retiros
+     * que la caja no puede cubrir; esos retiros no se aplican.
+     */
+    public static Set<Integer> retirosSinCobertura(VectorDenominaciones existencias, List<Transaccion> transacciones) {
+        Set<Integer> rechazados = new HashSet<>();
+        VectorDenominaciones movimiento = new VectorDenominaciones();
+        for (int i = 0; i < transacciones.size(); i++) {
+            Transaccion transaccion = transacciones.get(i);
+            movimiento.limpiar().agregar(transaccion.getDenominaciones());
+            if (Transaccion.TIPO_DEPOSITO.equals(transaccion.getTipo())) {
+                existencias.sumar(movimiento);
+            } else if (existencias.cubre(movimiento)) {
+                existencias.restar(movimiento);
+            } else {
+                rechazados.add(i);
+            }
+        }
+        return rechazados;
+    }
+}
@@ -0,0 +1,137 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.exception.NotFoundException;
+import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.exception.TurnoException;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.repository.TurnoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Métricas de negocio y latencia de turnos y transacciones. Los timers publican histogramas
+ * de percentiles; las etiquetas se limitan a valores conocidos (ruta, tipo, agencia y resultado)
+ * para no multiplicar las series.
+ */
+@Component
+@Slf4j
+public class MetricasOperaciones {
+    
+    public static final String EXITO = "exito";
+    public static final String RECHAZADA = "rechazada";
+    public static final String ERROR = "error";
+    
+    public static final String RUTA_UNITARIA = "unitaria";
+    public static final String RUTA_LOTE = "lote";
+    public static final String RUTA_REACTIVA = "reactiva";
+    
+    private static final String DESCONOCIDA = "desconocida";
+    private static final String TIPO_INVALIDO = "INVALIDO";
+    
+    private final MeterRegistry meterRegistry;
+    private final TurnoRepository turnoRepository;
+    private final long vigenciaConteoNanos;
+    
+    private volatile double turnosAbiertos = Double.NaN;
+    private volatile long ultimoConteo;
+    
+    public MetricasOperaciones(MeterRegistry meterRegistry, TurnoRepository turnoRepository,
+                               @Value("${banquito.metricas.turnos-abiertos.vigencia:PT30S}") Duration vigenciaConteo) {
+        this.meterRegistry = meterRegistry;
+        this.turnoRepository = turnoRepository;
+        this.vigenciaConteoNanos = vigenciaConteo.toNanos();
+        this.ultimoConteo = System.nanoTime() - vigenciaConteoNanos;
+        Gauge.builder("banquito.turnos.abiertos", this, MetricasOperaciones::contarTurnosAbiertos)
+                .description("Turnos abiertos en todas las agencias")
+                .register(meterRegistry);
+    }
+    
+    public Timer.Sample iniciar() {
+        return Timer.start(meterRegistry);
+    }
+    
+    public void registrarApertura(Timer.Sample muestra, String agencia, String resultado) {
+        muestra.stop(timer("banquito.turnos.apertura", "Apertura de turnos", agencia, resultado));
+    }
+    
+    public void registrarCierre(Timer.Sample muestra, Turno turno, String resultado) {
+        String agencia = turno == null ? null : turno.getAgencia();
+        muestra.stop(timer("banquito.turnos.cierre", "Cierre de turnos", agencia, resultado));
+        if (turno != null && Boolean.TRUE.equals(turno.getTieneAlerta())) {
+            Counter.builder("banquito.turnos.cierre.alertas")
+                    .description("Turnos cerrados con diferencia entre monto declarado y calculado")
+                    .tag("agencia", etiqueta(agencia))
+                    .register(meterRegistry)
+                    .increment();
+        }
+    }
+    
+    public void registrarTransaccion(Timer.Sample muestra, String ruta, String tipo, String agencia, BigDecimal monto,
+                                     String resultado) {
+        String etiquetaTipo = Transaccion.esValidoTipo(tipo) ? tipo : TIPO_INVALIDO;
+        muestra.stop(Timer.builder("banquito.transacciones.procesamiento")
+                .description("Procesamiento de transacciones")
+                .tag("ruta", ruta)
+                .tag("tipo", etiquetaTipo)
+                .tag("agencia", etiqueta(agencia))
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        if (EXITO.equals(resultado) && monto != null) {
+            Counter.builder("banquito.transacciones.monto")
+                    .description("Monto procesado en transacciones exitosas")
+                    .baseUnit("USD")
+                    .tag("ruta", ruta)
+                    .tag("tipo", etiquetaTipo)
+                    .tag("agencia", etiqueta(agencia))
+                    .register(meterRegistry)
+                    .increment(monto.doubleValue());
+        }
+    }
+    
+    /**
+     * Rechazos de negocio (validaciones, turno inexistente o cerrado) frente a errores inesperados.
+     */
+    public static String resultado(RuntimeException e) {
+        if (e instanceof TransaccionException || e instanceof TurnoException || e instanceof NotFoundException) {
+            return RECHAZADA;
+        }
+        return ERROR;
+    }
+    
+    private Timer timer(String nombre, String descripcion, String agencia, String resultado) {
+        return Timer.builder(nombre)
+                .description(descripcion)
+                .tag("agencia", etiqueta(agencia))
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private static String etiqueta(String agencia) {
+        return agencia == null || agencia.isBlank() ? DESCONOCIDA : agencia;
+    }
+    
+    // El conteo se repite como máximo una vez por vigencia, aunque el gauge se consulte más seguido
+    private double contarTurnosAbiertos() {
+        long ahora = System.nanoTime();
+        if (ahora - ultimoConteo >= vigenciaConteoNanos) {
+            ultimoConteo = ahora;
+            try {
+                turnosAbiertos = turnoRepository.countByEstado(Turno.ESTADO_ABIERTO);
+            } catch (RuntimeException e) {
+                log.warn("No se pudo contar los turnos abiertos: {}", e.getMessage());
+            }
+        }
+        return turnosAbiertos;
+    }
+}
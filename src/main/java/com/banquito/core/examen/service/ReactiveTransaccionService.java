@@ -0,0 +1,91 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.exception.NotFoundException;
+import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.repository.ReactiveTransaccionRepository;
+import com.banquito.core.examen.repository.ReactiveTurnoRepository;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Variante no bloqueante del procesamiento de transacciones. Aplica las mismas validaciones que
+ * {@link TransaccionService} y encola la transacción en la cola de su turno ({@link SecuenciadorTurnos}),
+ * así pasa por las mismas existencias en memoria, el mismo diario y el mismo orden que las demás;
+ * el hilo de la petición no espera la escritura, solo se suscribe a su resultado.
+ * Los repositorios reactivos solo leen: escribir con ellos saltaría el orden por turno y el diario.
+ */
+@Service
+@Slf4j
+public class ReactiveTransaccionService {
+    
+    private final ReactiveTransaccionRepository transaccionRepository;
+    private final ReactiveTurnoRepository turnoRepository;
+    private final TransaccionService transaccionService;
+    private final CacheTurnosAbiertos cacheTurnosAbiertos;
+    private final MetricasOperaciones metricas;
+    
+    public ReactiveTransaccionService(ReactiveTransaccionRepository transaccionRepository,
+                                      ReactiveTurnoRepository turnoRepository,
+                                      TransaccionService transaccionService,
+                                      CacheTurnosAbiertos cacheTurnosAbiertos,
+                                      MetricasOperaciones metricas) {
+        this.transaccionRepository = transaccionRepository;
+        this.turnoRepository = turnoRepository;
+        this.transaccionService = transaccionService;
+        this.cacheTurnosAbiertos = cacheTurnosAbiertos;
+        this.metricas = metricas;
+    }
+    
+    public Mono<Transaccion> procesarTransaccion(String turnoId, String tipo, BigDecimal monto,
+                                                 List<DetalleDenominacion> denominaciones, String clienteId,
+                                                 String numeroCuenta, String observaciones) {
+        log.info("Procesando transacción reactiva tipo: {} para turno: {}", tipo, turnoId);
+        
+        // La muestra se toma al suscribirse, no al armar el flujo
+        return Mono.defer(() -> {
+            Timer.Sample muestra = metricas.iniciar();
+            return buscarTurno(turnoId)
+                    .doOnError(RuntimeException.class, e -> metricas.registrarTransaccion(muestra,
+                            MetricasOperaciones.RUTA_REACTIVA, tipo, null, monto, MetricasOperaciones.resultado(e)))
+                    .flatMap(turno -> Mono.fromCallable(() -> {
+                                transaccionService.validarTransaccion(turno, tipo, monto, denominaciones);
+                                return transaccionService.construirTransaccion(turno, tipo, monto, denominaciones,
+                                        clienteId, numeroCuenta, observaciones);
+                            })
+                            // Encolada ya no se puede retirar: si el cliente cancela, la transacción se aplica igual
+                            .flatMap(transaccion -> Mono.fromFuture(() -> transaccionService.encolar(transaccion), true))
+                            .doOnNext(guardada -> metricas.registrarTransaccion(muestra, MetricasOperaciones.RUTA_REACTIVA,
+                                    tipo, turno.getAgencia(), monto, MetricasOperaciones.EXITO))
+                            .doOnError(RuntimeException.class, e -> metricas.registrarTransaccion(muestra,
+                                    MetricasOperaciones.RUTA_REACTIVA, tipo, turno.getAgencia(), monto,
+                                    MetricasOperaciones.resultado(e))));
+        }).doOnNext(guardada -> log.info("Transacción procesada exitosamente: {}", guardada.getCodigoTransaccion()));
+    }
+    
+    public Mono<Transaccion> findByCodigoTransaccion(String codigoTransaccion) {
+        log.info("Buscando transacción reactiva por código: {}", codigoTransaccion);
+        return transaccionRepository.findByCodigoTransaccion(codigoTransaccion)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(codigoTransaccion, "Transacción")));
+    }
+    
+    public Flux<Transaccion> findByTurnoId(String turnoId, Pageable pageable) {
+        log.info("Buscando transacciones reactivas por turno: {}", turnoId);
+        return transaccionRepository.findByTurnoIdOrderByFechaTransaccionDesc(turnoId, pageable);
+    }
+    
+    private Mono<Turno> buscarTurno(String turnoId) {
+        return Mono.justOrEmpty(cacheTurnosAbiertos.porId(turnoId))
+                .switchIfEmpty(Mono.defer(() -> turnoRepository.findById(turnoId)
+                        .doOnNext(cacheTurnosAbiertos::registrar)))
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(turnoId, "Turno")));
+    }
+}
@@ -0,0 +1,91 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.model.ResumenHorario;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.repository.ResumenHorarioRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Resúmenes por hora, caja y agencia para los reportes: se leen unos miles de resúmenes en lugar de
+ * recorrer millones de transacciones. Cada transacción guardada los incrementa en el servidor; la
+ * reconstrucción los recalcula desde el historial y corrige lo que no se haya podido acumular.
+ */
+@Service
+@Slf4j
+public class ResumenHorarioService {
+    
+    // Cada agregación de reconstrucción cubre a lo sumo un día de transacciones
+    private static final Duration TRAMO = Duration.ofDays(1);
+    
+    private final ResumenHorarioRepository resumenHorarioRepository;
+    
+    public ResumenHorarioService(ResumenHorarioRepository resumenHorarioRepository) {
+        this.resumenHorarioRepository = resumenHorarioRepository;
+    }
+    
+    /**
+     * Acumula las transacciones ya guardadas. Un fallo no afecta a las transacciones: se registra y el
+     * resumen queda pendiente de reconstrucción.
+     */
+    public void registrar(List<Transaccion> transacciones) {
+        try {
+            resumenHorarioRepository.acumular(transacciones);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron acumular {} transacciones en el resumen horario: {}", transacciones.size(), e.getMessage());
+        }
+    }
+    
+    public List<ResumenHorario> findByAgencia(String agencia, LocalDateTime desde, LocalDateTime hasta) {
+        validarRango("Consultar resumen horario", desde, hasta);
+        log.info("Consultando resumen horario de la agencia {} desde {} hasta {}", agencia, desde, hasta);
+        return resumenHorarioRepository.findByAgenciaAndHoraGreaterThanEqualAndHoraLessThanOrderByHoraAscCodigoCajaAsc(
+                agencia, desde, hasta);
+    }
+    
+    public List<ResumenHorario> findByCaja(String codigoCaja, LocalDateTime desde, LocalDateTime hasta) {
+        validarRango("Consultar resumen horario", desde, hasta);
+        log.info("Consultando resumen horario de la caja {} desde {} hasta {}", codigoCaja, desde, hasta);
+        return resumenHorarioRepository.findByCodigoCajaAndHoraGreaterThanEqualAndHoraLessThanOrderByHoraAsc(
+                codigoCaja, desde, hasta);
+    }
+    
+    /**
+     * Recalcula los resúmenes de las horas completas de {@code [desde, hasta)} desde las transacciones, por tramos
+     * de un día. La hora en curso nunca se reconstruye: sus resúmenes los siguen incrementando las transacciones.
+     * Devuelve la cantidad de resúmenes escritos.
+     */
+    public long reconstruir(LocalDateTime desde, LocalDateTime hasta) {
+        validarRango("Reconstruir resumen horario", desde, hasta);
+        ZoneId zona = ZoneId.systemDefault();
+        Instant inicio = ResumenHorario.inicioHora(desde);
+        Instant horaActual = ResumenHorario.inicioHora(LocalDateTime.now());
+        Instant fin = hasta.atZone(zona).toInstant();
+        if (fin.isAfter(horaActual)) {
+            fin = horaActual;
+        }
+        log.info("Reconstruyendo resumen horario desde {} hasta {}", inicio, fin);
+        
+        long resumenes = 0;
+        for (Instant tramo = inicio; tramo.isBefore(fin); tramo = tramo.plus(TRAMO)) {
+            Instant finTramo = tramo.plus(TRAMO).isBefore(fin) ? tramo.plus(TRAMO) : fin;
+            resumenes += resumenHorarioRepository.reconstruir(
+                    LocalDateTime.ofInstant(tramo, zona), LocalDateTime.ofInstant(finTramo, zona));
+        }
+        log.info("Resumen horario reconstruido: {} resúmenes", resumenes);
+        return resumenes;
+    }
+    
+    private static void validarRango(String operacion, LocalDateTime desde, LocalDateTime hasta) {
+        if (!desde.isBefore(hasta)) {
+            throw new TransaccionException(operacion, "La fecha inicial debe ser anterior a la final");
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.model.Transaccion;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cola de operaciones por turno con un único escritor: las transacciones y el cierre de un turno
+ * se ejecutan en el orden de llegada, de a una, en un hilo virtual que existe mientras la cola tenga trabajo.
+ * Las transacciones consecutivas de la cola se agrupan y se aplican juntas (un $inc y una inserción bulk),
+ * así la escritura en Mongo crece con la cantidad de turnos activos y no con la de transacciones.
+ *
+ * <p>Cada turno admite a lo sumo {@code cola-maxima} transacciones en espera; las que no caben se rechazan
+ * de inmediato en lugar de acumularse en memoria. El cierre y los recálculos no se limitan.
+ *
+ * <p>Orden de espera: una operación en cola puede esperar a {@link AplicadorDiario}, pero el aplicador nunca
+ * encola ni espera operaciones de un turno; de lo contrario ambos se esperarían mutuamente.
+ */
+@Component
+@Slf4j
+public class SecuenciadorTurnos {
+    
+    /**
+     * Aplica juntas las transacciones de un turno. Devuelve el error de las que fallaron, por posición;
+     * si lanza una excepción, fallan todas.
+     */
+    @FunctionalInterface
+    public interface AplicadorLote {
+        Map<Integer, RuntimeException> aplicar(String turnoId, List<Transaccion> transacciones);
+    }
+    
+    private final ConcurrentHashMap<String, ColaTurno> colas = new ConcurrentHashMap<>();
+    private final CerrojosTurnos cerrojos;
+    private final int loteMaximo;
+    private final int colaMaxima;
+    private final ExecutorService executor;
+    private final DistributionSummary tamanioLote;
+    private final Counter rechazadas;
+    
+    public SecuenciadorTurnos(CerrojosTurnos cerrojos, @Value("${banquito.secuenciador.lote-maximo:200}") int loteMaximo,
+                              @Value("${banquito.secuenciador.cola-maxima:2000}") int colaMaxima,
+                              MeterRegistry meterRegistry) {
+        this.cerrojos = cerrojos;
+        this.loteMaximo = loteMaximo;
+        this.colaMaxima = colaMaxima;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("secuenciador-turno-", 0).factory());
+        this.tamanioLote = DistributionSummary.builder("banquito.secuenciador.lote")
+                .description("Transacciones aplicadas juntas por escritura en un turno")
+                .register(meterRegistry);
+        Gauge.builder("banquito.secuenciador.turnos.activos", colas, Map::size)
+                .description("Turnos con operaciones en cola")
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder("banquito.secuenciador.rechazadas")
+                .description("Transacciones rechazadas porque la cola de su turno estaba llena")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Quedaron operaciones de turnos sin terminar al detener el secuenciador");
+        }
+    }
+    
+    /**
+     * Encola la transacción detrás de las operaciones pendientes del turno y espera a que se aplique.
+     */
+    public Transaccion registrar(String turnoId, Transaccion transaccion, AplicadorLote aplicador) {
+        return esperar(encolar(turnoId, new Operacion<>(transaccion, aplicador, null)));
+    }
+    
+    /**
+     * Igual que {@link #registrar} pero sin esperar: el resultado se completa cuando se aplica la transacción.
+     */
+    public CompletableFuture<Transaccion> registrarSinEsperar(String turnoId, Transaccion transaccion, AplicadorLote aplicador) {
+        return encolar(turnoId, new Operacion<>(transaccion, aplicador, null));
+    }
+    
+    /**
+     * Encola sin esperar varias transacciones del turno. Quedan contiguas en la cola, así se aplican en el
+     * mismo lote (hasta {@code lote-maximo}); cada resultado se completa cuando se aplica su transacción.
+     */
+    public List<CompletableFuture<Transaccion>> registrarTodasSinEsperar(String turnoId, List<Transaccion> transacciones,
+                                                                         AplicadorLote aplicador) {
+        List<Operacion<?>> operaciones = new ArrayList<>(transacciones.size());
+        List<CompletableFuture<Transaccion>> resultados = new ArrayList<>(transacciones.size());
+        for (Transaccion transaccion : transacciones) {
+            Operacion<Transaccion> operacion = new Operacion<>(transaccion, aplicador, null);
+            operaciones.add(operacion);
+            resultados.add(operacion.resultado);
+        }
+        encolarTodas(turnoId, operaciones);
+        return resultados;
+    }
+    
+    /**
+     * Ejecuta la acción como única operación del turno, después de las que ya estaban en cola.
+     */
+    public <T> T ejecutar(String turnoId, Supplier<T> accion) {
+        return esperar(encolar(turnoId, new Operacion<>(null, null, accion)));
+    }
+    
+    private <T> CompletableFuture<T> encolar(String turnoId, Operacion<T> operacion) {
+        encolarTodas(turnoId, List.<Operacion<?>>of(operacion));
+        return operacion.resultado;
+    }
+    
+    private void encolarTodas(String turnoId, List<Operacion<?>> operaciones) {
+        if (operaciones.isEmpty()) {
+            return;
+        }
+        // Las operaciones de una llamada son todas transacciones o una sola acción
+        int transacciones = operaciones.get(0).transaccion != null ? operaciones.size() : 0;
+        boolean[] nueva = new boolean[1];
+        boolean[] llena = new boolean[1];
+        // Una cola solo está en el mapa mientras su hilo la drena; se crea y se retira de forma atómica
+        ColaTurno cola = colas.compute(turnoId, (id, actual) -> {
+            ColaTurno destino = actual;
+            if (destino == null) {
+                destino = new ColaTurno(id);
+                nueva[0] = true;
+            }
+            if (transacciones > 0 && destino.transacciones + transacciones > colaMaxima) {
+                llena[0] = true;
+                return actual;
+            }
+            destino.transacciones += transacciones;
+            destino.pendientes.addAll(operaciones);
+            return destino;
+        });
+        if (llena[0]) {
+            rechazadas.increment(transacciones);
+            TransaccionException error = new TransaccionException("Procesar transacción",
+                    "El turno tiene demasiadas transacciones en espera, intente nuevamente");
+            operaciones.forEach(operacion -> operacion.resultado.completeExceptionally(error));
+            return;
+        }
+        if (nueva[0]) {
+            try {
+                executor.execute(() -> drenar(cola));
+            } catch (RejectedExecutionException e) {
+                // Secuenciador detenido: la cola no tendrá quien la drene, se retira y se fallan sus operaciones
+                colas.remove(turnoId, cola);
+                Operacion<?> pendiente;
+                while ((pendiente = cola.pendientes.poll()) != null) {
+                    pendiente.resultado.completeExceptionally(e);
+                }
+            }
+        }
+    }
+    
+    private void drenar(ColaTurno cola) {
+        while (true) {
+            Operacion<?> siguiente;
+            while ((siguiente = cola.pendientes.peek()) != null) {
+                if (siguiente.transaccion != null) {
+                    aplicarTransacciones(cola);
+                } else {
+                    cola.pendientes.poll();
+                    ejecutarAccion(cola.turnoId, siguiente);
+                }
+            }
+            boolean[] vacia = new boolean[1];
+            colas.compute(cola.turnoId, (id, actual) -> {
+                vacia[0] = cola.pendientes.isEmpty();
+                return vacia[0] ? null : actual;
+            });
+            if (vacia[0]) {
+                return;
+            }
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void aplicarTransacciones(ColaTurno cola) {
+        List<Operacion<Transaccion>> lote = new ArrayList<>();
+        Operacion<?> siguiente;
+        while (lote.size() < loteMaximo && (siguiente = cola.pendientes.peek()) != null
+                && siguiente.transaccion != null
+                && (lote.isEmpty() || siguiente.aplicador == lote.get(0).aplicador)) {
+            lote.add((Operacion<Transaccion>) cola.pendientes.poll());
+        }
+        // La cola sigue en el mapa mientras este hilo la drena
+        colas.computeIfPresent(cola.turnoId, (id, actual) -> {
+            cola.transacciones -= lote.size();
+            return actual;
+        });
+        
+        List<Transaccion> transacciones = new ArrayList<>(lote.size());
+        lote.forEach(operacion -> transacciones.add(operacion.transaccion));
+        tamanioLote.record(lote.size());
+        try {
+            Map<Integer, RuntimeException> errores = cerrojos.conTurno(cola.turnoId,
+                    () -> lote.get(0).aplicador.aplicar(cola.turnoId, transacciones));
+            for (int i = 0; i < lote.size(); i++) {
+                RuntimeException error = errores.get(i);
+                if (error == null) {
+                    lote.get(i).resultado.complete(transacciones.get(i));
+                } else {
+                    lote.get(i).resultado.completeExceptionally(error);
+                }
+            }
+        } catch (Throwable e) {
+            lote.forEach(operacion -> operacion.resultado.completeExceptionally(e));
+        }
+    }
+    
+    private <T> void ejecutarAccion(String turnoId, Operacion<T> operacion) {
+        try {
+            operacion.resultado.complete(cerrojos.conTurno(turnoId, operacion.accion));
+        } catch (Throwable e) {
+            operacion.resultado.completeExceptionally(e);
+        }
+    }
+    
+    static <T> T esperar(CompletableFuture<T> resultado) {
+        try {
+            return resultado.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+    
+    private static final class ColaTurno {
+        
+        private final String turnoId;
+        private final Queue<Operacion<?>> pendientes = new ConcurrentLinkedQueue<>();
+        // Transacciones en pendientes; solo se lee y modifica dentro de colas.compute
+        private int transacciones;
+        
+        private ColaTurno(String turnoId) {
+            this.turnoId = turnoId;
+        }
+    }
+    
+    private static final class Operacion<T> {
+        
+        private final Transaccion transaccion;
+        private final AplicadorLote aplicador;
+        private final Supplier<T> accion;
+        private final CompletableFuture<T> resultado = new CompletableFuture<>();
+        
+        private Operacion(Transaccion transaccion, AplicadorLote aplicador, Supplier<T> accion) {
+            this.transaccion = transaccion;
+            this.aplicador = aplicador;
+            this.accion = accion;
+        }
+    }
+}
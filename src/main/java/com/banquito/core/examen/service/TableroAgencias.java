@@ -0,0 +1,167 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.model.TableroAgencia;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.repository.TurnoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tablero por agencia en memoria: turnos abiertos, efectivo esperado en caja, depósitos y retiros de los
+ * turnos abiertos y turnos cerrados con alerta. Se actualiza con cada apertura, movimiento y cierre de esta
+ * instancia y se reconstruye periódicamente desde Mongo, lo que corrige la deriva por otras instancias,
+ * reinicios o movimientos ocurridos durante la reconstrucción anterior.
+ */
+@Component
+@Slf4j
+public class TableroAgencias {
+    
+    private final TurnoRepository turnoRepository;
+    private volatile Map<String, Contadores> agencias = new ConcurrentHashMap<>();
+    private volatile LocalDateTime reconstruido;
+    
+    public TableroAgencias(TurnoRepository turnoRepository) {
+        this.turnoRepository = turnoRepository;
+    }
+    
+    public void turnoAbierto(Turno turno) {
+        Contadores contadores = contadores(turno.getAgencia());
+        if (contadores == null) return;
+        contadores.turnosAbiertos.increment();
+        contadores.efectivo.add(centavos(turno.getMontoCalculado()));
+    }
+    
+    public void turnoCerrado(Turno turno) {
+        turnoCerrado(turno.getAgencia(), turno.getMontoCalculado(), turno.getTotalDepositos(), turno.getTotalRetiros(),
+                Boolean.TRUE.equals(turno.getTieneAlerta()));
+    }
+    
+    /**
+     * Descuenta un turno cerrado con los montos que el tablero tenía sumados para él, que pueden no ser
+     * los guardados al cerrar (p. ej. cuando el cierre de fin de día corrige el saldo).
+     */
+    public void turnoCerrado(String agencia, BigDecimal efectivo, BigDecimal depositos, BigDecimal retiros, boolean alerta) {
+        Contadores contadores = contadores(agencia);
+        if (contadores == null) return;
+        contadores.turnosAbiertos.decrement();
+        contadores.efectivo.add(-centavos(efectivo));
+        contadores.depositos.add(-centavos(depositos));
+        contadores.retiros.add(-centavos(retiros));
+        if (alerta) {
+            contadores.alertas.increment();
+        }
+    }
+    
+    public void movimientosAplicados(List<Transaccion> transacciones) {
+        mover(transacciones, 1);
+    }
+    
+    public void movimientosRevertidos(List<Transaccion> transacciones) {
+        mover(transacciones, -1);
+    }
+    
+    private void mover(List<Transaccion> transacciones, int sentido) {
+        for (Transaccion transaccion : transacciones) {
+            Contadores contadores = contadores(transaccion.getAgencia());
+            if (contadores == null) continue;
+            long monto = sentido * centavos(transaccion.getMonto());
+            if (Transaccion.TIPO_DEPOSITO.equals(transaccion.getTipo())) {
+                contadores.depositos.add(monto);
+                contadores.efectivo.add(monto);
+            } else {
+                contadores.retiros.add(monto);
+                contadores.efectivo.add(-monto);
+            }
+        }
+    }
+    
+    public TableroAgencia porAgencia(String agencia) {
+        Contadores contadores = agencias.get(agencia);
+        return contadores != null ? contadores.aTablero(agencia, reconstruido) : vacio(agencia);
+    }
+    
+    public List<TableroAgencia> todas() {
+        List<TableroAgencia> tableros = new ArrayList<>();
+        new TreeMap<>(agencias).forEach((agencia, contadores) -> tableros.add(contadores.aTablero(agencia, reconstruido)));
+        return tableros;
+    }
+    
+    /**
+     * Reemplaza los contadores por los que calcula Mongo. Los movimientos aplicados mientras corre la
+     * agregación pueden perderse o contarse dos veces; la siguiente reconstrucción los corrige.
+     */
+    @Scheduled(fixedDelayString = "${banquito.tablero.reconstruccion:PT5M}")
+    public void reconstruir() {
+        try {
+            Map<String, Contadores> nuevas = new ConcurrentHashMap<>();
+            for (TableroAgencia fila : turnoRepository.resumirPorAgencia()) {
+                nuevas.put(fila.getAgencia(), Contadores.desde(fila));
+            }
+            agencias = nuevas;
+            reconstruido = LocalDateTime.now();
+            log.info("Tablero de agencias reconstruido: {} agencias", nuevas.size());
+        } catch (RuntimeException e) {
+            log.error("No se pudo reconstruir el tablero de agencias: {}", e.getMessage());
+        }
+    }
+    
+    private Contadores contadores(String agencia) {
+        return agencia != null ? agencias.computeIfAbsent(agencia, clave -> new Contadores()) : null;
+    }
+    
+    private TableroAgencia vacio(String agencia) {
+        TableroAgencia tablero = new TableroAgencia(agencia);
+        tablero.setReconstruido(reconstruido);
+        return tablero;
+    }
+    
+    // Los montos se acumulan en centavos para sumar sin bloqueo con LongAdder
+    private static long centavos(BigDecimal monto) {
+        return monto != null ? monto.movePointRight(2).longValue() : 0;
+    }
+    
+    private static BigDecimal monto(LongAdder centavos) {
+        return BigDecimal.valueOf(centavos.sum(), 2);
+    }
+    
+    private static final class Contadores {
+        
+        private final LongAdder turnosAbiertos = new LongAdder();
+        private final LongAdder efectivo = new LongAdder();
+        private final LongAdder depositos = new LongAdder();
+        private final LongAdder retiros = new LongAdder();
+        private final LongAdder alertas = new LongAdder();
+        
+        static Contadores desde(TableroAgencia fila) {
+            Contadores contadores = new Contadores();
+            contadores.turnosAbiertos.add(fila.getTurnosAbiertos());
+            contadores.efectivo.add(centavos(fila.getEfectivoEnCaja()));
+            contadores.depositos.add(centavos(fila.getTotalDepositos()));
+            contadores.retiros.add(centavos(fila.getTotalRetiros()));
+            contadores.alertas.add(fila.getAlertas());
+            return contadores;
+        }
+        
+        TableroAgencia aTablero(String agencia, LocalDateTime reconstruido) {
+            TableroAgencia tablero = new TableroAgencia(agencia);
+            tablero.setTurnosAbiertos(turnosAbiertos.sum());
+            tablero.setEfectivoEnCaja(monto(efectivo));
+            tablero.setTotalDepositos(monto(depositos));
+            tablero.setTotalRetiros(monto(retiros));
+            tablero.setAlertas(alertas.sum());
+            tablero.setReconstruido(reconstruido);
+            return tablero;
+        }
+    }
+}
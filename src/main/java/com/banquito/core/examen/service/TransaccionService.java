@@ -2,32 +2,73 @@ package com.banquito.core.examen.service;
 
 import com.banquito.core.examen.exception.NotFoundException;
 import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.exception.TurnoException;
+import com.banquito.core.examen.model.CursorTransaccion;
 import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.ResultadoTransaccionLote;
+import com.banquito.core.examen.model.TotalesTransacciones;
 import com.banquito.core.examen.model.Transaccion;
 import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.model.VectorDenominaciones;
+import com.banquito.core.examen.model.Ventana;
+import com.banquito.core.examen.repository.ResumenTransaccion;
 import com.banquito.core.examen.repository.TransaccionRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Slf4j
 public class TransaccionService {
     
+    private static final int TAMANIO_MAXIMO_HISTORIAL = 100;
+    private static final String SIN_BILLETES = "La caja no tiene billetes suficientes para el retiro";
+    
     private final TransaccionRepository transaccionRepository;
     private final TurnoService turnoService;
+    private final GeneradorCodigos generadorCodigos;
+    private final InventarioTurnos inventario;
+    private final SecuenciadorTurnos secuenciador;
+    private final SecuenciadorTurnos.AplicadorLote aplicadorLote;
+    private final MetricasOperaciones metricas;
+    private final ResumenHorarioService resumenesHorarios;
+    private final FeedSupervision feed;
+    private final Optional<DiarioTransacciones> diario;
     
-    public TransaccionService(TransaccionRepository transaccionRepository, @Lazy TurnoService turnoService) {
+    public TransaccionService(TransaccionRepository transaccionRepository, @Lazy TurnoService turnoService,
+                              GeneradorCodigos generadorCodigos, InventarioTurnos inventario, SecuenciadorTurnos secuenciador, MetricasOperaciones metricas,
+                              ResumenHorarioService resumenesHorarios, FeedSupervision feed,
+                              Optional<DiarioTransacciones> diario) {
         this.transaccionRepository = transaccionRepository;
         this.turnoService = turnoService;
+        this.generadorCodigos = generadorCodigos;
+        this.inventario = inventario;
+        this.secuenciador = secuenciador;
+        // Una sola instancia: el secuenciador solo agrupa transacciones con el mismo aplicador
+        this.aplicadorLote = this::aplicarLote;
+        this.metricas = metricas;
+        this.resumenesHorarios = resumenesHorarios;
+        this.feed = feed;
+        this.diario = diario;
     }
     
     public Transaccion procesarTransaccion(String turnoId, String tipo, BigDecimal monto, 
@@ -35,56 +76,245 @@ public class TransaccionService {
                                           String numeroCuenta, String observaciones) {
         log.info("Procesando transacción tipo: {} para turno: {}", tipo, turnoId);
         
-        // Validar que el turno existe y está abierto
-        Turno turno = turnoService.findById(turnoId);
-        if (!Turno.ESTADO_ABIERTO.equals(turno.getEstado())) {
+        Timer.Sample muestra = metricas.iniciar();
+        Turno turno = null;
+        try {
+            turno = turnoService.findAbiertoById(turnoId);
+            Transaccion transaccion = procesar(turno, tipo, monto, denominaciones, clienteId, numeroCuenta, observaciones);
+            metricas.registrarTransaccion(muestra, MetricasOperaciones.RUTA_UNITARIA, tipo, turno.getAgencia(), monto,
+                    MetricasOperaciones.EXITO);
+            return transaccion;
+        } catch (RuntimeException e) {
+            String agencia = turno == null ? null : turno.getAgencia();
+            metricas.registrarTransaccion(muestra, MetricasOperaciones.RUTA_UNITARIA, tipo, agencia, monto,
+                    MetricasOperaciones.resultado(e));
+            throw e;
+        }
+    }
+    
+    private Transaccion procesar(Turno turno, String tipo, BigDecimal monto, 
+                                 List<DetalleDenominacion> denominaciones, String clienteId, 
+                                 String numeroCuenta, String observaciones) {
+        validarTransaccion(turno, tipo, monto, denominaciones);
+        
+        Transaccion transaccion = construirTransaccion(turno, tipo, monto, denominaciones, 
+                clienteId, numeroCuenta, observaciones);
+        
+        // Se encola detrás de las operaciones pendientes del turno, incluido su cierre
+        return secuenciador.registrar(turno.getId(), transaccion, aplicadorLote);
+    }
+    
+    /**
+     * Encola una transacción ya validada en la cola de su turno, como {@link #procesarTransaccion},
+     * sin bloquear al llamador. Lo usa la API reactiva.
+     */
+    CompletableFuture<Transaccion> encolar(Transaccion transaccion) {
+        return secuenciador.registrarSinEsperar(transaccion.getTurnoId(), transaccion, aplicadorLote);
+    }
+    
+    /**
+     * Aplica juntas las transacciones consecutivas de un turno que agrupó el secuenciador:
+     * un solo incremento de saldo y una sola inserción bulk o, con el diario activo, una sola
+     * sincronización del diario (el saldo y el documento los aplica después {@link AplicadorDiario}).
+     */
+    private Map<Integer, RuntimeException> aplicarLote(String turnoId, List<Transaccion> transacciones) {
+        // Transacciones encoladas detrás del cierre: con el diario activo nada más impediría confirmarlas
+        if (inventario.estaCerrado(turnoId)) {
             throw new TransaccionException("Procesar transacción", "El turno no está abierto");
         }
         
-        // Validar tipo de transacción
-        if (!Transaccion.esValidoTipo(tipo)) {
-            throw new TransaccionException("Procesar transacción", "Tipo de transacción no válido");
+        // Los retiros que la caja no cubre se rechazan con las existencias en memoria, sin leer el historial
+        VectorDenominaciones existencias = inventario.obtener(turnoId, this::cargarExistencias);
+        Set<Integer> sinCobertura = InventarioTurnos.retirosSinCobertura(existencias, transacciones);
+        
+        Map<Integer, RuntimeException> errores = new HashMap<>();
+        List<Integer> posiciones = new ArrayList<>(transacciones.size());
+        List<Transaccion> aceptadas = new ArrayList<>(transacciones.size());
+        for (int i = 0; i < transacciones.size(); i++) {
+            if (sinCobertura.contains(i)) {
+                errores.put(i, new TransaccionException("Procesar transacción", SIN_BILLETES));
+            } else {
+                posiciones.add(i);
+                aceptadas.add(transacciones.get(i));
+            }
+        }
+        if (aceptadas.isEmpty()) {
+            return errores;
         }
         
-        // Validar monto
-        if (monto.compareTo(BigDecimal.ZERO) <= 0) {
-            throw new TransaccionException("Procesar transacción", "El monto debe ser mayor a cero");
+        // El ID se asigna aquí para devolverlo al cliente y para que reaplicar una entrada del diario no la duplique
+        aceptadas.forEach(transaccion -> transaccion.setId(new ObjectId().toHexString()));
+        
+        if (diario.isPresent()) {
+            try {
+                diario.get().registrarTodas(aceptadas);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo registrar la transacción en el diario", e);
+            }
+            inventario.actualizar(turnoId, existencias);
+            feed.publicarTransacciones(aceptadas);
+            log.info("{} transacciones registradas en el diario para el turno: {}", aceptadas.size(), turnoId);
+            return errores;
         }
         
-        // Validar denominaciones
-        if (denominaciones == null || denominaciones.isEmpty()) {
-            throw new TransaccionException("Procesar transacción", "Debe especificar las denominaciones");
+        // Actualiza el saldo del turno de forma atómica; falla si el turno se cerró entretanto
+        // o si Mongo no tiene los billetes (las existencias en memoria estaban desactualizadas)
+        try {
+            turnoService.registrarMovimientos(turnoId, aceptadas);
+        } catch (TurnoException e) {
+            throw new TransaccionException("Procesar transacción", "El turno no está abierto");
         }
         
-        // Validar que el monto coincida con las denominaciones
-        BigDecimal montoCalculado = denominaciones.stream()
-                .map(DetalleDenominacion::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        Map<Integer, String> rechazos;
+        try {
+            rechazos = transaccionRepository.insertarLote(aceptadas);
+        } catch (RuntimeException e) {
+            log.error("No se pudieron guardar las transacciones, revirtiendo saldo del turno: {}", turnoId);
+            turnoService.revertirMovimientos(turnoId, aceptadas);
+            throw e;
+        }
         
-        if (monto.compareTo(montoCalculado) != 0) {
-            throw new TransaccionException("Procesar transacción", 
-                    "El monto no coincide con las denominaciones especificadas");
+        List<Transaccion> guardadas = aceptadas;
+        if (rechazos.isEmpty()) {
+            inventario.actualizar(turnoId, existencias);
+        } else {
+            List<Transaccion> rechazadas = new ArrayList<>(rechazos.size());
+            rechazos.forEach((indice, motivo) -> {
+                rechazadas.add(aceptadas.get(indice));
+                errores.put(posiciones.get(indice), new TransaccionNoGuardada(motivo));
+            });
+            log.error("Revirtiendo saldo de {} transacciones no guardadas del turno: {}", rechazadas.size(), turnoId);
+            turnoService.revertirMovimientos(turnoId, rechazadas);
+            guardadas = new ArrayList<>(aceptadas.size() - rechazos.size());
+            for (int i = 0; i < aceptadas.size(); i++) {
+                if (!rechazos.containsKey(i)) {
+                    guardadas.add(aceptadas.get(i));
+                }
+            }
         }
+        resumenesHorarios.registrar(guardadas);
+        feed.publicarTransacciones(guardadas);
+        log.info("{} transacciones procesadas exitosamente para el turno: {}", aceptadas.size() - rechazos.size(), turnoId);
         
-        // Crear la transacción
-        Transaccion transaccion = new Transaccion();
-        transaccion.setCodigoTransaccion(generarCodigoTransaccion(turno.getCodigoCajero()));
-        transaccion.setTurnoId(turnoId);
-        transaccion.setCajeroId(turno.getCajeroId());
-        transaccion.setCodigoCajero(turno.getCodigoCajero());
-        transaccion.setCodigoCaja(turno.getCodigoCaja());
-        transaccion.setTipo(tipo);
-        transaccion.setMonto(monto);
-        transaccion.setDenominaciones(denominaciones);
-        transaccion.setClienteId(clienteId);
-        transaccion.setNumeroCuenta(numeroCuenta);
-        transaccion.setFechaTransaccion(LocalDateTime.now());
-        transaccion.setObservaciones(observaciones);
+        return errores;
+    }
+    
+    private Map<String, Integer> cargarExistencias(String turnoId) {
+        // Con el diario activo, Mongo refleja las transacciones confirmadas solo después de aplicarlas
+        try {
+            turnoService.esperarDiario("Procesar transacción");
+        } catch (TurnoException e) {
+            throw new TransaccionException("Procesar transacción", "Hay transacciones del diario pendientes de aplicar");
+        }
+        Turno turno = turnoService.findById(turnoId);
+        // El turno pudo cerrarse en otra instancia mientras seguía en la caché de turnos abiertos
+        if (!Turno.ESTADO_ABIERTO.equals(turno.getEstado())) {
+            inventario.marcarCerrado(turnoId);
+            throw new TransaccionException("Procesar transacción", "El turno no está abierto");
+        }
+        if (turno.getExistencias() != null) {
+            return turno.getExistencias();
+        }
+        // Turnos abiertos antes de llevar existencias
+        try {
+            // Se llama en la cola del turno: el recálculo no se vuelve a encolar
+            return turnoService.recalcularSaldoEnCurso(turnoId).getExistencias();
+        } catch (TurnoException e) {
+            throw new TransaccionException("Procesar transacción", "El turno no está abierto");
+        }
+    }
+    
+    public List<ResultadoTransaccionLote> procesarLote(List<Transaccion> solicitudes) {
+        log.info("Procesando lote de {} transacciones", solicitudes.size());
         
-        Transaccion transaccionGuardada = transaccionRepository.save(transaccion);
-        log.info("Transacción procesada exitosamente: {}", transaccionGuardada.getCodigoTransaccion());
+        Timer.Sample muestra = metricas.iniciar();
+        ResultadoTransaccionLote[] resultados = new ResultadoTransaccionLote[solicitudes.size()];
         
-        return transaccionGuardada;
+        // Una sola consulta para todos los turnos del lote
+        Set<String> turnoIds = new HashSet<>();
+        solicitudes.forEach(solicitud -> turnoIds.add(solicitud.getTurnoId()));
+        Map<String, Turno> turnos = new HashMap<>();
+        turnoService.findAllAbiertosById(turnoIds).forEach(turno -> turnos.put(turno.getId(), turno));
+        
+        // Valida cada solicitud y agrupa las válidas por turno
+        Map<String, List<Integer>> indicesPorTurno = new LinkedHashMap<>();
+        Transaccion[] transacciones = new Transaccion[solicitudes.size()];
+        for (int i = 0; i < solicitudes.size(); i++) {
+            Transaccion solicitud = solicitudes.get(i);
+            Turno turno = turnos.get(solicitud.getTurnoId());
+            try {
+                if (turno == null) {
+                    throw new NotFoundException(solicitud.getTurnoId(), "Turno");
+                }
+                validarTransaccion(turno, solicitud.getTipo(), solicitud.getMonto(), solicitud.getDenominaciones());
+                transacciones[i] = construirTransaccion(turno, solicitud.getTipo(), solicitud.getMonto(),
+                        solicitud.getDenominaciones(), solicitud.getClienteId(), solicitud.getNumeroCuenta(),
+                        solicitud.getObservaciones());
+                indicesPorTurno.computeIfAbsent(turno.getId(), id -> new ArrayList<>()).add(i);
+            } catch (NotFoundException | TransaccionException e) {
+                resultados[i] = ResultadoTransaccionLote.fallo(i, e.getMessage());
+            }
+        }
+        
+        // Las transacciones de cada turno entran juntas a su cola, como las de procesarTransaccion: quedan
+        // ordenadas respecto del cierre, pasan por el diario si está activo y se aplican con una sola escritura
+        Map<Integer, CompletableFuture<Transaccion>> pendientes = new LinkedHashMap<>();
+        indicesPorTurno.forEach((turnoId, indices) -> {
+            List<CompletableFuture<Transaccion>> encoladas =
+                    secuenciador.registrarTodasSinEsperar(turnoId, seleccionar(transacciones, indices), aplicadorLote);
+            for (int j = 0; j < indices.size(); j++) {
+                pendientes.put(indices.get(j), encoladas.get(j));
+            }
+        });
+        
+        Set<Integer> noGuardadas = new HashSet<>();
+        RuntimeException falla = null;
+        int exitosas = 0;
+        for (Map.Entry<Integer, CompletableFuture<Transaccion>> pendiente : pendientes.entrySet()) {
+            int indice = pendiente.getKey();
+            try {
+                resultados[indice] = ResultadoTransaccionLote.exito(indice, SecuenciadorTurnos.esperar(pendiente.getValue()));
+                exitosas++;
+            } catch (RuntimeException e) {
+                resultados[indice] = ResultadoTransaccionLote.fallo(indice, e.getMessage());
+                boolean rechazada = MetricasOperaciones.RECHAZADA.equals(MetricasOperaciones.resultado(e));
+                if (e instanceof TransaccionNoGuardada || !rechazada) {
+                    noGuardadas.add(indice);
+                }
+                if (!rechazada) {
+                    falla = e;
+                }
+            }
+        }
+        registrarMetricasLote(muestra, solicitudes, turnos, resultados, noGuardadas, MetricasOperaciones.ERROR);
+        
+        // Si no se aplicó ninguna, el lote no tuvo efecto y la falla se propaga para que se reintente completo
+        if (falla != null && exitosas == 0) {
+            throw falla;
+        }
+        
+        log.info("Lote procesado: {} exitosas de {}", exitosas, solicitudes.size());
+        return Arrays.asList(resultados);
+    }
+    
+    // Cada transacción del lote se registra con la duración del lote completo, que es lo que espera quien lo envía
+    private void registrarMetricasLote(Timer.Sample muestra, List<Transaccion> solicitudes, Map<String, Turno> turnos,
+                                       ResultadoTransaccionLote[] resultados, Set<Integer> noGuardadas,
+                                       String sinResultado) {
+        for (int i = 0; i < solicitudes.size(); i++) {
+            Transaccion solicitud = solicitudes.get(i);
+            Turno turno = turnos.get(solicitud.getTurnoId());
+            String resultado;
+            if (resultados[i] == null) {
+                resultado = sinResultado;
+            } else if (Boolean.TRUE.equals(resultados[i].getExitosa())) {
+                resultado = MetricasOperaciones.EXITO;
+            } else {
+                resultado = noGuardadas.contains(i) ? MetricasOperaciones.ERROR : MetricasOperaciones.RECHAZADA;
+            }
+            metricas.registrarTransaccion(muestra, MetricasOperaciones.RUTA_LOTE, solicitud.getTipo(),
+                    turno == null ? null : turno.getAgencia(), solicitud.getMonto(), resultado);
+        }
     }
     
     public Transaccion findById(String id) {
@@ -110,9 +340,9 @@ public class TransaccionService {
         return transaccionRepository.findByTurnoIdOrderByFechaTransaccionDesc(turnoId);
     }
     
-    public Page<Transaccion> findByTurnoId(String turnoId, Pageable pageable) {
+    public Page<ResumenTransaccion> findByTurnoId(String turnoId, Pageable pageable) {
         log.info("Buscando transacciones por turno paginadas: {}", turnoId);
-        return transaccionRepository.findByTurnoIdOrderByFechaTransaccionDesc(turnoId, pageable);
+        return transaccionRepository.findResumenByTurnoIdOrderByFechaTransaccionDesc(turnoId, pageable);
     }
     
     public List<Transaccion> findByCajeroId(String cajeroId) {
@@ -120,9 +350,9 @@ public class TransaccionService {
         return transaccionRepository.findByCajeroId(cajeroId);
     }
     
-    public Page<Transaccion> findByCajeroId(String cajeroId, Pageable pageable) {
+    public Page<ResumenTransaccion> findByCajeroId(String cajeroId, Pageable pageable) {
         log.info("Buscando transacciones por cajero paginadas: {}", cajeroId);
-        return transaccionRepository.findByCajeroId(cajeroId, pageable);
+        return transaccionRepository.findResumenByCajeroId(cajeroId, pageable);
     }
     
     public List<Transaccion> findByClienteId(String clienteId) {
@@ -130,9 +360,9 @@ public class TransaccionService {
         return transaccionRepository.findByClienteId(clienteId);
     }
     
-    public Page<Transaccion> findByClienteId(String clienteId, Pageable pageable) {
+    public Page<ResumenTransaccion> findByClienteId(String clienteId, Pageable pageable) {
         log.info("Buscando transacciones por cliente paginadas: {}", clienteId);
-        return transaccionRepository.findByClienteId(clienteId, pageable);
+        return transaccionRepository.findResumenByClienteId(clienteId, pageable);
     }
     
     public List<Transaccion> findByTurnoIdAndTipo(String turnoId, String tipo) {
@@ -140,16 +370,119 @@ public class TransaccionService {
         return transaccionRepository.findByTurnoIdAndTipo(turnoId, tipo);
     }
     
-    public Page<Transaccion> findByTurnoIdAndTipo(String turnoId, String tipo, Pageable pageable) {
+    public Page<ResumenTransaccion> findByTurnoIdAndTipo(String turnoId, String tipo, Pageable pageable) {
         log.info("Buscando transacciones por turno y tipo paginadas");
-        return transaccionRepository.findByTurnoIdAndTipo(turnoId, tipo, pageable);
+        return transaccionRepository.findResumenByTurnoIdAndTipo(turnoId, tipo, pageable);
+    }
+    
+    public Ventana<ResumenTransaccion> findHistorialByTurnoId(String turnoId, String cursor, int tamanio) {
+        log.info("Buscando historial de transacciones por turno: {}", turnoId);
+        return buscarHistorial("turnoId", turnoId, cursor, tamanio);
+    }
+    
+    public Ventana<ResumenTransaccion> findHistorialByCajeroId(String cajeroId, String cursor, int tamanio) {
+        log.info("Buscando historial de transacciones por cajero: {}", cajeroId);
+        return buscarHistorial("cajeroId", cajeroId, cursor, tamanio);
+    }
+    
+    public Ventana<ResumenTransaccion> findHistorialByClienteId(String clienteId, String cursor, int tamanio) {
+        log.info("Buscando historial de transacciones por cliente: {}", clienteId);
+        return buscarHistorial("clienteId", clienteId, cursor, tamanio);
+    }
+    
+    private Ventana<ResumenTransaccion> buscarHistorial(String campo, String valor, String cursor, int tamanio) {
+        int limite = Math.max(1, Math.min(tamanio, TAMANIO_MAXIMO_HISTORIAL));
+        CursorTransaccion despuesDe = cursor == null || cursor.isBlank() ? null : CursorTransaccion.decodificar(cursor);
+        
+        // Se pide un elemento extra solo para saber si existe una página siguiente
+        List<ResumenTransaccion> resultado = transaccionRepository.buscarHistorial(campo, valor, despuesDe, limite + 1);
+        if (resultado.size() <= limite) {
+            return new Ventana<>(resultado, null);
+        }
+        List<ResumenTransaccion> contenido = resultado.subList(0, limite);
+        ResumenTransaccion ultima = contenido.get(limite - 1);
+        return new Ventana<>(contenido, new CursorTransaccion(ultima.getFechaTransaccion(), ultima.getId()).codificar());
+    }
+    
+    public TotalesTransacciones calcularTotalesPorTipo(String turnoId) {
+        log.info("Calculando totales por tipo para turno: {}", turnoId);
+        return transaccionRepository.sumarPorTipoYDenominacion(turnoId);
+    }
+    
+    void validarTransaccion(Turno turno, String tipo, BigDecimal monto, List<DetalleDenominacion> denominaciones) {
+        // Validar que el turno está abierto
+        if (!Turno.ESTADO_ABIERTO.equals(turno.getEstado())) {
+            throw new TransaccionException("Procesar transacción", "El turno no está abierto");
+        }
+        
+        // Validar tipo de transacción
+        if (!Transaccion.esValidoTipo(tipo)) {
+            throw new TransaccionException("Procesar transacción", "Tipo de transacción no válido");
+        }
+        
+        // Validar monto
+        if (monto == null || monto.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new TransaccionException("Procesar transacción", "El monto debe ser mayor a cero");
+        }
+        
+        // Validar denominaciones
+        if (denominaciones == null || denominaciones.isEmpty()) {
+            throw new TransaccionException("Procesar transacción", "Debe especificar las denominaciones");
+        }
+        
+        // Validar cantidades: una negativa restaría billetes en un depósito y los sumaría en un retiro
+        for (DetalleDenominacion detalle : denominaciones) {
+            if (detalle.getCantidad() == null || detalle.getCantidad() <= 0) {
+                throw new TransaccionException("Procesar transacción",
+                        "La cantidad de cada denominación debe ser mayor a cero");
+            }
+        }
+        
+        // Validar que el monto coincida con las denominaciones
+        long montoCalculado;
+        try {
+            montoCalculado = VectorDenominaciones.total(denominaciones);
+        } catch (IllegalArgumentException e) {
+            throw new TransaccionException("Procesar transacción", e.getMessage());
+        }
+        
+        if (monto.compareTo(BigDecimal.valueOf(montoCalculado)) != 0) {
+            throw new TransaccionException("Procesar transacción", 
+                    "El monto no coincide con las denominaciones especificadas");
+        }
+    }
+    
+    Transaccion construirTransaccion(Turno turno, String tipo, BigDecimal monto, 
+                                     List<DetalleDenominacion> denominaciones, String clienteId, 
+                                     String numeroCuenta, String observaciones) {
+        Transaccion transaccion = new Transaccion();
+        transaccion.setCodigoTransaccion(generadorCodigos.codigoTransaccion(turno.getCodigoCajero()));
+        transaccion.setTurnoId(turno.getId());
+        transaccion.setCajeroId(turno.getCajeroId());
+        transaccion.setCodigoCajero(turno.getCodigoCajero());
+        transaccion.setCodigoCaja(turno.getCodigoCaja());
+        transaccion.setAgencia(turno.getAgencia());
+        transaccion.setTipo(tipo);
+        transaccion.setMonto(monto);
+        transaccion.setDenominaciones(denominaciones);
+        transaccion.setClienteId(clienteId);
+        transaccion.setNumeroCuenta(numeroCuenta);
+        transaccion.setFechaTransaccion(LocalDateTime.now());
+        transaccion.setObservaciones(observaciones);
+        return transaccion;
     }
     
-    private String generarCodigoTransaccion(String codigoCajero) {
-        LocalDateTime ahora = LocalDateTime.now();
-        String fecha = ahora.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String hora = ahora.format(DateTimeFormatter.ofPattern("HHmmss"));
-        return String.format("TXN-%s-%s-%s", codigoCajero, fecha, hora);
+    // Transacción aceptada que Mongo no guardó (p. ej. código duplicado): no es un rechazo por reglas del negocio
+    private static final class TransaccionNoGuardada extends TransaccionException {
+        
+        private TransaccionNoGuardada(String motivo) {
+            super("Procesar transacción", motivo);
+        }
+    }
+    
+    private static List<Transaccion> seleccionar(Transaccion[] transacciones, List<Integer> indices) {
+        List<Transaccion> seleccionadas = new ArrayList<>(indices.size());
+        indices.forEach(i -> seleccionadas.add(transacciones[i]));
+        return seleccionadas;
     }
 } 
-
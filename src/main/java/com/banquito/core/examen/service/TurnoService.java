@@ -1,23 +1,41 @@
 package com.banquito.core.examen.service;
 
 import com.banquito.core.examen.exception.NotFoundException;
+import com.banquito.core.examen.exception.TransaccionException;
 import com.banquito.core.examen.exception.TurnoException;
 import com.banquito.core.examen.model.Cajero;
 import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.DiferenciaCierre;
+import com.banquito.core.examen.model.ResumenCierreAgencia;
+import com.banquito.core.examen.model.TableroAgencia;
+import com.banquito.core.examen.model.TotalesTransacciones;
 import com.banquito.core.examen.model.Transaccion;
 import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.model.VectorDenominaciones;
+import com.banquito.core.examen.repository.ResumenTurno;
 import com.banquito.core.examen.repository.TurnoRepository;
 import com.banquito.core.examen.repository.TransaccionRepository;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 @Service
 @Slf4j
@@ -26,19 +44,60 @@ public class TurnoService {
     private final TurnoRepository turnoRepository;
     private final CajeroService cajeroService;
     private final TransaccionRepository transaccionRepository;
+    private final GeneradorCodigos generadorCodigos;
+    private final CacheTurnosAbiertos cacheTurnosAbiertos;
+    private final InventarioTurnos inventario;
+    private final CerrojosTurnos cerrojos;
+    private final SecuenciadorTurnos secuenciador;
+    private final TableroAgencias tablero;
+    private final FeedSupervision feed;
+    private final MetricasOperaciones metricas;
+    private final Optional<DiarioTransacciones> diario;
+    private final Duration esperaDiario;
     
-    public TurnoService(TurnoRepository turnoRepository, CajeroService cajeroService, TransaccionRepository transaccionRepository) {
+    public TurnoService(TurnoRepository turnoRepository, CajeroService cajeroService, TransaccionRepository transaccionRepository,
+                        GeneradorCodigos generadorCodigos, CacheTurnosAbiertos cacheTurnosAbiertos,
+                        InventarioTurnos inventario, CerrojosTurnos cerrojos, SecuenciadorTurnos secuenciador, MetricasOperaciones metricas,
+                        TableroAgencias tablero, FeedSupervision feed, Optional<DiarioTransacciones> diario,
+                        @Value("${banquito.diario.espera-aplicacion:PT10S}") Duration esperaDiario) {
         this.turnoRepository = turnoRepository;
         this.cajeroService = cajeroService;
         this.transaccionRepository = transaccionRepository;
+        this.generadorCodigos = generadorCodigos;
+        this.cacheTurnosAbiertos = cacheTurnosAbiertos;
+        this.inventario = inventario;
+        this.cerrojos = cerrojos;
+        this.secuenciador = secuenciador;
+        this.tablero = tablero;
+        this.feed = feed;
+        this.metricas = metricas;
+        this.diario = diario;
+        this.esperaDiario = esperaDiario;
     }
     
     public Turno abrirTurno(String codigoCajero, List<DetalleDenominacion> dineroInicial, String observaciones) {
         log.info("Iniciando apertura de turno para cajero: {}", codigoCajero);
         
+        Timer.Sample muestra = metricas.iniciar();
+        try {
+            Turno turno = abrir(codigoCajero, dineroInicial, observaciones);
+            metricas.registrarApertura(muestra, turno.getAgencia(), MetricasOperaciones.EXITO);
+            return turno;
+        } catch (RuntimeException e) {
+            metricas.registrarApertura(muestra, null, MetricasOperaciones.resultado(e));
+            throw e;
+        }
+    }
+    
+    private Turno abrir(String codigoCajero, List<DetalleDenominacion> dineroInicial, String observaciones) {
         // Validar que el cajero existe y está activo
         Cajero cajero = cajeroService.findByCodigoActivo(codigoCajero);
         
+        // La verificación y la inserción no pueden intercalarse con otra apertura del mismo cajero
+        return cerrojos.conCajero(cajero.getId(), () -> abrirParaCajero(cajero, dineroInicial, observaciones));
+    }
+    
+    private Turno abrirParaCajero(Cajero cajero, List<DetalleDenominacion> dineroInicial, String observaciones) {
         // Validar que el cajero no tenga un turno abierto
         Optional<Turno> turnoAbierto = turnoRepository.findByCajeroIdAndEstado(cajero.getId(), Turno.ESTADO_ABIERTO);
         if (turnoAbierto.isPresent()) {
@@ -52,7 +111,7 @@ public class TurnoService {
         
         // Crear el turno
         Turno turno = new Turno();
-        turno.setCodigoTurno(generarCodigoTurno(cajero.getCodigoCaja(), cajero.getCodigo()));
+        turno.setCodigoTurno(generadorCodigos.codigoTurno(cajero.getCodigoCaja(), cajero.getCodigo()));
         turno.setCajeroId(cajero.getId());
         turno.setCodigoCajero(cajero.getCodigo());
         turno.setCodigoCaja(cajero.getCodigoCaja());
@@ -61,10 +120,21 @@ public class TurnoService {
         turno.setFechaApertura(LocalDateTime.now());
         turno.setDineroInicial(dineroInicial);
         turno.setMontoCalculado(turno.calcularMontoInicial());
+        turno.setTotalDepositos(BigDecimal.ZERO);
+        turno.setTotalRetiros(BigDecimal.ZERO);
+        turno.setExistencias(VectorDenominaciones.desde(dineroInicial).aMapa());
         turno.setTieneAlerta(false);
         turno.setObservaciones(observaciones);
         
-        Turno turnoGuardado = turnoRepository.save(turno);
+        Turno turnoGuardado;
+        try {
+            turnoGuardado = turnoRepository.save(turno);
+        } catch (DuplicateKeyException e) {
+            // Otra instancia abrió un turno para el cajero después de la verificación (índice cajero_abierto_unico)
+            throw new TurnoException("Apertura de turno", "El cajero ya tiene un turno abierto");
+        }
+        cacheTurnosAbiertos.registrar(turnoGuardado);
+        tablero.turnoAbierto(turnoGuardado);
         log.info("Turno abierto exitosamente: {}", turnoGuardado.getCodigoTurno());
         
         return turnoGuardado;
@@ -73,8 +143,32 @@ public class TurnoService {
     public Turno cerrarTurno(String codigoTurno, List<DetalleDenominacion> dineroFinal, String observaciones) {
         log.info("Iniciando cierre de turno: {}", codigoTurno);
         
+        Timer.Sample muestra = metricas.iniciar();
+        try {
+            Turno turno = cerrar(codigoTurno, dineroFinal, observaciones);
+            metricas.registrarCierre(muestra, turno, MetricasOperaciones.EXITO);
+            return turno;
+        } catch (RuntimeException e) {
+            metricas.registrarCierre(muestra, null, MetricasOperaciones.resultado(e));
+            throw e;
+        }
+    }
+    
+    private Turno cerrar(String codigoTurno, List<DetalleDenominacion> dineroFinal, String observaciones) {
+        // El cierre pasa por la cola del turno: se ejecuta después de las transacciones ya encoladas
+        // y ninguna puede aplicarse entre la lectura del saldo y el cierre
+        String turnoId = findByCodigoTurno(codigoTurno).getId();
+        return secuenciador.ejecutar(turnoId, () -> cerrarEnCola(turnoId, dineroFinal, observaciones));
+    }
+    
+    private Turno cerrarEnCola(String turnoId, List<DetalleDenominacion> dineroFinal, String observaciones) {
+        // Con el diario activo, el saldo solo está completo cuando se aplicaron las transacciones pendientes
+        if (diario.isPresent()) {
+            esperarDiario("Cierre de turno");
+        }
+        
         // Buscar el turno
-        Turno turno = findByCodigoTurno(codigoTurno);
+        Turno turno = findById(turnoId);
         
         // Validar que el turno esté abierto
         if (!Turno.ESTADO_ABIERTO.equals(turno.getEstado())) {
@@ -86,13 +180,11 @@ public class TurnoService {
             throw new TurnoException("Cierre de turno", "Debe especificar el dinero final");
         }
         
-        // Calcular monto esperado basado en transacciones
-        BigDecimal montoEsperado = calcularMontoEsperado(turno.getId());
+        // El monto esperado se mantiene al día con cada transacción
+        BigDecimal montoEsperado = turno.getMontoCalculado();
         
         // Calcular monto declarado
-        BigDecimal montoDeclarado = dineroFinal.stream()
-                .map(DetalleDenominacion::getValorTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal montoDeclarado = BigDecimal.valueOf(VectorDenominaciones.total(dineroFinal));
         
         // Calcular diferencia
         BigDecimal diferencia = montoDeclarado.subtract(montoEsperado);
@@ -111,9 +203,24 @@ public class TurnoService {
             turno.setObservaciones(observacionesActuales + " | Cierre: " + observaciones);
         }
         
-        Turno turnoCerrado = turnoRepository.save(turno);
+        // Sin versión, save() insertaría el turno en lugar de actualizarlo
+        if (turno.getVersion() == null) {
+            throw new TurnoException("Cierre de turno", "El turno no tiene versión, falta aplicar las migraciones");
+        }
+        
+        Turno turnoCerrado;
+        try {
+            turnoCerrado = turnoRepository.save(turno);
+        } catch (OptimisticLockingFailureException e) {
+            // El saldo cambió desde otra instancia después de leerlo
+            throw new TurnoException("Cierre de turno", "El turno se modificó durante el cierre, intente nuevamente");
+        }
+        cacheTurnosAbiertos.desalojar(turnoCerrado);
+        inventario.marcarCerrado(turnoCerrado.getId());
+        tablero.turnoCerrado(turnoCerrado);
         
         if (turnoCerrado.getTieneAlerta()) {
+            feed.publicarAlerta(turnoCerrado);
             log.warn("Turno cerrado con diferencia: {} - Diferencia: {}", 
                     turnoCerrado.getCodigoTurno(), diferencia);
         } else {
@@ -123,6 +230,282 @@ public class TurnoService {
         return turnoCerrado;
     }
     
+    public List<String> findAgenciasConTurnosAbiertos() {
+        return turnoRepository.findAgenciasConTurnosAbiertos();
+    }
+    
+    /**
+     * Cierre de fin de día de los turnos abiertos de una agencia. Cada turno se concilia en su cola, en paralelo
+     * sobre {@code ejecutor}, sumando sus transacciones en Mongo; luego todos se cierran con una sola escritura bulk.
+     * Un turno que recibe una transacción entre la conciliación y la escritura cambia de versión, sigue abierto
+     * y se cuenta como omitido.
+     */
+    public ResumenCierreAgencia cerrarAgenciaFinDeDia(String agencia, LocalDateTime fechaCierre, ExecutorService ejecutor) {
+        List<Turno> abiertos = turnoRepository.findByAgenciaAndEstado(agencia, Turno.ESTADO_ABIERTO);
+        log.info("Cierre de fin de día de la agencia {}: {} turnos abiertos", agencia, abiertos.size());
+        
+        List<Future<Conciliacion>> pendientes = new ArrayList<>(abiertos.size());
+        for (Turno turno : abiertos) {
+            pendientes.add(ejecutor.submit(() ->
+                    secuenciador.ejecutar(turno.getId(), () -> conciliarParaCierre(turno.getId(), fechaCierre))));
+        }
+        
+        ResumenCierreAgencia resumen = new ResumenCierreAgencia(agencia);
+        List<Conciliacion> conciliaciones = new ArrayList<>(abiertos.size());
+        for (int i = 0; i < pendientes.size(); i++) {
+            try {
+                Conciliacion conciliacion = pendientes.get(i).get();
+                if (conciliacion != null) {
+                    conciliaciones.add(conciliacion);
+                }
+            } catch (ExecutionException e) {
+                log.error("No se pudo conciliar el turno {}: {}", abiertos.get(i).getCodigoTurno(), e.getCause().getMessage());
+                resumen.setTurnosOmitidos(resumen.getTurnosOmitidos() + 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TurnoException("Cierre de fin de día", "Interrumpido conciliando la agencia " + agencia);
+            }
+        }
+        
+        Set<String> cerrados;
+        try {
+            cerrados = turnoRepository.cerrarConciliados(conciliaciones.stream().map(Conciliacion::turno).toList(), fechaCierre);
+        } catch (RuntimeException e) {
+            conciliaciones.forEach(conciliacion -> inventario.desmarcarCerrado(conciliacion.turno().getId()));
+            throw e;
+        }
+        for (Conciliacion conciliacion : conciliaciones) {
+            Turno turno = conciliacion.turno();
+            if (!cerrados.contains(turno.getId())) {
+                log.warn("Turno {} modificado durante el cierre de fin de día; queda abierto", turno.getCodigoTurno());
+                inventario.desmarcarCerrado(turno.getId());
+                resumen.setTurnosOmitidos(resumen.getTurnosOmitidos() + 1);
+                continue;
+            }
+            cacheTurnosAbiertos.desalojar(turno);
+            // El tablero descuenta lo que sumó con cada movimiento, no el saldo conciliado
+            tablero.turnoCerrado(turno.getAgencia(), conciliacion.montoAcumulado(),
+                    conciliacion.depositosAcumulados(), conciliacion.retirosAcumulados(), false);
+            resumen.setTurnosCerrados(resumen.getTurnosCerrados() + 1);
+            if (turno.getDeriva() != null) {
+                log.warn("Turno {} cerrado con deriva entre saldo acumulado y transacciones: {}",
+                        turno.getCodigoTurno(), turno.getDeriva());
+                resumen.agregarDiferencia(new DiferenciaCierre(turno.getCodigoTurno(), turno.getCodigoCajero(),
+                        conciliacion.montoAcumulado(), turno.getMontoCalculado(), turno.getDeriva()));
+            }
+        }
+        return resumen;
+    }
+    
+    /**
+     * Recalcula el saldo del turno desde sus transacciones y lo deja con los datos de cierre, sin guardarlo.
+     * Devuelve null si el turno ya no está abierto.
+     */
+    private Conciliacion conciliarParaCierre(String turnoId, LocalDateTime fechaCierre) {
+        // Como en cerrarEnCola: el diario pudo confirmar transacciones del turno después de iniciado el cierre
+        esperarDiario("Cierre de fin de día");
+        
+        Optional<Turno> encontrado = turnoRepository.findById(turnoId);
+        if (encontrado.isEmpty() || !Turno.ESTADO_ABIERTO.equals(encontrado.get().getEstado())) {
+            return null;
+        }
+        Turno turno = encontrado.get();
+        BigDecimal montoAcumulado = turno.getMontoCalculado() != null ? turno.getMontoCalculado() : BigDecimal.ZERO;
+        BigDecimal depositosAcumulados = turno.getTotalDepositos();
+        BigDecimal retirosAcumulados = turno.getTotalRetiros();
+        
+        TotalesTransacciones totales = transaccionRepository.sumarPorTipoYDenominacion(turnoId);
+        VectorDenominaciones existencias = VectorDenominaciones.desde(turno.getDineroInicial())
+                .sumar(totales.getDepositos())
+                .restar(totales.getRetiros());
+        BigDecimal montoConciliado = existencias.totalMonto();
+        boolean conDiferencia = montoConciliado.compareTo(montoAcumulado) != 0;
+        
+        String observacion = conDiferencia
+                ? "Cierre de fin de día: saldo acumulado " + montoAcumulado + " difiere de las transacciones " + montoConciliado
+                : "Cierre de fin de día";
+        turno.setObservaciones(turno.getObservaciones() != null ? turno.getObservaciones() + " | " + observacion : observacion);
+        turno.setEstado(Turno.ESTADO_CERRADO);
+        turno.setFechaCierre(fechaCierre);
+        turno.setMontoCalculado(montoConciliado);
+        turno.setTotalDepositos(totales.getTotalDepositos());
+        turno.setTotalRetiros(totales.getTotalRetiros());
+        turno.setExistencias(existencias.aMapa());
+        // Sin dinero declarado no hay diferencia de caja; la deriva interna se guarda aparte
+        turno.setTieneAlerta(false);
+        turno.setDeriva(conDiferencia ? montoAcumulado.subtract(montoConciliado) : null);
+        // Desde aquí el turno no acepta transacciones; si al final sigue abierto se quita la marca
+        inventario.marcarCerrado(turnoId);
+        return new Conciliacion(turno, montoAcumulado, depositosAcumulados, retirosAcumulados);
+    }
+    
+    // Turno conciliado junto con los totales que tenía al leerlo, que son los que sumó el tablero
+    private record Conciliacion(Turno turno, BigDecimal montoAcumulado,
+                                BigDecimal depositosAcumulados, BigDecimal retirosAcumulados) {
+    }
+    
+    /**
+     * Con el diario activo, espera a que Mongo refleje todas las transacciones ya confirmadas.
+     */
+    public void esperarDiario(String operacion) {
+        if (diario.isEmpty()) {
+            return;
+        }
+        try {
+            if (!diario.get().esperarAplicacion(esperaDiario)) {
+                throw new TurnoException(operacion, "Hay transacciones del diario pendientes de aplicar");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TurnoException(operacion, "Interrumpido esperando el diario de transacciones");
+        }
+    }
+    
+    public void registrarMovimiento(Transaccion transaccion) {
+        registrarMovimientos(transaccion.getTurnoId(), List.of(transaccion));
+    }
+    
+    public void registrarMovimientos(String turnoId, List<Transaccion> transacciones) {
+        if (!turnoRepository.aplicarMovimientos(turnoId, transacciones)) {
+            // El filtro falla por turno cerrado o por billetes insuficientes; solo en ese caso se consulta cuál fue
+            Optional<Turno> turno = turnoRepository.findById(turnoId);
+            inventario.desalojar(turnoId);
+            if (turno.isPresent() && Turno.ESTADO_ABIERTO.equals(turno.get().getEstado())) {
+                throw new TransaccionException("Registro de movimiento", "La caja no tiene billetes suficientes para el retiro");
+            }
+            cacheTurnosAbiertos.desalojar(turnoId);
+            inventario.marcarCerrado(turnoId);
+            throw new TurnoException("Registro de movimiento", "El turno no existe o no está abierto");
+        }
+        tablero.movimientosAplicados(transacciones);
+    }
+    
+    public void registrarMovimientosConfirmados(String turnoId, List<Transaccion> transacciones) {
+        if (!turnoRepository.aplicarMovimientosConfirmados(turnoId, transacciones)) {
+            // Cerrado en otra instancia: las siguientes transacciones del turno se rechazan antes del diario
+            cacheTurnosAbiertos.desalojar(turnoId);
+            inventario.marcarCerrado(turnoId);
+            throw new TurnoException("Registro de movimiento", "El turno no existe o no está abierto");
+        }
+        tablero.movimientosAplicados(transacciones);
+    }
+    
+    public void revertirMovimientos(String turnoId, List<Transaccion> transacciones) {
+        turnoRepository.revertirMovimientos(turnoId, transacciones);
+        inventario.desalojar(turnoId);
+        tablero.movimientosRevertidos(transacciones);
+    }
+    
+    /**
+     * Devuelve el turno desde la caché de turnos abiertos y, si no está, lo consulta en Mongo.
+     * El turno devuelto puede estar cerrado; la validación del estado queda a cargo del llamador.
+     */
+    public Turno findAbiertoById(String id) {
+        Optional<Turno> enCache = cacheTurnosAbiertos.porId(id);
+        if (enCache.isPresent()) {
+            return enCache.get();
+        }
+        Turno turno = findById(id);
+        cacheTurnosAbiertos.registrar(turno);
+        return turno;
+    }
+    
+    public List<Turno> findAllAbiertosById(Collection<String> ids) {
+        List<Turno> turnos = new ArrayList<>(ids.size());
+        List<String> faltantes = new ArrayList<>();
+        for (String id : ids) {
+            cacheTurnosAbiertos.porId(id).ifPresentOrElse(turnos::add, () -> faltantes.add(id));
+        }
+        if (!faltantes.isEmpty()) {
+            log.info("Buscando {} turnos por ID", faltantes.size());
+            for (Turno turno : turnoRepository.findAllById(faltantes)) {
+                cacheTurnosAbiertos.registrar(turno);
+                turnos.add(turno);
+            }
+        }
+        return turnos;
+    }
+    
+    public TableroAgencia obtenerTablero(String agencia) {
+        return tablero.porAgencia(agencia);
+    }
+    
+    public List<TableroAgencia> obtenerTableros() {
+        return tablero.todas();
+    }
+    
+    public BigDecimal calcularMontoEsperado(String turnoId) {
+        log.info("Consultando monto esperado para turno: {}", turnoId);
+        return findById(turnoId).getMontoCalculado();
+    }
+    
+    public Turno recalcularSaldo(String codigoTurno) {
+        log.info("Recalculando saldo del turno para auditoría: {}", codigoTurno);
+        return recalcularEnCola(findByCodigoTurno(codigoTurno).getId());
+    }
+    
+    public Turno recalcularSaldoPorId(String turnoId) {
+        log.info("Recalculando saldo del turno con ID: {}", turnoId);
+        return recalcularEnCola(turnoId);
+    }
+    
+    /**
+     * Para {@link AplicadorDiario} al reaplicar entradas. No pasa por la cola del turno: una operación en cola
+     * puede estar esperando al diario, es decir a este mismo aplicador. No hace falta: con el diario activo
+     * solo el aplicador escribe el saldo, y quien lo lee en la cola espera a que el aplicador confirme el lote.
+     */
+    public Turno recalcularSaldoAlReaplicar(String turnoId) {
+        log.info("Recalculando saldo del turno con ID al reaplicar el diario: {}", turnoId);
+        return recalcular(findById(turnoId));
+    }
+    
+    /**
+     * Solo desde una operación que ya tiene el turno (en su cola o bajo su cerrojo) y que ya esperó al diario;
+     * encolarla de nuevo esperaría a la misma operación que la llama.
+     */
+    public Turno recalcularSaldoEnCurso(String turnoId) {
+        log.info("Recalculando saldo del turno con ID: {}", turnoId);
+        return recalcular(findById(turnoId));
+    }
+    
+    private Turno recalcularEnCola(String turnoId) {
+        // Ninguna transacción puede aplicarse entre la suma de las transacciones y el reemplazo del saldo
+        return secuenciador.ejecutar(turnoId, () -> {
+            esperarDiario("Recalcular saldo");
+            return recalcular(findById(turnoId));
+        });
+    }
+    
+    private Turno recalcular(Turno turno) {
+        if (!Turno.ESTADO_ABIERTO.equals(turno.getEstado())) {
+            throw new TurnoException("Recalcular saldo", "El turno no está abierto");
+        }
+        
+        // Las sumas por tipo y denominación se calculan en Mongo; no se cargan las transacciones
+        TotalesTransacciones totales = transaccionRepository.sumarPorTipoYDenominacion(turno.getId());
+        VectorDenominaciones depositos = totales.getDepositos();
+        VectorDenominaciones retiros = totales.getRetiros();
+        
+        VectorDenominaciones existencias = VectorDenominaciones.desde(turno.getDineroInicial())
+                .sumar(depositos)
+                .restar(retiros);
+        BigDecimal totalDepositos = depositos.totalMonto();
+        BigDecimal totalRetiros = retiros.totalMonto();
+        BigDecimal montoCalculado = existencias.totalMonto();
+        if (turno.getMontoCalculado() == null || montoCalculado.compareTo(turno.getMontoCalculado()) != 0) {
+            log.warn("Saldo acumulado del turno {} corregido: {} -> {}", 
+                    turno.getCodigoTurno(), turno.getMontoCalculado(), montoCalculado);
+        }
+        
+        turnoRepository.reemplazarSaldo(turno.getId(), montoCalculado, totalDepositos, totalRetiros, existencias.aMapa());
+        inventario.desalojar(turno.getId());
+        turno.setMontoCalculado(montoCalculado);
+        turno.setTotalDepositos(totalDepositos);
+        turno.setTotalRetiros(totalRetiros);
+        turno.setExistencias(existencias.aMapa());
+        return turno;
+    }
+    
     public Turno findById(String id) {
         log.info("Buscando turno por ID: {}", id);
         Optional<Turno> turno = turnoRepository.findById(id);
@@ -146,9 +529,9 @@ public class TurnoService {
         return turnoRepository.findByAgenciaAndEstado(agencia, Turno.ESTADO_ABIERTO);
     }
     
-    public Page<Turno> findByAgencia(String agencia, Pageable pageable) {
+    public Page<ResumenTurno> findByAgencia(String agencia, Pageable pageable) {
         log.info("Buscando turnos por agencia '{}' paginados: {}", agencia, pageable);
-        return turnoRepository.findByAgenciaAndEstado(agencia, Turno.ESTADO_ABIERTO, pageable);
+        return turnoRepository.findResumenByAgenciaAndEstado(agencia, Turno.ESTADO_ABIERTO, pageable);
     }
     
     public List<Turno> findTurnosConAlerta() {
@@ -156,45 +539,29 @@ public class TurnoService {
         return turnoRepository.findByTieneAlertaTrue();
     }
     
-    public Page<Turno> findTurnosConAlerta(Pageable pageable) {
+    public Page<ResumenTurno> findTurnosConAlerta(Pageable pageable) {
         log.info("Buscando turnos con alerta paginados");
-        return turnoRepository.findByTieneAlertaTrue(pageable);
+        return turnoRepository.findResumenByTieneAlertaTrue(pageable);
     }
     
-    public Optional<Turno> findTurnoAbiertoPorCajero(String cajeroId) {
-        log.info("Buscando turno abierto para cajero: {}", cajeroId);
-        return turnoRepository.findByCajeroIdAndEstado(cajeroId, Turno.ESTADO_ABIERTO);
+    public Slice<ResumenTurno> findByAgenciaSinConteo(String agencia, Pageable pageable) {
+        log.info("Buscando turnos por agencia '{}' sin conteo: {}", agencia, pageable);
+        return turnoRepository.findResumenSliceByAgenciaAndEstado(agencia, Turno.ESTADO_ABIERTO, pageable);
     }
     
-    private String generarCodigoTurno(String codigoCaja, String codigoCajero) {
-        LocalDateTime ahora = LocalDateTime.now();
-        String fecha = ahora.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        return String.format("%s-%s-%s", codigoCaja, codigoCajero, fecha);
+    public Slice<ResumenTurno> findTurnosConAlertaSinConteo(Pageable pageable) {
+        log.info("Buscando turnos con alerta sin conteo");
+        return turnoRepository.findResumenSliceByTieneAlertaTrue(pageable);
     }
     
-    private BigDecimal calcularMontoEsperado(String turnoId) {
-        log.info("Calculando monto esperado para turno: {}", turnoId);
-        
-        // Obtener el turno para conocer el monto inicial
-        Turno turno = findById(turnoId);
-        BigDecimal montoInicial = turno.calcularMontoInicial();
-        
-        // Obtener todas las transacciones del turno
-        List<Transaccion> transacciones = transaccionRepository.findByTurnoIdOrderByFechaTransaccionDesc(turnoId);
-        
-        // Calcular el impacto de las transacciones
-        BigDecimal impactoTransacciones = transacciones.stream()
-                .map(transaccion -> {
-                    BigDecimal monto = transaccion.calcularMontoTotal();
-                    // Los depósitos suman al dinero en caja, los retiros restan
-                    return switch (transaccion.getTipo()) {
-                        case Transaccion.TIPO_DEPOSITO -> monto;
-                        case Transaccion.TIPO_RETIRO -> monto.negate();
-                        default -> BigDecimal.ZERO;
-                    };
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        
-        return montoInicial.add(impactoTransacciones);
-    }
-} 
\ No newline at end of file
+    public Optional<Turno> findTurnoAbiertoPorCajero(String cajeroId) {
+        log.info("Buscando turno abierto para cajero: {}", cajeroId);
+        Optional<Turno> enCache = cacheTurnosAbiertos.porCajero(cajeroId);
+        if (enCache.isPresent()) {
+            return enCache;
+        }
+        Optional<Turno> turno = turnoRepository.findByCajeroIdAndEstado(cajeroId, Turno.ESTADO_ABIERTO);
+        turno.ifPresent(cacheTurnosAbiertos::registrar);
+        return turno;
+    }
+}
\ No newline at end of file
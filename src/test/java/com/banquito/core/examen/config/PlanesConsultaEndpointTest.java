@@ -0,0 +1,151 @@
+package com.banquito.core.examen.config;
+
+import com.banquito.core.examen.repository.TransaccionRepository;
+import com.banquito.core.examen.repository.TurnoRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PlanesConsultaEndpointTest {
+
+	private static final String PAQUETE_REPOSITORIOS = "com.banquito.core.examen.repository";
+
+	// Escrituras de los repositorios personalizados: no tienen una forma de find que explicar
+	private static final Set<String> ESCRITURAS = Set.of(
+			"TurnoRepository.aplicarMovimientos",
+			"TurnoRepository.aplicarMovimientosConfirmados",
+			"TurnoRepository.revertirMovimientos",
+			"TurnoRepository.cerrarConciliados",
+			"TurnoRepository.reemplazarSaldo",
+			"TransaccionRepository.insertarLote",
+			"TransaccionRepository.insertarNuevas",
+			"CajeroRepository.upsertPorCodigo",
+			"ResumenHorarioRepository.acumular");
+
+	private final MongoOperations operaciones = mock(MongoOperations.class);
+	private final ReactiveMongoOperations operacionesReactivas = mock(ReactiveMongoOperations.class);
+
+	@BeforeEach
+	void configurar() {
+		MongoCustomConversions conversiones = new MongoCustomConversions(List.of());
+		MongoMappingContext contexto = new MongoMappingContext();
+		contexto.setSimpleTypeHolder(conversiones.getSimpleTypeHolder());
+		MappingMongoConverter convertidor = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, contexto);
+		convertidor.setCustomConversions(conversiones);
+		convertidor.afterPropertiesSet();
+		when(operaciones.getConverter()).thenReturn(convertidor);
+		when(operacionesReactivas.getConverter()).thenReturn(convertidor);
+	}
+
+	@Test
+	void cadaConsultaDeLosRepositoriosTieneSuPlan() throws Exception {
+		List<Class<?>> repositorios = repositorios();
+		assertFalse(repositorios.isEmpty());
+
+		Set<String> explicadas = new TreeSet<>();
+		for (Class<?> repositorio : repositorios) {
+			PlanesConsultaEndpoint.consultasDerivadas(repositorio, operaciones, operacionesReactivas)
+					.forEach(consulta -> explicadas.add(consulta.getRepositorio() + "." + consulta.getMetodo()));
+		}
+		PlanesConsultaEndpoint.consultasPersonalizadas()
+				.forEach(consulta -> explicadas.add(consulta.getRepositorio() + "." + consulta.getMetodo()));
+
+		Set<String> faltantes = new TreeSet<>();
+		for (Class<?> repositorio : repositorios) {
+			for (String metodo : metodos(repositorio)) {
+				String clave = repositorio.getSimpleName() + "." + metodo;
+				if (!explicadas.contains(clave) && !ESCRITURAS.contains(clave)) {
+					faltantes.add(clave);
+				}
+			}
+		}
+
+		assertEquals(Set.of(), faltantes, "Consultas sin plan en PlanesConsultaEndpoint");
+	}
+
+	@Test
+	void lasConsultasDerivadasSonLasQueArmaSpringData() {
+		Query query = consulta(TurnoRepository.class, "findByCajeroIdAndEstadoOrderByFechaAperturaDesc");
+		assertEquals(new Document("cajeroId", PlanesConsultaEndpoint.MUESTRA).append("estado", "ABIERTO"),
+				query.getQueryObject());
+		assertEquals(new Document("fechaApertura", -1), query.getSortObject());
+
+		Query rango = consulta(TransaccionRepository.class, "findByFechaTransaccionBetween");
+		assertEquals(new Document("fechaTransaccion", new Document("$gt", PlanesConsultaEndpoint.DESDE)
+				.append("$lt", PlanesConsultaEndpoint.HASTA)), rango.getQueryObject());
+	}
+
+	private Query consulta(Class<?> repositorio, String metodo) {
+		return PlanesConsultaEndpoint.consultasDerivadas(repositorio, operaciones, operacionesReactivas).stream()
+				.filter(consulta -> consulta.getMetodo().equals(metodo))
+				.findFirst()
+				.orElseThrow()
+				.getQuery();
+	}
+
+	private static List<Class<?>> repositorios() throws ClassNotFoundException {
+		ClassPathScanningCandidateComponentProvider escaner = new ClassPathScanningCandidateComponentProvider(false) {
+			@Override
+			protected boolean isCandidateComponent(AnnotatedBeanDefinition definicion) {
+				return definicion.getMetadata().isInterface();
+			}
+		};
+		escaner.addIncludeFilter(new AnnotationTypeFilter(Repository.class));
+
+		List<Class<?>> repositorios = new ArrayList<>();
+		for (var definicion : escaner.findCandidateComponents(PAQUETE_REPOSITORIOS)) {
+			repositorios.add(ClassUtils.forName(definicion.getBeanClassName(), null));
+		}
+		return repositorios;
+	}
+
+	/**
+	 * Métodos propios del repositorio y de su interfaz *Custom; no los del repositorio base, aunque se redeclaren.
+	 */
+	private static Set<String> metodos(Class<?> repositorio) {
+		Set<String> nombres = new TreeSet<>();
+		agregarMetodos(repositorio, nombres);
+		for (Class<?> padre : repositorio.getInterfaces()) {
+			if (padre.getPackageName().equals(PAQUETE_REPOSITORIOS)) {
+				agregarMetodos(padre, nombres);
+			}
+		}
+		return nombres;
+	}
+
+	private static void agregarMetodos(Class<?> interfaz, Set<String> nombres) {
+		for (Method metodo : interfaz.getDeclaredMethods()) {
+			if (Modifier.isAbstract(metodo.getModifiers()) && !metodo.isSynthetic()
+					&& !ClassUtils.hasMethod(MongoRepository.class, metodo.getName(), metodo.getParameterTypes())
+					&& !ClassUtils.hasMethod(ReactiveMongoRepository.class, metodo.getName(), metodo.getParameterTypes())) {
+				nombres.add(metodo.getName());
+			}
+		}
+	}
+}
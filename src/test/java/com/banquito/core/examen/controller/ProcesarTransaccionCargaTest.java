@@ -0,0 +1,190 @@
+package com.banquito.core.examen.controller;
+
+import com.banquito.core.Application;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.repository.ResumenHorarioRepository;
+import com.banquito.core.examen.repository.TransaccionRepository;
+import com.banquito.core.examen.repository.TurnoRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Prueba de carga de POST /v1/transacciones con hilos de plataforma y con hilos virtuales.
+ * Los repositorios se sustituyen por dobles que simulan la latencia de Mongo, de modo que
+ * la diferencia medida proviene solo del modelo de hilos. Cada cliente concurrente opera sobre
+ * su propio turno: con uno solo, todas las peticiones pasarían por la misma cola del secuenciador
+ * y se mediría esa cola en lugar de los hilos. Ejecutar con: mvn test -Pcarga
+ */
+@Tag("carga")
+class ProcesarTransaccionCargaTest {
+
+	private static final int PETICIONES = 4000;
+	private static final int CONCURRENCIA = 500;
+	private static final long LATENCIA_MONGO_MS = 15;
+	private static final String CUERPO = """
+			{"turnoId":"%s","tipo":"DEPOSITO","monto":100,
+			 "denominaciones":[{"denominacion":"20","cantidad":5}]}""";
+
+	private static final Logger log = LoggerFactory.getLogger(ProcesarTransaccionCargaTest.class);
+
+	@Test
+	void comparaHilosDePlataformaYVirtuales() throws Exception {
+		Resultado plataforma = medir(false);
+		Resultado virtuales = medir(true);
+
+		log.info("POST /v1/transacciones: {} peticiones, {} clientes concurrentes con un turno cada uno, {} ms de latencia simulada por operación\n{}\n{}\n{}",
+				PETICIONES, CONCURRENCIA, LATENCIA_MONGO_MS,
+				"%-12s %12s %10s %10s".formatted("hilos", "peticiones/s", "p50 ms", "p99 ms"),
+				"%-12s %12.0f %10.1f %10.1f".formatted("plataforma", plataforma.rendimiento(), plataforma.p50(), plataforma.p99()),
+				"%-12s %12.0f %10.1f %10.1f".formatted("virtuales", virtuales.rendimiento(), virtuales.p50(), virtuales.p99()));
+
+		assertEquals(PETICIONES, plataforma.exitosas());
+		assertEquals(PETICIONES, virtuales.exitosas());
+	}
+
+	private Resultado medir(boolean hilosVirtuales) throws Exception {
+		try (ConfigurableApplicationContext contexto = new SpringApplicationBuilder(Application.class, RepositoriosConLatencia.class)
+				.run("--server.port=0",
+						"--spring.threads.virtual.enabled=" + hilosVirtuales,
+						"--banquito.cache.cajeros.precarga=false",
+						"--logging.level.root=WARN",
+						"--logging.level." + ProcesarTransaccionCargaTest.class.getName() + "=INFO")) {
+			int puerto = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+			URI uri = URI.create("http://localhost:" + puerto + "/v1/transacciones");
+
+			// Calentamiento: carga cada turno en caché y compila las rutas calientes
+			ejecutar(uri, CONCURRENCIA, CONCURRENCIA);
+			return ejecutar(uri, PETICIONES, CONCURRENCIA);
+		}
+	}
+
+	/**
+	 * Reparte las peticiones entre {@code concurrencia} clientes; cada cliente envía las suyas de a una
+	 * sobre su propio turno.
+	 */
+	private Resultado ejecutar(URI uri, int peticiones, int concurrencia) throws Exception {
+		long[] latencias = new long[peticiones];
+		List<Future<Integer>> clientes = new ArrayList<>(concurrencia);
+
+		try (HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+			 ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			long inicio = System.nanoTime();
+			for (int c = 0; c < concurrencia; c++) {
+				int numeroCliente = c;
+				clientes.add(executor.submit(() -> {
+					String cuerpo = CUERPO.formatted(turnoId(numeroCliente));
+					int exitosas = 0;
+					for (int indice = numeroCliente; indice < peticiones; indice += concurrencia) {
+						HttpRequest request = HttpRequest.newBuilder(uri)
+								.header("Content-Type", "application/json")
+								.POST(HttpRequest.BodyPublishers.ofString(cuerpo))
+								.build();
+						long t0 = System.nanoTime();
+						int estado = cliente.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+						latencias[indice] = System.nanoTime() - t0;
+						if (estado == 201) exitosas++;
+					}
+					return exitosas;
+				}));
+			}
+			int exitosas = 0;
+			for (Future<Integer> respuestas : clientes) {
+				exitosas += respuestas.get();
+			}
+			long duracion = System.nanoTime() - inicio;
+			Arrays.sort(latencias);
+			return new Resultado(exitosas, peticiones * 1e9 / duracion,
+					latencias[peticiones / 2] / 1e6, latencias[(int) (peticiones * 0.99) - 1] / 1e6);
+		}
+	}
+
+	private static String turnoId(int cliente) {
+		return "%024x".formatted(cliente);
+	}
+
+	private record Resultado(int exitosas, double rendimiento, double p50, double p99) {
+	}
+
+	@TestConfiguration
+	static class RepositoriosConLatencia {
+
+		@Bean
+		@Primary
+		TurnoRepository turnoRepositoryConLatencia() {
+			Map<String, Turno> turnos = new ConcurrentHashMap<>();
+			TurnoRepository repositorio = Mockito.mock(TurnoRepository.class, Mockito.withSettings().stubOnly());
+			Mockito.when(repositorio.findById(Mockito.anyString())).thenAnswer(invocacion -> {
+				Thread.sleep(LATENCIA_MONGO_MS);
+				return Optional.of(turnos.computeIfAbsent(invocacion.getArgument(0), RepositoriosConLatencia::turno));
+			});
+			Mockito.when(repositorio.aplicarMovimientos(Mockito.anyString(), Mockito.anyList())).thenAnswer(invocacion -> {
+				Thread.sleep(LATENCIA_MONGO_MS);
+				return true;
+			});
+			return repositorio;
+		}
+
+		private static Turno turno(String id) {
+			Turno turno = new Turno(id);
+			turno.setEstado(Turno.ESTADO_ABIERTO);
+			turno.setCajeroId("cajero-" + id);
+			turno.setCodigoCajero("CAJ-" + id);
+			turno.setCodigoCaja("CAJA01");
+			turno.setExistencias(Map.of());
+			return turno;
+		}
+
+		@Bean
+		@Primary
+		TransaccionRepository transaccionRepositoryConLatencia() {
+			TransaccionRepository repositorio = Mockito.mock(TransaccionRepository.class, Mockito.withSettings().stubOnly());
+			Mockito.when(repositorio.save(Mockito.any(Transaccion.class))).thenAnswer(invocacion -> {
+				Thread.sleep(LATENCIA_MONGO_MS);
+				return invocacion.getArgument(0);
+			});
+			Mockito.when(repositorio.insertarLote(Mockito.anyList())).thenAnswer(invocacion -> {
+				Thread.sleep(LATENCIA_MONGO_MS);
+				return Map.of();
+			});
+			return repositorio;
+		}
+
+		@Bean
+		@Primary
+		ResumenHorarioRepository resumenHorarioRepositoryConLatencia() {
+			ResumenHorarioRepository repositorio = Mockito.mock(ResumenHorarioRepository.class, Mockito.withSettings().stubOnly());
+			Mockito.doAnswer(invocacion -> {
+				Thread.sleep(LATENCIA_MONGO_MS);
+				return null;
+			}).when(repositorio).acumular(Mockito.anyList());
+			return repositorio;
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.Transaccion;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.RandomAccessFile;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiarioTransaccionesTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@TempDir
+	Path directorio;
+
+	@Test
+	void recuperaLoRegistradoSinAplicarAlReabrir() throws Exception {
+		DiarioTransacciones diario = abrir(DataSize.ofKilobytes(64));
+		for (int i = 0; i < 5; i++) {
+			diario.registrar(transaccion("TRX-" + i));
+		}
+		diario.cerrar();
+
+		DiarioTransacciones reabierto = abrir(DataSize.ofKilobytes(64));
+		assertTrue(reabierto.getPosicionRecuperada() > 0);
+		DiarioTransacciones.LoteDiario lote = reabierto.leerPendientes(100, Duration.ofSeconds(1));
+		assertEquals(List.of("TRX-0", "TRX-1", "TRX-2", "TRX-3", "TRX-4"), codigos(lote));
+		assertEquals(new BigDecimal("20.00"), lote.getTransacciones().get(0).getMonto());
+		reabierto.confirmarAplicado(lote.getHasta());
+		reabierto.cerrar();
+
+		DiarioTransacciones aplicado = abrir(DataSize.ofKilobytes(64));
+		assertTrue(codigos(aplicado.leerPendientes(100, Duration.ofMillis(100))).isEmpty());
+		aplicado.cerrar();
+	}
+
+	@Test
+	void leeEnOrdenAtravesandoSegmentos() throws Exception {
+		DiarioTransacciones diario = abrir(DataSize.ofKilobytes(2));
+		List<String> esperados = new ArrayList<>();
+		for (int i = 0; i < 40; i++) {
+			esperados.add("TRX-" + i);
+			diario.registrar(transaccion("TRX-" + i));
+		}
+
+		List<String> leidos = new ArrayList<>();
+		while (leidos.size() < esperados.size()) {
+			DiarioTransacciones.LoteDiario lote = diario.leerPendientes(7, Duration.ofSeconds(1));
+			leidos.addAll(codigos(lote));
+			diario.confirmarAplicado(lote.getHasta());
+		}
+		assertEquals(esperados, leidos);
+		assertTrue(diario.esperarAplicacion(Duration.ofSeconds(1)));
+		diario.cerrar();
+	}
+
+	@Test
+	void ignoraUnaEntradaIncompletaAlFinal() throws Exception {
+		DiarioTransacciones diario = abrir(DataSize.ofKilobytes(64));
+		diario.registrar(transaccion("TRX-0"));
+		diario.registrar(transaccion("TRX-1"));
+		diario.cerrar();
+
+		// Simula una escritura a medias de la última entrada
+		Path segmento;
+		try (Stream<Path> archivos = Files.list(directorio)) {
+			segmento = archivos.filter(archivo -> archivo.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+		}
+		int longitudPrimera;
+		try (RandomAccessFile archivo = new RandomAccessFile(segmento.toFile(), "rw")) {
+			longitudPrimera = archivo.readInt();
+			archivo.seek(8L + longitudPrimera + 8 + 10);
+			archivo.write(new byte[] {0, 0, 0, 0});
+		}
+
+		DiarioTransacciones reabierto = abrir(DataSize.ofKilobytes(64));
+		assertEquals(List.of("TRX-0"), codigos(reabierto.leerPendientes(100, Duration.ofSeconds(1))));
+		reabierto.cerrar();
+	}
+
+	private DiarioTransacciones abrir(DataSize tamanioSegmento) throws Exception {
+		DiarioTransacciones diario = new DiarioTransacciones(directorio, tamanioSegmento, objectMapper);
+		diario.abrir();
+		return diario;
+	}
+
+	private static List<String> codigos(DiarioTransacciones.LoteDiario lote) {
+		return lote.getTransacciones().stream().map(Transaccion::getCodigoTransaccion).toList();
+	}
+
+	private static Transaccion transaccion(String codigo) {
+		Transaccion transaccion = new Transaccion();
+		transaccion.setCodigoTransaccion(codigo);
+		transaccion.setTurnoId("turno-1");
+		transaccion.setTipo(Transaccion.TIPO_DEPOSITO);
+		transaccion.setMonto(new BigDecimal("20.00"));
+		transaccion.setDenominaciones(List.of(new DetalleDenominacion("20", 1)));
+		transaccion.setFechaTransaccion(LocalDateTime.now());
+		return transaccion;
+	}
+}
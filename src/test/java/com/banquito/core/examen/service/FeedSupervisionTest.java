@@ -0,0 +1,132 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.enums.PoliticaDesborde;
+import com.banquito.core.examen.model.EventoSupervision;
+import com.banquito.core.examen.model.Transaccion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeedSupervisionTest {
+
+	private static final int EVENTOS = 10_000;
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private FeedSupervision feed;
+
+	@BeforeEach
+	void configurar() {
+		feed = new FeedSupervision(EVENTOS * 2, Duration.ofMinutes(1), registry);
+	}
+
+	@AfterEach
+	void detener() throws InterruptedException {
+		feed.detener();
+	}
+
+	@Test
+	void suscriptorLentoConservaLosEventosMasRecientes() throws Exception {
+		CountDownLatch liberar = new CountDownLatch(1);
+		List<Long> recibidos = new CopyOnWriteArrayList<>();
+		feed.suscribir("AG01", 4, PoliticaDesborde.DESCARTAR_ANTIGUOS, destino(evento -> {
+			liberar.await();
+			recibidos.add(evento.getSecuencia());
+		}, new CountDownLatch(1)));
+
+		long inicio = System.nanoTime();
+		for (int i = 0; i < EVENTOS; i++) {
+			feed.publicarTransacciones(List.of(transaccion("AG01")));
+		}
+		long publicacionMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+		assertTrue(publicacionMs < 1000, "La publicación no debe esperar al suscriptor: " + publicacionMs + " ms");
+
+		// Uno queda en curso en el suscriptor y cuatro en el anillo; el resto se descarta
+		esperarHasta(() -> descartados() == EVENTOS - 5);
+		liberar.countDown();
+		esperarHasta(() -> recibidos.size() == 5);
+		assertEquals(List.of((long) EVENTOS - 3, (long) EVENTOS - 2, (long) EVENTOS - 1, (long) EVENTOS),
+				recibidos.subList(1, 5));
+	}
+
+	@Test
+	void politicaDesconectarCierraAlSuscriptorLento() throws Exception {
+		CountDownLatch nuncaLibera = new CountDownLatch(1);
+		CountDownLatch cerrado = new CountDownLatch(1);
+		feed.suscribir("AG01", 2, PoliticaDesborde.DESCONECTAR, destino(evento -> nuncaLibera.await(), cerrado));
+
+		for (int i = 0; i < 10; i++) {
+			feed.publicarTransacciones(List.of(transaccion("AG01")));
+		}
+
+		assertTrue(cerrado.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void soloRecibeLosEventosDeSuAgencia() throws Exception {
+		List<String> agencias = new CopyOnWriteArrayList<>();
+		feed.suscribir("AG01", 16, PoliticaDesborde.DESCARTAR_NUEVOS,
+				destino(evento -> agencias.add(evento.getAgencia()), new CountDownLatch(1)));
+
+		List<Transaccion> transacciones = new ArrayList<>();
+		transacciones.add(transaccion("AG02"));
+		transacciones.add(transaccion("AG01"));
+		feed.publicarTransacciones(transacciones);
+
+		esperarHasta(() -> !agencias.isEmpty());
+		Thread.sleep(100);
+		assertEquals(List.of("AG01"), agencias);
+	}
+
+	private interface Envio {
+		void enviar(EventoSupervision evento) throws Exception;
+	}
+
+	private static FeedSupervision.Destino destino(Envio envio, CountDownLatch cerrado) {
+		return new FeedSupervision.Destino() {
+			@Override
+			public void enviar(EventoSupervision evento) throws Exception {
+				envio.enviar(evento);
+			}
+
+			@Override
+			public void latido() {
+			}
+
+			@Override
+			public void cerrar() {
+				cerrado.countDown();
+			}
+		};
+	}
+
+	private double descartados() {
+		return registry.get("banquito.supervision.descartados").tag("etapa", "suscriptor").counter().count();
+	}
+
+	private static Transaccion transaccion(String agencia) {
+		Transaccion transaccion = new Transaccion();
+		transaccion.setAgencia(agencia);
+		transaccion.setTipo(Transaccion.TIPO_DEPOSITO);
+		return transaccion;
+	}
+
+	private static void esperarHasta(BooleanSupplier condicion) throws InterruptedException {
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!condicion.getAsBoolean()) {
+			assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+			Thread.sleep(10);
+		}
+	}
+}
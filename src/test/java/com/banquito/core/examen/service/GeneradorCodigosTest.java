@@ -0,0 +1,124 @@
+package com.banquito.core.examen.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeneradorCodigosTest {
+
+	private static final int HILOS = 16;
+	private static final int CODIGOS_POR_HILO = 50_000;
+
+	@Test
+	void noGeneraDuplicadosConcurrentemente() throws Exception {
+		GeneradorCodigos generador = new GeneradorCodigos(7);
+		Set<Long> ids = ConcurrentHashMap.newKeySet();
+		CountDownLatch inicio = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+		try {
+			List<Future<Boolean>> resultados = new ArrayList<>();
+			for (int h = 0; h < HILOS; h++) {
+				resultados.add(executor.submit(() -> {
+					inicio.await();
+					long anterior = Long.MIN_VALUE;
+					boolean creciente = true;
+					for (int i = 0; i < CODIGOS_POR_HILO; i++) {
+						long id = generador.siguienteId();
+						creciente &= id > anterior;
+						anterior = id;
+						ids.add(id);
+					}
+					return creciente;
+				}));
+			}
+			inicio.countDown();
+			for (Future<Boolean> resultado : resultados) {
+				assertTrue(resultado.get(), "Los identificadores de un mismo hilo deben ser crecientes");
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(HILOS * CODIGOS_POR_HILO, ids.size());
+	}
+
+	@Test
+	void nodosDistintosNoColisionan() {
+		GeneradorCodigos nodoUno = new GeneradorCodigos(1);
+		GeneradorCodigos nodoDos = new GeneradorCodigos(2);
+		Set<Long> ids = new HashSet<>();
+		for (int i = 0; i < 10_000; i++) {
+			ids.add(nodoUno.siguienteId());
+			ids.add(nodoDos.siguienteId());
+		}
+		assertEquals(20_000, ids.size());
+	}
+
+	@Test
+	void codigosConservanPrefijos() {
+		GeneradorCodigos generador = new GeneradorCodigos(0);
+		assertTrue(generador.codigoTransaccion("CAJ001").startsWith("TXN-CAJ001-"));
+		assertTrue(generador.codigoTurno("CAJA01", "CAJ001").startsWith("CAJA01-CAJ001-"));
+	}
+
+	@Test
+	void rechazaNodoFueraDeRango() {
+		assertThrows(IllegalArgumentException.class, () -> new GeneradorCodigos(1024));
+	}
+
+	@Test
+	void unRetrocesoPequenoDelRelojSigueCreciendo() {
+		AtomicLong reloj = new AtomicLong(GeneradorCodigos.EPOCA + 10_000);
+		GeneradorCodigos generador = new GeneradorCodigos(3, reloj::get);
+		long anterior = generador.siguienteId();
+		reloj.addAndGet(-500);
+		for (int i = 0; i < 1_000; i++) {
+			long id = generador.siguienteId();
+			assertTrue(id > anterior);
+			anterior = id;
+		}
+	}
+
+	@Test
+	void unRetrocesoGrandeDelRelojRechazaGenerar() {
+		AtomicLong reloj = new AtomicLong(GeneradorCodigos.EPOCA + 60_000);
+		GeneradorCodigos generador = new GeneradorCodigos(3, reloj::get);
+		generador.siguienteId();
+		reloj.addAndGet(-(GeneradorCodigos.ESPERA_MAXIMA_MS + 1_000));
+		assertThrows(IllegalStateException.class, generador::siguienteId);
+	}
+
+	@Test
+	void continuaDespuesDelUltimoMilisegundoDelDuenoAnterior() {
+		AtomicLong reloj = new AtomicLong(GeneradorCodigos.EPOCA + 10_000);
+		GeneradorCodigos anterior = new GeneradorCodigos(5, reloj::get);
+		long ultimo = anterior.siguienteId();
+
+		// Nueva instancia con el mismo nodo y el reloj atrasado
+		reloj.addAndGet(-200);
+		GeneradorCodigos siguiente = new GeneradorCodigos(5, reloj::get);
+		siguiente.noAntesDe(anterior.ultimoMilisegundo());
+		assertTrue(siguiente.siguienteId() > ultimo);
+	}
+
+	@Test
+	void sinNodoAsignadoNoGenera() {
+		GeneradorCodigos generador = new GeneradorCodigos(GeneradorCodigos.NODO_AUTOMATICO, System::currentTimeMillis);
+		assertThrows(IllegalStateException.class, generador::siguienteId);
+		generador.asignarNodo(9);
+		generador.siguienteId();
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.config.CacheConfig;
+import com.banquito.core.examen.enums.FormatoExportacion;
+import com.banquito.core.examen.model.Cajero;
+import com.banquito.core.examen.repository.CajeroRepository;
+import com.banquito.core.examen.repository.CajeroRepositoryCustom;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ImportacionCajerosServiceTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final Set<String> existentes = new HashSet<>();
+	private final List<List<String>> lotes = new ArrayList<>();
+	private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.CAJEROS, CacheConfig.CAJEROS_ACTIVOS);
+	private ImportacionCajerosService importacionService;
+
+	@BeforeEach
+	void configurar() {
+		CajeroRepository cajeroRepository = mock(CajeroRepository.class);
+		when(cajeroRepository.upsertPorCodigo(anyList())).thenAnswer(invocacion -> {
+			List<Cajero> cajeros = invocacion.getArgument(0);
+			lotes.add(cajeros.stream().map(Cajero::getCodigo).toList());
+			Set<Integer> creados = new HashSet<>();
+			for (int i = 0; i < cajeros.size(); i++) {
+				if (existentes.add(cajeros.get(i).getCodigo())) {
+					creados.add(i);
+				}
+			}
+			return new CajeroRepositoryCustom.ResultadoUpsert(creados, Map.of());
+		});
+		importacionService = new ImportacionCajerosService(cajeroRepository, objectMapper, cacheManager, 2);
+	}
+
+	@Test
+	void csvSeAplicaEnLotesEInformaCadaFila() throws Exception {
+		existentes.add("CAJ002");
+		cacheManager.getCache(CacheConfig.CAJEROS_ACTIVOS).put("CAJ002", new Cajero("viejo"));
+		String csv = """
+				codigo,codigoCaja,nombre,apellido,email,agencia
+				CAJ001,CAJA01,Juan,Pérez,juan@banquito.com,MATRIZ
+				CAJ002,CAJA02,"Ana, María",Loor,,MATRIZ
+				CAJ003,CAJA03,Luis,,luis@banquito.com,NORTE
+				CAJ004,CAJA04,Rosa,Vera,no-es-email,NORTE
+				CAJ005,CAJA05,Eva,Mora,,NORTE
+				""";
+
+		List<JsonNode> reporte = importar(FormatoExportacion.CSV, csv);
+
+		assertEquals(List.of(List.of("CAJ001", "CAJ002"), List.of("CAJ005")), lotes);
+		assertEquals("CREADO", resultadoDe(reporte, "CAJ001"));
+		assertEquals("ACTUALIZADO", resultadoDe(reporte, "CAJ002"));
+		assertEquals("RECHAZADO", resultadoDe(reporte, "CAJ003"));
+		assertEquals("RECHAZADO", resultadoDe(reporte, "CAJ004"));
+		assertEquals("CREADO", resultadoDe(reporte, "CAJ005"));
+		JsonNode totales = reporte.get(reporte.size() - 1);
+		assertEquals(5, totales.get("filas").asLong());
+		assertEquals(2, totales.get("creados").asLong());
+		assertEquals(1, totales.get("actualizados").asLong());
+		assertEquals(2, totales.get("rechazados").asLong());
+		assertNull(cacheManager.getCache(CacheConfig.CAJEROS_ACTIVOS).get("CAJ002"));
+	}
+
+	@Test
+	void ndjsonConCodigoRepetidoRespetaElOrdenDelArchivo() throws Exception {
+		String ndjson = """
+				{"codigo":"CAJ001","codigoCaja":"CAJA01","nombre":"Juan","apellido":"Pérez","agencia":"MATRIZ"}
+				{no es json
+				{"codigo":"CAJ001","codigoCaja":"CAJA09","nombre":"Juan","apellido":"Pérez","agencia":"NORTE","activo":false}
+				""";
+
+		List<JsonNode> reporte = importar(FormatoExportacion.NDJSON, ndjson);
+
+		assertEquals(List.of(List.of("CAJ001"), List.of("CAJ001")), lotes);
+		assertEquals(4, reporte.size());
+		assertEquals(2, reporte.get(0).get("fila").asLong());
+		assertEquals("RECHAZADO", reporte.get(0).get("resultado").asText());
+		assertEquals("CREADO", reporte.get(1).get("resultado").asText());
+		assertEquals("ACTUALIZADO", reporte.get(2).get("resultado").asText());
+	}
+
+	private List<JsonNode> importar(FormatoExportacion formato, String archivo) throws Exception {
+		ByteArrayOutputStream salida = new ByteArrayOutputStream();
+		importacionService.importar(formato, new ByteArrayInputStream(archivo.getBytes(StandardCharsets.UTF_8)), salida);
+		List<JsonNode> reporte = new ArrayList<>();
+		for (String linea : salida.toString(StandardCharsets.UTF_8).split("\n")) {
+			reporte.add(objectMapper.readTree(linea));
+		}
+		return reporte;
+	}
+
+	private static String resultadoDe(List<JsonNode> reporte, String codigo) {
+		return reporte.stream()
+				.filter(fila -> codigo.equals(fila.path("codigo").asText(null)))
+				.findFirst()
+				.orElseThrow()
+				.get("resultado").asText();
+	}
+}
@@ -0,0 +1,86 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.exception.TransaccionException;
+import com.banquito.core.examen.model.Transaccion;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SecuenciadorTurnosTest {
+
+	private static final int COLA_MAXIMA = 2;
+
+	private final SecuenciadorTurnos secuenciador =
+			new SecuenciadorTurnos(new CerrojosTurnos(16), 200, COLA_MAXIMA, new SimpleMeterRegistry());
+	private final CountDownLatch dentro = new CountDownLatch(1);
+	private final CountDownLatch liberar = new CountDownLatch(1);
+
+	// Retiene la primera transacción en el aplicador hasta que se libera
+	private final SecuenciadorTurnos.AplicadorLote aplicador = (turnoId, transacciones) -> {
+		dentro.countDown();
+		try {
+			liberar.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return Map.of();
+	};
+
+	@AfterEach
+	void detener() throws InterruptedException {
+		liberar.countDown();
+		secuenciador.detener();
+	}
+
+	@Test
+	void unaColaLlenaRechazaSinEncolar() throws Exception {
+		CompletableFuture<Transaccion> enCurso = secuenciador.registrarSinEsperar("T-1", new Transaccion(), aplicador);
+		assertTrue(dentro.await(5, TimeUnit.SECONDS));
+
+		List<CompletableFuture<Transaccion>> enEspera = secuenciador.registrarTodasSinEsperar("T-1",
+				List.of(new Transaccion(), new Transaccion()), aplicador);
+		CompletableFuture<Transaccion> rechazada = secuenciador.registrarSinEsperar("T-1", new Transaccion(), aplicador);
+
+		CompletionException error = assertThrows(CompletionException.class, rechazada::join);
+		assertInstanceOf(TransaccionException.class, error.getCause());
+		// Otro turno tiene su propia cola
+		CompletableFuture<Transaccion> otroTurno = secuenciador.registrarSinEsperar("T-2", new Transaccion(), aplicador);
+
+		liberar.countDown();
+		enCurso.get(5, TimeUnit.SECONDS);
+		for (CompletableFuture<Transaccion> transaccion : enEspera) {
+			transaccion.get(5, TimeUnit.SECONDS);
+		}
+		otroTurno.get(5, TimeUnit.SECONDS);
+		// Aplicadas las anteriores, la cola vuelve a admitir transacciones
+		secuenciador.registrarSinEsperar("T-1", new Transaccion(), aplicador).get(5, TimeUnit.SECONDS);
+	}
+
+	@Test
+	void despuesDeDetenerFallaEnLugarDeQuedarEnEspera() throws Exception {
+		secuenciador.detener();
+
+		for (int intento = 0; intento < 2; intento++) {
+			CompletableFuture<Transaccion> resultado = secuenciador.registrarSinEsperar("T-1", new Transaccion(), aplicador);
+			assertTrue(resultado.isCompletedExceptionally());
+			CompletionException error = assertThrows(CompletionException.class, resultado::join);
+			assertInstanceOf(RejectedExecutionException.class, error.getCause());
+		}
+		assertFalse(dentro.await(100, TimeUnit.MILLISECONDS));
+		assertEquals(1, liberar.getCount());
+	}
+}
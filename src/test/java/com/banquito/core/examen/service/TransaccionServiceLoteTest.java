@@ -0,0 +1,128 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.ResultadoTransaccionLote;
+import com.banquito.core.examen.model.Transaccion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.repository.TransaccionRepository;
+import com.banquito.core.examen.repository.TurnoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransaccionServiceLoteTest {
+
+	private final TransaccionRepository transaccionRepository = mock(TransaccionRepository.class);
+	private final TurnoService turnoService = mock(TurnoService.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private TransaccionService transaccionService;
+
+	@BeforeEach
+	void configurar() {
+		Turno turnoA = turno("T-A");
+		Turno turnoB = turno("T-B");
+		when(turnoService.findAllAbiertosById(anyCollection())).thenReturn(List.of(turnoA, turnoB));
+		when(turnoService.findById("T-A")).thenReturn(turnoA);
+		when(turnoService.findById("T-B")).thenReturn(turnoB);
+
+		CerrojosTurnos cerrojos = new CerrojosTurnos(256);
+		transaccionService = new TransaccionService(transaccionRepository, turnoService, new GeneradorCodigos(1),
+				new InventarioTurnos(1000, Duration.ofHours(1), new SimpleMeterRegistry()),
+				new SecuenciadorTurnos(cerrojos, 200, 2000, new SimpleMeterRegistry()),
+				new MetricasOperaciones(meterRegistry, mock(TurnoRepository.class), Duration.ofSeconds(30)),
+				mock(ResumenHorarioService.class), mock(FeedSupervision.class), Optional.empty());
+	}
+
+	@Test
+	void fallaDeInsercionRevierteElSaldoDeTodosLosTurnos() {
+		when(transaccionRepository.insertarLote(anyList()))
+				.thenThrow(new DataAccessResourceFailureException("Tiempo de espera agotado"));
+
+		List<Transaccion> solicitudes = List.of(solicitud("T-A"), solicitud("T-B"), solicitud("T-A"));
+
+		assertThrows(DataAccessResourceFailureException.class, () -> transaccionService.procesarLote(solicitudes));
+
+		verify(turnoService).registrarMovimientos(eq("T-A"), argThat(movimientos -> movimientos.size() == 2));
+		verify(turnoService).registrarMovimientos(eq("T-B"), argThat(movimientos -> movimientos.size() == 1));
+		verify(turnoService).revertirMovimientos(eq("T-A"), argThat(movimientos -> movimientos.size() == 2));
+		verify(turnoService).revertirMovimientos(eq("T-B"), argThat(movimientos -> movimientos.size() == 1));
+		assertEquals(3, conteo(MetricasOperaciones.ERROR));
+	}
+
+	@Test
+	void cadaTransaccionDelLoteSeRegistraEnLasMetricas() {
+		// Cada turno se inserta por separado: la segunda transacción de T-A no se guarda
+		when(transaccionRepository.insertarLote(argThat(lote -> lote != null && lote.size() == 2)))
+				.thenReturn(Map.of(1, "Código de transacción duplicado"));
+		Transaccion sinTurno = solicitud("T-X");
+
+		transaccionService.procesarLote(List.of(solicitud("T-A"), solicitud("T-B"), solicitud("T-A"), sinTurno));
+
+		assertEquals(2, conteo(MetricasOperaciones.EXITO));
+		assertEquals(1, conteo(MetricasOperaciones.ERROR));
+		assertEquals(1, conteo(MetricasOperaciones.RECHAZADA));
+	}
+
+	@Test
+	void unaCantidadNegativaSeRechazaSinMoverElSaldo() {
+		// 100 - 20 = 80: el monto cuadra, pero el retiro devolvería un billete de 20 a la caja
+		Transaccion negativa = solicitud("T-A");
+		negativa.setTipo(Transaccion.TIPO_RETIRO);
+		negativa.setMonto(BigDecimal.valueOf(80));
+		negativa.setDenominaciones(List.of(new DetalleDenominacion("100", 1), new DetalleDenominacion("20", -1)));
+
+		List<ResultadoTransaccionLote> resultados = transaccionService.procesarLote(List.of(negativa));
+
+		assertFalse(resultados.get(0).getExitosa());
+		verify(turnoService, never()).registrarMovimientos(anyString(), anyList());
+		assertEquals(1, conteo(MetricasOperaciones.RECHAZADA));
+	}
+
+	private long conteo(String resultado) {
+		return meterRegistry.find("banquito.transacciones.procesamiento")
+				.tag("ruta", MetricasOperaciones.RUTA_LOTE)
+				.tag("resultado", resultado)
+				.timers().stream()
+				.mapToLong(timer -> timer.count())
+				.sum();
+	}
+
+	private static Turno turno(String id) {
+		Turno turno = new Turno(id);
+		turno.setCodigoCajero("CAJ-" + id);
+		turno.setCodigoCaja("CAJA01");
+		turno.setAgencia("AG01");
+		turno.setEstado(Turno.ESTADO_ABIERTO);
+		turno.setExistencias(Map.of("20", 10));
+		return turno;
+	}
+
+	private static Transaccion solicitud(String turnoId) {
+		Transaccion solicitud = new Transaccion();
+		solicitud.setTurnoId(turnoId);
+		solicitud.setTipo(Transaccion.TIPO_DEPOSITO);
+		solicitud.setMonto(BigDecimal.valueOf(100));
+		solicitud.setDenominaciones(List.of(new DetalleDenominacion("20", 5)));
+		return solicitud;
+	}
+}
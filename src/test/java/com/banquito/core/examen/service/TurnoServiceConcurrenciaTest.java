@@ -0,0 +1,146 @@
+package com.banquito.core.examen.service;
+
+import com.banquito.core.examen.exception.TurnoException;
+import com.banquito.core.examen.model.Cajero;
+import com.banquito.core.examen.model.DetalleDenominacion;
+import com.banquito.core.examen.model.Turno;
+import com.banquito.core.examen.repository.TransaccionRepository;
+import com.banquito.core.examen.repository.TurnoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TurnoServiceConcurrenciaTest {
+
+	private static final int HILOS = 32;
+	private static final long LATENCIA_MS = 50;
+
+	private final Map<String, Turno> abiertosPorCajero = new ConcurrentHashMap<>();
+	private final AtomicInteger insertados = new AtomicInteger();
+	private TurnoService turnoService;
+
+	@BeforeEach
+	void configurar() {
+		TurnoRepository turnoRepository = mock(TurnoRepository.class);
+		CajeroService cajeroService = mock(CajeroService.class);
+
+		when(cajeroService.findByCodigoActivo(anyString())).thenAnswer(invocacion -> {
+			String codigo = invocacion.getArgument(0);
+			Cajero cajero = new Cajero();
+			cajero.setId("id-" + codigo);
+			cajero.setCodigo(codigo);
+			cajero.setCodigoCaja("CAJA01");
+			cajero.setAgencia("AG01");
+			return cajero;
+		});
+		when(turnoRepository.findByCajeroIdAndEstado(anyString(), eq(Turno.ESTADO_ABIERTO)))
+				.thenAnswer(invocacion -> Optional.ofNullable(abiertosPorCajero.get(invocacion.<String>getArgument(0))));
+		// Simula la latencia de Mongo entre la verificación y la inserción
+		when(turnoRepository.save(any(Turno.class))).thenAnswer(invocacion -> {
+			Turno turno = invocacion.getArgument(0);
+			Thread.sleep(LATENCIA_MS);
+			turno.setId(UUID.randomUUID().toString());
+			abiertosPorCajero.put(turno.getCajeroId(), turno);
+			insertados.incrementAndGet();
+			return turno;
+		});
+
+		CerrojosTurnos cerrojos = new CerrojosTurnos(256);
+		turnoService = new TurnoService(turnoRepository, cajeroService, mock(TransaccionRepository.class),
+				new GeneradorCodigos(1),
+				new CacheTurnosAbiertos(1000, Duration.ofHours(1), new SimpleMeterRegistry()),
+				new InventarioTurnos(1000, Duration.ofHours(1), new SimpleMeterRegistry()),
+				cerrojos, new SecuenciadorTurnos(cerrojos, 200, 2000, new SimpleMeterRegistry()), mock(MetricasOperaciones.class),
+				new TableroAgencias(turnoRepository), mock(FeedSupervision.class), Optional.empty(), Duration.ofSeconds(1));
+	}
+
+	@Test
+	void unSoloTurnoAbiertoConAperturasConcurrentes() throws Exception {
+		List<Callable<Boolean>> aperturas = new ArrayList<>();
+		for (int i = 0; i < HILOS; i++) {
+			aperturas.add(() -> {
+				try {
+					turnoService.abrirTurno("CAJ001", dinero(), null);
+					return true;
+				} catch (TurnoException e) {
+					return false;
+				}
+			});
+		}
+
+		long exitosas = ejecutarALaVez(aperturas).stream().filter(Boolean::booleanValue).count();
+
+		assertEquals(1, exitosas);
+		assertEquals(1, insertados.get());
+	}
+
+	@Test
+	void cajerosDistintosNoSeEsperanEntreSi() throws Exception {
+		// Calentamiento para no medir la inicialización de los mocks
+		turnoService.abrirTurno("CAJ-CALENTAMIENTO", dinero(), null);
+
+		List<Callable<Boolean>> aperturas = new ArrayList<>();
+		for (int i = 0; i < HILOS; i++) {
+			String codigo = "CAJ" + i;
+			aperturas.add(() -> turnoService.abrirTurno(codigo, dinero(), null) != null);
+		}
+
+		long inicio = System.nanoTime();
+		List<Boolean> resultados = ejecutarALaVez(aperturas);
+		long transcurridoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+		assertTrue(resultados.stream().allMatch(Boolean::booleanValue));
+		long serialMs = HILOS * LATENCIA_MS;
+		assertTrue(transcurridoMs < serialMs / 4,
+				"Las aperturas de cajeros distintos no deben serializarse: " + transcurridoMs + " ms (serial: " + serialMs + " ms)");
+	}
+
+	private static List<Boolean> ejecutarALaVez(List<Callable<Boolean>> tareas) throws Exception {
+		CountDownLatch inicio = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(tareas.size());
+		try {
+			List<Future<Boolean>> futuros = new ArrayList<>();
+			for (Callable<Boolean> tarea : tareas) {
+				futuros.add(executor.submit(() -> {
+					inicio.await();
+					return tarea.call();
+				}));
+			}
+			inicio.countDown();
+			List<Boolean> resultados = new ArrayList<>();
+			for (Future<Boolean> futuro : futuros) {
+				resultados.add(futuro.get());
+			}
+			return resultados;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static List<DetalleDenominacion> dinero() {
+		return List.of(new DetalleDenominacion("20", 5));
+	}
+}